@@ -0,0 +1,158 @@
+package io.spring.team.scorecard.benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the GitHub GraphQL API, answering {@code IssueCount}, batched issue counts
+ * and {@code AssignableUsers} queries with deterministic data.
+ * Latency, error rate and rate limit headers can be configured to simulate GitHub behavior.
+ */
+public class FakeGitHubServer implements Closeable {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private final HttpServer server;
+
+	private volatile Duration latency = Duration.ZERO;
+
+	private volatile double errorRate;
+
+	private volatile int rateLimitRemaining = 5000;
+
+	private volatile int assignableUsers = 20;
+
+	public FakeGitHubServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/graphql", this::handle);
+		this.server.setExecutor(this.executor);
+		this.server.start();
+	}
+
+	public String getUrl() {
+		return "http://localhost:" + this.server.getAddress().getPort() + "/graphql";
+	}
+
+	/**
+	 * Set the time taken to answer each request.
+	 */
+	public void setLatency(Duration latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * Set the ratio of requests failing with a server error.
+	 */
+	public void setErrorRate(double errorRate) {
+		this.errorRate = errorRate;
+	}
+
+	/**
+	 * Set the remaining rate limit budget reported in responses.
+	 */
+	public void setRateLimitRemaining(int rateLimitRemaining) {
+		this.rateLimitRemaining = rateLimitRemaining;
+	}
+
+	/**
+	 * Set the number of assignable users of every repository, listed in pages of 100.
+	 */
+	public void setAssignableUsers(int assignableUsers) {
+		this.assignableUsers = assignableUsers;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		JsonNode request = this.objectMapper.readTree(exchange.getRequestBody());
+		try {
+			Thread.sleep(this.latency.toMillis());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		long resetAt = Instant.now().plus(Duration.ofHours(1)).getEpochSecond();
+		Headers headers = exchange.getResponseHeaders();
+		headers.set("Content-Type", "application/json; charset=utf-8");
+		headers.set("X-RateLimit-Limit", "5000");
+		headers.set("X-RateLimit-Remaining", String.valueOf(this.rateLimitRemaining));
+		headers.set("X-RateLimit-Reset", String.valueOf(resetAt));
+		if (ThreadLocalRandom.current().nextDouble() < this.errorRate) {
+			send(exchange, 502, "{\"message\":\"Server Error\"}");
+		}
+		else {
+			ObjectNode response = this.objectMapper.createObjectNode();
+			response.set("data", data(request.path("query").asText(), request.path("variables"), resetAt));
+			send(exchange, 200, this.objectMapper.writeValueAsString(response));
+		}
+	}
+
+	private ObjectNode data(String query, JsonNode variables, long resetAt) {
+		ObjectNode data = this.objectMapper.createObjectNode();
+		if (query.contains("assignableUsers")) {
+			int start = variables.hasNonNull("cursor") ? Integer.parseInt(variables.get("cursor").asText()) : 0;
+			int end = Math.min(start + 100, this.assignableUsers);
+			ObjectNode users = data.putObject("repository").put("__typename", "Repository")
+					.putObject("assignableUsers").put("__typename", "UserConnection");
+			users.putObject("pageInfo").put("__typename", "PageInfo")
+					.put("endCursor", String.valueOf(end)).put("hasNextPage", end < this.assignableUsers);
+			ArrayNode nodes = users.putArray("nodes");
+			for (int i = start; i < end; i++) {
+				nodes.addObject().put("__typename", "User").put("login", "user" + i);
+			}
+			return data;
+		}
+		if (variables.has("query")) {
+			data.set("search", search(variables.get("query").asText()));
+		}
+		else {
+			Iterator<Map.Entry<String, JsonNode>> aliases = variables.fields();
+			while (aliases.hasNext()) {
+				Map.Entry<String, JsonNode> alias = aliases.next();
+				data.set(alias.getKey(), search(alias.getValue().asText()));
+			}
+		}
+		data.putObject("rateLimit").put("__typename", "RateLimit").put("cost", 1)
+				.put("remaining", this.rateLimitRemaining)
+				.put("resetAt", Instant.ofEpochSecond(resetAt).toString());
+		return data;
+	}
+
+	private ObjectNode search(String query) {
+		return this.objectMapper.createObjectNode().put("__typename", "SearchResultItemConnection")
+				.put("issueCount", Math.abs(query.hashCode() % 500));
+	}
+
+	private void send(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	@Override
+	public void close() {
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,137 @@
+package io.spring.team.scorecard.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.team.scorecard.issues.Issue;
+import io.spring.team.scorecard.issues.IssueColumns;
+import io.spring.team.scorecard.issues.IssueIndex;
+import io.spring.team.scorecard.issues.IssueSnapshot;
+import io.spring.team.scorecard.stats.LocalIssueCounter;
+import io.spring.team.scorecard.stats.ReportingPeriod;
+import io.spring.team.scorecard.stats.Scorecard;
+import io.spring.team.scorecard.stats.StatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Evaluation of a full scorecard against locally stored issues, cost of building their {@link IssueColumns},
+ * cold evaluation from a memory-mapped {@link IssueSnapshot}, and counts over the rolling windows of a whole year.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IssueColumnsBenchmark {
+
+	private static final List<String> MEMBERS = Arrays.asList("wilkinsona", "mbhave", "scottfrederick", "snicoll", "philwebb", "bclozel");
+
+	private static final List<String> BOTS = Arrays.asList("spring-buildmaster", "spring-contributor", "spring-issuemaster");
+
+	private static final List<String> LABELS = Arrays.asList("status: duplicate", "for: stackoverflow", "status: declined",
+			"status: invalid", "type: enhancement", "status: back-port", "type: regression", "type: bug", "type: task",
+			"type: dependency-upgrade", "type: documentation");
+
+	private static final ReportingPeriod PERIOD = new ReportingPeriod(LocalDate.of(2020, 9, 1), LocalDate.of(2020, 9, 30));
+
+	private static final List<ReportingPeriod> ROLLING_PERIODS = ReportingPeriod.rolling(LocalDate.of(2020, 1, 1),
+			LocalDate.of(2020, 12, 31), 30);
+
+	@Param({"100000"})
+	public int issues;
+
+	private IssueIndex index;
+
+	private StatsService statsService;
+
+	private Map<String, List<String>> closedTypes;
+
+	private Path snapshot;
+
+	@Setup
+	public void setup() throws IOException {
+		Random random = new Random(42);
+		this.index = new IssueIndex();
+		Instant origin = Instant.parse("2012-01-01T00:00:00Z");
+		long range = Duration.between(origin, Instant.parse("2021-01-01T00:00:00Z")).getSeconds();
+		for (int i = 0; i < this.issues; i++) {
+			Instant createdAt = origin.plusSeconds((long) (random.nextDouble() * range));
+			Instant closedAt = (random.nextInt(10) < 8) ? createdAt.plus(Duration.ofHours(random.nextInt(24 * 90))) : null;
+			String author = (random.nextInt(4) == 0) ? MEMBERS.get(random.nextInt(MEMBERS.size())) : "user" + random.nextInt(20000);
+			String label = LABELS.get(random.nextInt(LABELS.size()));
+			String milestone = (random.nextBoolean()) ? "2." + random.nextInt(5) + ".x" : null;
+			this.index.add(new Issue(i, random.nextBoolean(), author, createdAt, closedAt, createdAt,
+					Collections.singleton(label), milestone));
+		}
+		this.statsService = new StatsService("spring-projects", "spring-boot", null,
+				new LocalIssueCounter(() -> Mono.just(IssueColumns.of(this.index.getIssues()))));
+		this.closedTypes = new LinkedHashMap<>();
+		this.closedTypes.put("Duplicates", Arrays.asList("status: duplicate"));
+		this.closedTypes.put("Questions", Arrays.asList("for: stackoverflow"));
+		this.closedTypes.put("Declined", Arrays.asList("status: declined", "status: invalid"));
+		this.closedTypes.put("Enhancements", Arrays.asList("type: enhancement"));
+		this.closedTypes.put("Back/Forward-port", Arrays.asList("status: back-port"));
+		this.closedTypes.put("Bug/Regression", Arrays.asList("type: regression", "type: bug"));
+		this.closedTypes.put("Task/Dependency Upgrade", Arrays.asList("type: task", "type: dependency-upgrade"));
+		this.closedTypes.put("Documentation", Arrays.asList("type: documentation"));
+		this.statsService.calculateScorecard(PERIOD, MEMBERS, BOTS, this.closedTypes).block();
+		this.snapshot = Files.createTempFile("issues", ".columns");
+		IssueSnapshot.write(IssueColumns.of(this.index.getIssues()), Instant.now(), this.snapshot);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(this.snapshot);
+	}
+
+	@Benchmark
+	public Scorecard scorecard() {
+		return this.statsService.calculateScorecard(PERIOD, MEMBERS, BOTS, this.closedTypes).block();
+	}
+
+	@Benchmark
+	public List<Integer> rollingInboundVolume() {
+		return Flux.fromIterable(ROLLING_PERIODS)
+				.concatMap((period) -> this.statsService.calculateInboundVolume(period.getStart(), period.getEnd(), MEMBERS, BOTS))
+				.collectList().block();
+	}
+
+	@Benchmark
+	public IssueColumns buildColumns() {
+		return IssueColumns.of(this.index.getIssues());
+	}
+
+	@Benchmark
+	public Scorecard scorecardFromSnapshot() throws IOException {
+		IssueColumns columns = IssueSnapshot.open(this.snapshot).getColumns();
+		return new StatsService("spring-projects", "spring-boot", null, new LocalIssueCounter(() -> Mono.just(columns)))
+				.calculateScorecard(PERIOD, MEMBERS, BOTS, this.closedTypes).block();
+	}
+
+}
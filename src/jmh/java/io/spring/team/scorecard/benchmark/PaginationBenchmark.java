@@ -0,0 +1,66 @@
+package io.spring.team.scorecard.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.team.scorecard.graphql.GraphQLClient;
+import io.spring.team.scorecard.graphql.RequestScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Streaming a paginated listing from a {@link FakeGitHubServer} while processing each item,
+ * with different numbers of pages fetched ahead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class PaginationBenchmark {
+
+	@Param({"0", "1", "4"})
+	public int prefetchPages;
+
+	@Param({"20"})
+	public int latencyMillis;
+
+	private FakeGitHubServer server;
+
+	private GraphQLClient client;
+
+	@Setup
+	public void setup() throws Exception {
+		this.server = new FakeGitHubServer();
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setAssignableUsers(1000);
+		this.client = new GraphQLClient(this.server.getUrl(), "token",
+				new RequestScheduler(16, 100_000, 3, Duration.ofMillis(10)));
+		this.client.setPrefetchPages(this.prefetchPages);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.server.close();
+	}
+
+	@Benchmark
+	public long assignableUsers() {
+		return this.client.findAssignableUsers("spring-projects", "spring-boot")
+				.doOnNext((login) -> Blackhole.consumeCPU(20_000))
+				.count().block();
+	}
+
+}
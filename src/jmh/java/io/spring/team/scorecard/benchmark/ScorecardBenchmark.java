@@ -0,0 +1,129 @@
+package io.spring.team.scorecard.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.team.scorecard.graphql.GraphQLClient;
+import io.spring.team.scorecard.graphql.GraphQLTransport;
+import io.spring.team.scorecard.graphql.IssueSearch;
+import io.spring.team.scorecard.graphql.OkHttpTransport;
+import io.spring.team.scorecard.graphql.RequestScheduler;
+import io.spring.team.scorecard.graphql.SearchBatcher;
+import io.spring.team.scorecard.graphql.WebClientTransport;
+import io.spring.team.scorecard.stats.SearchIssueCounter;
+import io.spring.team.scorecard.stats.StatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * End-to-end scorecard computation against a {@link FakeGitHubServer}, for one or many concurrent repositories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ScorecardBenchmark {
+
+	private static final List<String> MEMBERS = Arrays.asList("wilkinsona", "mbhave", "scottfrederick", "snicoll", "philwebb", "bclozel");
+
+	private static final List<String> BOTS = Arrays.asList("spring-buildmaster", "spring-contributor", "spring-issuemaster");
+
+	private static final List<List<String>> LABEL_GROUPS = Arrays.asList(
+			Arrays.asList("status: duplicate"),
+			Arrays.asList("for: stackoverflow"),
+			Arrays.asList("status: declined", "status: invalid", "status: superseded"),
+			Arrays.asList("type: enhancement"),
+			Arrays.asList("status: back-port", "status: forward-port"),
+			Arrays.asList("type: regression", "type: bug", "type: blocker"),
+			Arrays.asList("type: task", "type: dependency-upgrade"),
+			Arrays.asList("type: wiki-documentation", "type: documentation"));
+
+	private static final LocalDate START = LocalDate.of(2020, 9, 1);
+
+	private static final LocalDate END = LocalDate.of(2020, 9, 30);
+
+	@Param({"0", "20"})
+	public int latencyMillis;
+
+	@Param({"1", "20"})
+	public int batchSize;
+
+	@Param({"1", "10"})
+	public int repositories;
+
+	@Param({"okhttp", "webclient"})
+	public String transport;
+
+	@Param({"0", "0.01"})
+	public double errorRate;
+
+	private FakeGitHubServer server;
+
+	private GraphQLTransport graphQLTransport;
+
+	private GraphQLClient client;
+
+	private IssueSearch search;
+
+	@Setup
+	public void setup() throws Exception {
+		this.server = new FakeGitHubServer();
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setErrorRate(this.errorRate);
+		RequestScheduler scheduler = new RequestScheduler(16, 100_000, 3, Duration.ofMillis(10));
+		this.graphQLTransport = "webclient".equals(this.transport)
+				? new WebClientTransport(this.server.getUrl(), "token", scheduler, 16, false)
+				: new OkHttpTransport(this.server.getUrl(), "token", scheduler);
+		this.client = new GraphQLClient(this.graphQLTransport, scheduler, new SimpleMeterRegistry());
+		this.search = this.client::searchNumberOfIssuesAndPRs;
+		if (this.batchSize > 1) {
+			this.search = new SearchBatcher(this.client, this.batchSize, Duration.ofMillis(5), 16);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (this.search instanceof SearchBatcher) {
+			((SearchBatcher) this.search).close();
+		}
+		if (this.graphQLTransport instanceof WebClientTransport) {
+			((WebClientTransport) this.graphQLTransport).close();
+		}
+		this.server.close();
+	}
+
+	@Benchmark
+	public List<Integer> scorecard() {
+		return Flux.range(0, this.repositories)
+				.flatMap((i) -> scorecard(new StatsService("spring-projects", "project-" + i, this.client,
+						new SearchIssueCounter(this.search))))
+				.collectList().block();
+	}
+
+	private Mono<Integer> scorecard(StatsService statsService) {
+		Flux<Integer> metrics = Flux.concat(statsService.teamCreated(START, END, MEMBERS),
+				statsService.calculateInboundVolume(START, END, MEMBERS, BOTS));
+		Flux<Integer> outputVolumes = Flux.fromIterable(LABEL_GROUPS)
+				.flatMap((labels) -> statsService.calculateOutputVolumeByType(START, END, labels));
+		return Flux.merge(metrics, outputVolumes).reduce(Integer::sum);
+	}
+
+}
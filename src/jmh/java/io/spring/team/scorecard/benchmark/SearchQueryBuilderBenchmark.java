@@ -0,0 +1,46 @@
+package io.spring.team.scorecard.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of creating and rendering search queries with {@link SearchQueryBuilder}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchQueryBuilderBenchmark {
+
+	private final LocalDate start = LocalDate.of(2020, 9, 1);
+
+	private final LocalDate end = LocalDate.of(2020, 9, 30);
+
+	@Benchmark
+	public String createdByAuthor() {
+		return SearchQueryBuilder.create("spring-projects", "spring-boot")
+				.author("snicoll").createdBetween(this.start, this.end).build();
+	}
+
+	@Benchmark
+	public String closedWithLabelsWithoutMilestone() {
+		return SearchQueryBuilder.create("spring-projects", "spring-boot")
+				.withLabel("type: bug").ignoringLabel("status: duplicate")
+				.createdBetween(this.start, this.end).closedBetween(this.start, this.end)
+				.notMilestoned().isIssue().build();
+	}
+
+}
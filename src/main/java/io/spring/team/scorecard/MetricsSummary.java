@@ -0,0 +1,125 @@
+package io.spring.team.scorecard;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Reports the metrics recorded during a run: GraphQL request latencies, retries,
+ * rate limit consumption and time spent computing each stat.
+ */
+public class MetricsSummary {
+
+	private static final Log logger = LogFactory.getLog(MetricsSummary.class);
+
+	private final MeterRegistry meterRegistry;
+
+	private final Path export;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public MetricsSummary(MeterRegistry meterRegistry, Path export) {
+		this.meterRegistry = meterRegistry;
+		this.export = export;
+	}
+
+	/**
+	 * Log a summary of the recorded metrics and export them if configured.
+	 */
+	public void report() throws IOException {
+		log();
+		if (this.export != null) {
+			export(this.export);
+			logger.info("Metrics exported to " + this.export);
+		}
+	}
+
+	public void log() {
+		StringBuilder summary = new StringBuilder("Metrics summary:");
+		for (Meter meter : meters()) {
+			summary.append(System.lineSeparator()).append("  ").append(describe(meter.getId())).append(" ");
+			if (meter instanceof Timer) {
+				HistogramSnapshot snapshot = ((Timer) meter).takeSnapshot();
+				summary.append(String.format("count=%d mean=%.1fms max=%.1fms", snapshot.count(),
+						snapshot.mean(TimeUnit.MILLISECONDS), snapshot.max(TimeUnit.MILLISECONDS)));
+				for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+					summary.append(String.format(" p%s=%.1fms", formatPercentile(percentile.percentile()),
+							percentile.value(TimeUnit.MILLISECONDS)));
+				}
+			}
+			else {
+				for (Measurement measurement : meter.measure()) {
+					summary.append(measurement.getStatistic().getTagValueRepresentation()).append("=")
+							.append(measurement.getValue()).append(" ");
+				}
+			}
+		}
+		logger.info(summary);
+	}
+
+	/**
+	 * Write the recorded metrics as a JSON array to the given file.
+	 */
+	public void export(Path file) throws IOException {
+		ArrayNode content = this.objectMapper.createArrayNode();
+		for (Meter meter : meters()) {
+			ObjectNode node = content.addObject().put("name", meter.getId().getName());
+			ObjectNode tags = node.putObject("tags");
+			meter.getId().getTags().forEach((tag) -> tags.put(tag.getKey(), tag.getValue()));
+			ObjectNode values = node.putObject("values");
+			if (meter instanceof Timer) {
+				HistogramSnapshot snapshot = ((Timer) meter).takeSnapshot();
+				values.put("count", snapshot.count());
+				values.put("mean", snapshot.mean(TimeUnit.MILLISECONDS));
+				values.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+				for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+					values.put("p" + formatPercentile(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+				}
+			}
+			else {
+				for (Measurement measurement : meter.measure()) {
+					values.put(measurement.getStatistic().getTagValueRepresentation(), measurement.getValue());
+				}
+			}
+		}
+		Path directory = file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		this.objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), content);
+	}
+
+	private List<Meter> meters() {
+		return this.meterRegistry.getMeters().stream()
+				.sorted(Comparator.comparing((Meter meter) -> describe(meter.getId())))
+				.collect(Collectors.toList());
+	}
+
+	private static String describe(Meter.Id id) {
+		if (id.getTags().isEmpty()) {
+			return id.getName();
+		}
+		return id.getName() + id.getTags().stream().map((tag) -> tag.getKey() + "=" + tag.getValue())
+				.collect(Collectors.joining(",", "{", "}"));
+	}
+
+	private static String formatPercentile(double percentile) {
+		String value = Double.toString(percentile * 100);
+		return value.endsWith(".0") ? value.substring(0, value.length() - 2) : value;
+	}
+
+}
@@ -1,61 +1,295 @@
 package io.spring.team.scorecard;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import io.spring.team.scorecard.graphql.GraphQLClient;
+import io.spring.team.scorecard.graphql.QueryProfile;
+import io.spring.team.scorecard.graphql.RequestScheduler;
+import io.spring.team.scorecard.issues.Breakdown;
+import io.spring.team.scorecard.stats.Interval;
+import io.spring.team.scorecard.stats.RecordingIssueCounter;
+import io.spring.team.scorecard.stats.ReportingPeriod;
+import io.spring.team.scorecard.stats.Scorecard;
 import io.spring.team.scorecard.stats.StatsService;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 @Component
+@Profile("!server")
 public class ScoreCardApplicationRunner implements ApplicationRunner {
 
 	private static Log logger = LogFactory.getLog(ScoreCardApplicationRunner.class);
 
+	private static final int QUERY_PROFILE_SIZE = 10;
+
 	private final StatsService statsService;
 
+	private final StatsServiceFactory statsServiceFactory;
+
+	private final GraphQLClient client;
+
 	private final ScorecardProperties properties;
 
-	public ScoreCardApplicationRunner(StatsService statsService, ScorecardProperties properties) {
+	private final MetricsSummary metricsSummary;
+
+	private final QueryProfile queryProfile;
+
+	private final ScorecardWriter scorecardWriter = new ScorecardWriter();
+
+	public ScoreCardApplicationRunner(StatsService statsService, StatsServiceFactory statsServiceFactory,
+			GraphQLClient client, ScorecardProperties properties, MetricsSummary metricsSummary,
+			QueryProfile queryProfile) {
 		this.statsService = statsService;
+		this.statsServiceFactory = statsServiceFactory;
+		this.client = client;
 		this.properties = properties;
+		this.metricsSummary = metricsSummary;
+		this.queryProfile = queryProfile;
 	}
 
 	@Override
 	public void run(ApplicationArguments args) throws Exception {
+		try {
+			logStats(args);
+		}
+		catch (RuntimeException ex) {
+			if (this.properties.getJournal().isEnabled()) {
+				logger.error("Completed searches are journaled in " + this.properties.getJournal().getPath()
+						+ ", run again with --resume to only send the missing ones");
+			}
+			throw ex;
+		}
+		finally {
+			this.metricsSummary.report();
+			this.queryProfile.log(QUERY_PROFILE_SIZE);
+		}
+	}
+
+	private void logStats(ApplicationArguments args) throws IOException {
 		LocalDate start = parseDate("start", args.getOptionValues("start"));
 		LocalDate end = parseDate("end", args.getOptionValues("end"));
-		logger.info("Stats for: " + this.properties.getProject().getRepository() + " " + start.toString() + " -> " + end.toString());
-
-		logger.info("Team members: " + StringUtils.collectionToCommaDelimitedString(this.properties.getProject().getMembers()));
-		logger.info("Team bots: " + StringUtils.collectionToCommaDelimitedString(this.properties.getProject().getBots()));
-		List<String> assignableUsers = this.statsService.findAssignableUsers().collectList().block();
-		logger.info("Assignable Users: " + StringUtils.collectionToCommaDelimitedString(assignableUsers));
-		logger.info("Team created: " + this.statsService.teamCreated(start, end,
-				this.properties.getProject().getMembers()).block());
-		logger.info("Community created (Inbound Volume): " + this.statsService.calculateInboundVolume(start, end,
-				this.properties.getProject().getMembers(), this.properties.getProject().getBots()).block());
-		logger.info("Closed as Duplicates: " + this.statsService.calculateOutputVolumeByType(start, end, this.properties.getLabels().getDuplicates()).block());
-		logger.info("Closed as Questions: " + this.statsService.calculateOutputVolumeByType(start, end, this.properties.getLabels().getQuestions()).block());
-		logger.info("Closed as Declined: " + this.statsService.calculateOutputVolumeByType(start, end, this.properties.getLabels().getRejected()).block());
-		logger.info("Closed as Enhancements: " + this.statsService.calculateOutputVolumeByType(start, end, this.properties.getLabels().getEnhancements()).block());
-		logger.info("Closed as Back/Forward-port: " + this.statsService.calculateOutputVolumeByType(start, end, this.properties.getLabels().getPorts()).block());
-		logger.info("Closed as Bug/Regression: " + this.statsService.calculateOutputVolumeByType(start, end, this.properties.getLabels().getBugs()).block());
-		logger.info("Closed as Task/Dependency Upgrade: " + this.statsService.calculateOutputVolumeByType(start, end, this.properties.getLabels().getTasks()).block());
-		logger.info("Closed as Documentation: " + this.statsService.calculateOutputVolumeByType(start, end, this.properties.getLabels().getDocs()).block());
+		List<ReportingPeriod> periods = Collections.singletonList(new ReportingPeriod(start, end));
+		if (args.containsOption("interval")) {
+			Interval interval = Interval.valueOf(args.getOptionValues("interval").get(0).toUpperCase(Locale.ROOT));
+			periods = interval.split(start, end);
+		}
+		if (args.containsOption("window")) {
+			periods = new ArrayList<>();
+			for (String window : StringUtils.commaDelimitedListToStringArray(
+					StringUtils.collectionToCommaDelimitedString(args.getOptionValues("window")))) {
+				periods.addAll(ReportingPeriod.rolling(start, end, Integer.parseInt(window.trim())));
+			}
+		}
+		if (periods.isEmpty()) {
+			logger.warn("No reporting period fits between " + start + " and " + end + ", nothing to calculate");
+			return;
+		}
+		boolean timeSeries = args.containsOption("interval") || args.containsOption("window");
+		Options options = new Options(args.containsOption("breakdown"), args.containsOption("partial"));
+		boolean multipleProjects = !this.properties.getProjects().isEmpty()
+				|| this.properties.getDiscovery().getOrganization() != null;
+		if (args.containsOption("explain")) {
+			explain(multipleProjects ? findProjects() : Collections.singletonList(this.properties.getProject()), periods);
+			return;
+		}
+		List<Scorecard> scorecards;
+		if (multipleProjects) {
+			scorecards = logProjects(findProjects(), periods, options);
+		}
+		else {
+			scorecards = logProject(periods, timeSeries, options);
+		}
+		if (args.containsOption("output")) {
+			Path output = Paths.get(args.getOptionValues("output").get(0));
+			this.scorecardWriter.write(scorecards, output);
+			logger.info("Scorecards written to " + output);
+		}
+	}
+
+	/**
+	 * Calculate the stats of the configured project for all the given periods concurrently, blocking only once.
+	 */
+	private List<Scorecard> logProject(List<ReportingPeriod> periods, boolean timeSeries, Options options) {
+		ScorecardProperties.Project project = this.properties.getProject();
+		LocalDate start = periods.get(0).getStart();
+		LocalDate end = periods.get(periods.size() - 1).getEnd();
+		logger.info("Stats for: " + project.getRepository() + " " + start.toString() + " -> " + end.toString());
+
+		logger.info("Team members: " + StringUtils.collectionToCommaDelimitedString(project.getMembers()));
+		logger.info("Team bots: " + StringUtils.collectionToCommaDelimitedString(project.getBots()));
+		Mono<List<String>> assignableUsers = this.statsService.findAssignableUsers().collectList();
+		if (options.partial) {
+			assignableUsers = assignableUsers.onErrorResume((ex) -> {
+				logger.warn("Could not list assignable users", ex);
+				return Mono.just(Collections.emptyList());
+			});
+		}
+		Mono<List<Scorecard>> scorecards = Flux.fromIterable(periods)
+				.flatMapSequential((period) -> calculateScorecard(this.statsService, project, period, options))
+				.collectList();
+		Tuple2<List<String>, List<Scorecard>> result = Mono.zip(assignableUsers, scorecards).block();
+		logger.info("Assignable Users: " + StringUtils.collectionToCommaDelimitedString(result.getT1()));
+		if (timeSeries) {
+			logTable("Period", periods.stream().map(ReportingPeriod::toString).collect(Collectors.toList()), result.getT2());
+		}
+		else {
+			Scorecard scorecard = result.getT2().get(0);
+			logger.info("Team created: " + scorecard.getTeamCreated());
+			logger.info("Community created (Inbound Volume): " + scorecard.getInboundVolume());
+			scorecard.getClosedByType().forEach((type, count) -> logger.info("Closed as " + type + ": " + count));
+			scorecard.getDurations().forEach((name, histogram) -> logger.info(name + ": " + histogram));
+			scorecard.getBreakdowns().forEach((name, breakdown) -> {
+				logger.info(name + " by author: " + breakdown.getByAuthor());
+				logger.info(name + " by label group: " + breakdown.getByLabelGroup());
+				logger.info(name + " by milestone: " + breakdown.getByMilestone());
+			});
+		}
+		return result.getT2();
+	}
+
+	/**
+	 * Calculate the stats of all the given projects and periods concurrently, and log them as a single table.
+	 * Requests for each project are queued separately, so that large projects don't hold back the others.
+	 */
+	private List<Scorecard> logProjects(List<ScorecardProperties.Project> projects, List<ReportingPeriod> periods,
+			Options options) {
+		List<String> names = new ArrayList<>();
+		List<Mono<Scorecard>> stats = new ArrayList<>();
+		for (ScorecardProperties.Project project : projects) {
+			StatsService projectStatsService = this.statsServiceFactory.create(project);
+			for (ReportingPeriod period : periods) {
+				names.add(project.getRepository() + " " + period);
+				stats.add(calculateScorecard(projectStatsService, project, period, options)
+						.contextWrite(RequestScheduler.queue(project.getRepository())));
+			}
+		}
+		List<Scorecard> scorecards = Flux.fromIterable(stats).flatMapSequential((row) -> row).collectList().block();
+		logTable("Project", names, scorecards);
+		return scorecards;
 	}
 
+	/**
+	 * Log the searches needed to calculate the stats of the given projects and periods, without running them.
+	 */
+	private void explain(List<ScorecardProperties.Project> projects, List<ReportingPeriod> periods) {
+		RecordingIssueCounter recorder = new RecordingIssueCounter();
+		for (ScorecardProperties.Project project : projects) {
+			StatsService projectStatsService = new StatsService(project.getOrg(), project.getName(), this.client, recorder);
+			for (ReportingPeriod period : periods) {
+				calculateScorecard(projectStatsService, project, period, new Options(false, false)).block();
+			}
+		}
+		List<String> queries = recorder.getQueries();
+		logger.info("Search plan: " + queries.size() + " distinct searches (" + recorder.getRequestedCount()
+				+ " before sharing common sub-queries)");
+		queries.forEach((query) -> logger.info("  " + query));
+		ScorecardProperties.GitHub github = this.properties.getGithub();
+		int batchSize = Math.max(1, github.getBatchSize());
+		int requests = (queries.size() + batchSize - 1) / batchSize;
+		long seconds = (long) Math.ceil(requests * 60.0 / github.getSearchesPerMinute());
+		logger.info("Estimated cost: " + requests + " search requests with a batch size of " + batchSize
+				+ ", at least " + seconds + "s at " + github.getSearchesPerMinute() + " searches per minute");
+		if (this.properties.getIndex().isEnabled()) {
+			logger.info("The issue index is enabled: these searches are evaluated locally once issues are synced");
+		}
+	}
+
+	private List<ScorecardProperties.Project> findProjects() {
+		List<ScorecardProperties.Project> projects = new ArrayList<>(this.properties.getProjects());
+		ScorecardProperties.Discovery discovery = this.properties.getDiscovery();
+		if (discovery.getOrganization() != null) {
+			this.client.findRepositories(discovery.getOrganization())
+					.filter((name) -> !discovery.getExclude().contains(name))
+					.map((name) -> this.properties.getProject().forRepository(discovery.getOrganization(), name))
+					.toStream().forEach(projects::add);
+		}
+		logger.info("Stats for " + projects.size() + " projects: " + projects.stream()
+				.map(ScorecardProperties.Project::getRepository).collect(Collectors.joining(", ")));
+		return projects;
+	}
+
+	private void logTable(String title, List<String> names, List<Scorecard> scorecards) {
+		if (scorecards.isEmpty()) {
+			logger.info("No scorecards to report");
+			return;
+		}
+		int width = Math.max(title.length(), names.stream().mapToInt(String::length).max().orElse(0));
+		Set<String> columns = new LinkedHashSet<>();
+		scorecards.forEach((scorecard) -> columns.addAll(scorecard.getStats().keySet()));
+		StringBuilder header = new StringBuilder(String.format("%-" + width + "s", title));
+		columns.forEach((column) -> header.append(" | ").append(column));
+		logger.info(header);
+		for (int i = 0; i < names.size(); i++) {
+			StringBuilder row = new StringBuilder(String.format("%-" + width + "s", names.get(i)));
+			Map<String, Integer> stats = scorecards.get(i).getStats();
+			columns.forEach((column) -> row.append(" | ").append(String.format("%" + column.length() + "s",
+					(stats.get(column) != null) ? stats.get(column) : "-")));
+			logger.info(row);
+		}
+	}
+
+	private Mono<Scorecard> calculateScorecard(StatsService statsService, ScorecardProperties.Project project,
+			ReportingPeriod period, Options options) {
+		Map<String, List<String>> closedTypes = this.properties.getLabels(project).closedTypes();
+		Mono<Scorecard> scorecard = statsService.calculateScorecard(period, project.getMembers(), project.getBots(),
+				closedTypes, options.partial)
+				.switchIfEmpty(Mono.error(() -> new IllegalStateException(
+						"No scorecard calculated for " + project.getRepository() + " " + period)));
+		if (!options.breakdowns) {
+			return scorecard;
+		}
+		Mono<Map<String, Breakdown>> breakdowns = statsService.calculateBreakdowns(period, project.getMembers(),
+				project.getBots(), closedTypes);
+		if (options.partial) {
+			breakdowns = breakdowns.onErrorResume((ex) -> {
+				logger.warn("Could not calculate breakdowns for " + project.getRepository() + " " + period, ex);
+				return Mono.just(Collections.emptyMap());
+			});
+		}
+		return Mono.zip(scorecard, breakdowns).map((tuple) -> tuple.getT1().withBreakdowns(tuple.getT2()));
+	}
 
 	private LocalDate parseDate(String name, List<String> argument) {
 		Assert.state(argument != null && StringUtils.hasText(argument.get(0)),
 				"Argument --" + name + " should be defined");
 		return LocalDate.parse(argument.get(0), DateTimeFormatter.ISO_DATE);
 	}
+
+	/**
+	 * Options of a run, given as command line arguments.
+	 */
+	private static final class Options {
+
+		private final boolean breakdowns;
+
+		private final boolean partial;
+
+		Options(boolean breakdowns, boolean partial) {
+			this.breakdowns = breakdowns;
+			this.partial = partial;
+		}
+	}
+
 }
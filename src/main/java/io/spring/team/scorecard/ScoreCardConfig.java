@@ -1,21 +1,116 @@
 package io.spring.team.scorecard;
 
+import java.io.IOException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.spring.team.scorecard.graphql.GraphQLClient;
+import io.spring.team.scorecard.graphql.GraphQLTransport;
+import io.spring.team.scorecard.graphql.IssueSearch;
+import io.spring.team.scorecard.graphql.OkHttpTransport;
+import io.spring.team.scorecard.graphql.QueryProfile;
+import io.spring.team.scorecard.graphql.RequestScheduler;
+import io.spring.team.scorecard.graphql.SearchBatcher;
+import io.spring.team.scorecard.graphql.SearchCountCache;
+import io.spring.team.scorecard.graphql.SearchJournal;
+import io.spring.team.scorecard.graphql.WebClientTransport;
+import io.spring.team.scorecard.rest.GitHubRestClient;
 import io.spring.team.scorecard.stats.StatsService;
+import okhttp3.Cache;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 @Configuration
 public class ScoreCardConfig {
 
 	@Bean
-	public GraphQLClient graphQLClient(ScorecardProperties properties) {
-		return new GraphQLClient(properties.getGithub().getToken());
+	public MeterRegistry meterRegistry() {
+		return new SimpleMeterRegistry();
+	}
+
+	@Bean
+	public RequestScheduler requestScheduler(ScorecardProperties properties, MeterRegistry meterRegistry) {
+		ScorecardProperties.GitHub github = properties.getGithub();
+		return new RequestScheduler(github.getMaxConcurrency(), github.getSearchesPerMinute(),
+				github.getMaxRetries(), github.getMinBackoff(), meterRegistry);
+	}
+
+	@Bean
+	public GraphQLTransport graphQLTransport(ScorecardProperties properties, RequestScheduler requestScheduler) {
+		ScorecardProperties.GitHub github = properties.getGithub();
+		if (github.getTransport() == ScorecardProperties.GitHub.Transport.WEBCLIENT) {
+			return new WebClientTransport(github.getUrl(), github.getToken(), requestScheduler,
+					github.getMaxConnections(), github.isHttp2());
+		}
+		return new OkHttpTransport(github.getUrl(), github.getToken(), requestScheduler);
+	}
+
+	@Bean
+	@Profile("!server")
+	public QueryProfile queryProfile() {
+		return new QueryProfile();
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "scorecard.http-cache", name = "enabled")
+	public GitHubRestClient gitHubRestClient(ScorecardProperties properties, RequestScheduler requestScheduler,
+			MeterRegistry meterRegistry) {
+		ScorecardProperties.GitHub github = properties.getGithub();
+		ScorecardProperties.HttpCache httpCache = properties.getHttpCache();
+		Cache cache = new Cache(httpCache.getPath().toFile(), httpCache.getMaxSize().toBytes());
+		return new GitHubRestClient(github.getUrl(), github.getToken(), requestScheduler, cache, meterRegistry);
+	}
+
+	@Bean
+	public GraphQLClient graphQLClient(ScorecardProperties properties, GraphQLTransport graphQLTransport,
+			RequestScheduler requestScheduler, MeterRegistry meterRegistry,
+			ObjectProvider<QueryProfile> queryProfile, ObjectProvider<GitHubRestClient> gitHubRestClient) {
+		GraphQLClient client = new GraphQLClient(graphQLTransport, requestScheduler, meterRegistry);
+		client.setPrefetchPages(properties.getGithub().getPrefetchPages());
+		queryProfile.ifAvailable(client::setQueryProfile);
+		gitHubRestClient.ifAvailable(client::setRestClient);
+		return client;
+	}
+
+	@Bean
+	public IssueSearch issueSearch(ScorecardProperties properties, GraphQLClient graphQLClient,
+			ApplicationArguments args) throws IOException {
+		ScorecardProperties.GitHub github = properties.getGithub();
+		IssueSearch search = graphQLClient::searchNumberOfIssuesAndPRs;
+		if (github.getBatchSize() > 1) {
+			search = new SearchBatcher(graphQLClient, github.getBatchSize(), github.getBatchWindow(),
+					github.getMaxConcurrency());
+		}
+		ScorecardProperties.Cache cache = properties.getCache();
+		if (cache.isEnabled()) {
+			search = new SearchCountCache(search, cache.getPath(), cache.getMaxEntries(),
+					cache.getSettleHorizon(), cache.getTimeToLive(), cache.getFlushInterval());
+		}
+		ScorecardProperties.Journal journal = properties.getJournal();
+		if (journal.isEnabled()) {
+			search = new SearchJournal(search, journal.getPath(), args.containsOption("resume"));
+		}
+		return search;
+	}
+
+	@Bean
+	public StatsServiceFactory statsServiceFactory(ScorecardProperties properties, GraphQLClient graphQLClient,
+			IssueSearch issueSearch, MeterRegistry meterRegistry) {
+		return new StatsServiceFactory(properties, graphQLClient, issueSearch, meterRegistry);
+	}
+
+	@Bean
+	public StatsService statsService(ScorecardProperties properties, StatsServiceFactory statsServiceFactory) {
+		return statsServiceFactory.create(properties.getProject());
 	}
 
 	@Bean
-	public StatsService statsService(ScorecardProperties properties, GraphQLClient graphQLClient) {
-		return new StatsService(properties.getProject().getOrg(), properties.getProject().getName(), graphQLClient);
+	public MetricsSummary metricsSummary(ScorecardProperties properties, MeterRegistry meterRegistry) {
+		return new MetricsSummary(meterRegistry, properties.getMetrics().getExport());
 	}
 }
@@ -1,8 +1,15 @@
 package io.spring.team.scorecard;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 @ConfigurationProperties(prefix = "scorecard")
 public class ScorecardProperties {
@@ -11,10 +18,28 @@ public class ScorecardProperties {
 
 	private final Project project = new Project();
 
+	private final List<Project> projects = new ArrayList<>();
+
+	private final Discovery discovery = new Discovery();
+
 	private final IssueLabels labels = new IssueLabels();
 
 	private final Milestones milestones = new Milestones();
 
+	private final Cache cache = new Cache();
+
+	private final Index index = new Index();
+
+	private final Journal journal = new Journal();
+
+	private final HttpCache httpCache = new HttpCache();
+
+	private final Webhooks webhooks = new Webhooks();
+
+	private final Metrics metrics = new Metrics();
+
+	private final Server server = new Server();
+
 	public GitHub getGithub() {
 		return this.github;
 	}
@@ -23,6 +48,24 @@ public class ScorecardProperties {
 		return this.project;
 	}
 
+	/**
+	 * Return the projects to compute stats for, in addition to the ones discovered in an organization.
+	 */
+	public List<Project> getProjects() {
+		return this.projects;
+	}
+
+	public Discovery getDiscovery() {
+		return this.discovery;
+	}
+
+	/**
+	 * Return the labels to use for the given project, falling back to the default labels if not configured.
+	 */
+	public IssueLabels getLabels(Project project) {
+		return (project.getLabels() != null) ? project.getLabels() : this.labels;
+	}
+
 	public Milestones getMilestones() {
 		return this.milestones;
 	}
@@ -31,6 +74,49 @@ public class ScorecardProperties {
 		return this.labels;
 	}
 
+	public Cache getCache() {
+		return this.cache;
+	}
+
+	public Index getIndex() {
+		return this.index;
+	}
+
+	public Journal getJournal() {
+		return this.journal;
+	}
+
+	public HttpCache getHttpCache() {
+		return this.httpCache;
+	}
+
+	public Webhooks getWebhooks() {
+		return this.webhooks;
+	}
+
+	public Metrics getMetrics() {
+		return this.metrics;
+	}
+
+	public Server getServer() {
+		return this.server;
+	}
+
+	/**
+	 * Return the configured project for the given repository, or one using the defaults of the main project.
+	 */
+	public Project getProject(String org, String name) {
+		for (Project project : this.projects) {
+			if (org.equalsIgnoreCase(project.getOrg()) && name.equalsIgnoreCase(project.getName())) {
+				return project;
+			}
+		}
+		if (org.equalsIgnoreCase(this.project.getOrg()) && name.equalsIgnoreCase(this.project.getName())) {
+			return this.project;
+		}
+		return this.project.forRepository(org, name);
+	}
+
 	public static class GitHub {
 
 		/**
@@ -38,6 +124,61 @@ public class ScorecardProperties {
 		 */
 		private String token;
 
+		/**
+		 * URL of the GitHub GraphQL API.
+		 */
+		private String url = "https://api.github.com/graphql";
+
+		/**
+		 * Maximum number of search queries sent in a single GraphQL request, batching is disabled if lower than 2.
+		 */
+		private int batchSize = 20;
+
+		/**
+		 * Maximum time to wait for more search queries before sending an incomplete batch.
+		 */
+		private Duration batchWindow = Duration.ofMillis(50);
+
+		/**
+		 * Maximum number of concurrent requests sent to the GitHub API.
+		 */
+		private int maxConcurrency = 4;
+
+		/**
+		 * Maximum number of search requests sent to the GitHub API per minute.
+		 */
+		private int searchesPerMinute = 30;
+
+		/**
+		 * Maximum number of retries for throttled requests or server errors.
+		 */
+		private int maxRetries = 5;
+
+		/**
+		 * Minimum backoff before retrying a request, doubled for each retry.
+		 */
+		private Duration minBackoff = Duration.ofSeconds(1);
+
+		/**
+		 * Number of pages fetched ahead of the one being processed when listing issues, users or repositories.
+		 */
+		private int prefetchPages = 1;
+
+		/**
+		 * HTTP client used to send GraphQL requests.
+		 */
+		private Transport transport = Transport.OKHTTP;
+
+		/**
+		 * Maximum number of pooled connections of the WebClient transport, defaults to the maximum concurrency.
+		 */
+		private int maxConnections;
+
+		/**
+		 * Whether the WebClient transport should negotiate HTTP/2 to multiplex requests over fewer connections.
+		 */
+		private boolean http2 = true;
+
 		public String getToken() {
 			return this.token;
 		}
@@ -45,6 +186,108 @@ public class ScorecardProperties {
 		public void setToken(String token) {
 			this.token = token;
 		}
+
+		public String getUrl() {
+			return this.url;
+		}
+
+		public void setUrl(String url) {
+			this.url = url;
+		}
+
+		public int getBatchSize() {
+			return this.batchSize;
+		}
+
+		public void setBatchSize(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		public Duration getBatchWindow() {
+			return this.batchWindow;
+		}
+
+		public void setBatchWindow(Duration batchWindow) {
+			this.batchWindow = batchWindow;
+		}
+
+		public int getMaxConcurrency() {
+			return this.maxConcurrency;
+		}
+
+		public void setMaxConcurrency(int maxConcurrency) {
+			this.maxConcurrency = maxConcurrency;
+		}
+
+		public int getSearchesPerMinute() {
+			return this.searchesPerMinute;
+		}
+
+		public void setSearchesPerMinute(int searchesPerMinute) {
+			this.searchesPerMinute = searchesPerMinute;
+		}
+
+		public int getMaxRetries() {
+			return this.maxRetries;
+		}
+
+		public void setMaxRetries(int maxRetries) {
+			this.maxRetries = maxRetries;
+		}
+
+		public Duration getMinBackoff() {
+			return this.minBackoff;
+		}
+
+		public void setMinBackoff(Duration minBackoff) {
+			this.minBackoff = minBackoff;
+		}
+
+		public int getPrefetchPages() {
+			return this.prefetchPages;
+		}
+
+		public void setPrefetchPages(int prefetchPages) {
+			this.prefetchPages = prefetchPages;
+		}
+
+		public Transport getTransport() {
+			return this.transport;
+		}
+
+		public void setTransport(Transport transport) {
+			this.transport = transport;
+		}
+
+		public int getMaxConnections() {
+			return (this.maxConnections > 0) ? this.maxConnections : this.maxConcurrency;
+		}
+
+		public void setMaxConnections(int maxConnections) {
+			this.maxConnections = maxConnections;
+		}
+
+		public boolean isHttp2() {
+			return this.http2;
+		}
+
+		public void setHttp2(boolean http2) {
+			this.http2 = http2;
+		}
+
+		public enum Transport {
+
+			/**
+			 * OkHttp, completing requests from its dispatcher threads.
+			 */
+			OKHTTP,
+
+			/**
+			 * WebClient on Reactor Netty, fully non-blocking.
+			 */
+			WEBCLIENT
+
+		}
 	}
 
 	public static class Project {
@@ -69,6 +312,11 @@ public class ScorecardProperties {
 		 */
 		private List<String> bots;
 
+		/**
+		 * Labels used by this project, if they differ from the default "scorecard.labels".
+		 */
+		private IssueLabels labels;
+
 		public String getOrg() {
 			return this.org;
 		}
@@ -104,6 +352,387 @@ public class ScorecardProperties {
 		public void setBots(List<String> bots) {
 			this.bots = bots;
 		}
+
+		public IssueLabels getLabels() {
+			return this.labels;
+		}
+
+		public void setLabels(IssueLabels labels) {
+			this.labels = labels;
+		}
+
+		/**
+		 * Create a copy of this project for another repository, sharing the same team and labels.
+		 */
+		public Project forRepository(String org, String name) {
+			Project project = new Project();
+			project.setOrg(org);
+			project.setName(name);
+			project.setMembers(this.members);
+			project.setBots(this.bots);
+			project.setLabels(this.labels);
+			return project;
+		}
+	}
+
+	public static class Discovery {
+
+		/**
+		 * GitHub organization whose repositories should all be processed, using the members,
+		 * bots and labels of "scorecard.project".
+		 */
+		private String organization;
+
+		/**
+		 * Names of repositories to ignore when discovering the repositories of the organization.
+		 */
+		private List<String> exclude = new ArrayList<>();
+
+		public String getOrganization() {
+			return this.organization;
+		}
+
+		public void setOrganization(String organization) {
+			this.organization = organization;
+		}
+
+		public List<String> getExclude() {
+			return this.exclude;
+		}
+
+		public void setExclude(List<String> exclude) {
+			this.exclude = exclude;
+		}
+	}
+
+	public static class Cache {
+
+		/**
+		 * Whether search counts should be cached locally.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * File where cached search counts are stored between runs.
+		 */
+		private Path path = Paths.get(System.getProperty("user.home"), ".scorecard", "search-cache.json");
+
+		/**
+		 * Maximum number of cached search counts, least recently used ones are evicted first.
+		 * Also bounds the counts memoized in memory for each repository.
+		 */
+		private int maxEntries = 50000;
+
+		/**
+		 * Time after which a closed period is considered settled, its search counts are then cached permanently.
+		 */
+		private Duration settleHorizon = Duration.ofDays(7);
+
+		/**
+		 * Time-to-live of search counts for periods that are not settled yet.
+		 */
+		private Duration timeToLive = Duration.ofMinutes(10);
+
+		/**
+		 * Time after which new search counts are written to the cache file, so that they survive a crash.
+		 * Zero writes the file after each new count.
+		 */
+		private Duration flushInterval = Duration.ofSeconds(5);
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Path getPath() {
+			return this.path;
+		}
+
+		public void setPath(Path path) {
+			this.path = path;
+		}
+
+		public int getMaxEntries() {
+			return this.maxEntries;
+		}
+
+		public void setMaxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+		public Duration getSettleHorizon() {
+			return this.settleHorizon;
+		}
+
+		public void setSettleHorizon(Duration settleHorizon) {
+			this.settleHorizon = settleHorizon;
+		}
+
+		public Duration getTimeToLive() {
+			return this.timeToLive;
+		}
+
+		public void setTimeToLive(Duration timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+
+		public Duration getFlushInterval() {
+			return this.flushInterval;
+		}
+
+		public void setFlushInterval(Duration flushInterval) {
+			this.flushInterval = flushInterval;
+		}
+	}
+
+	public static class Server {
+
+		/**
+		 * Time between two refreshes of the scorecards covering the current day, when running with the "server" profile.
+		 */
+		private Duration refreshInterval = Duration.ofMinutes(15);
+
+		/**
+		 * Maximum number of scorecards kept in memory.
+		 */
+		private int maxEntries = 1000;
+
+		public Duration getRefreshInterval() {
+			return this.refreshInterval;
+		}
+
+		public void setRefreshInterval(Duration refreshInterval) {
+			this.refreshInterval = refreshInterval;
+		}
+
+		public int getMaxEntries() {
+			return this.maxEntries;
+		}
+
+		public void setMaxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+	}
+
+	public static class Index {
+
+		/**
+		 * Whether stats should be computed locally from all the issues of the project,
+		 * instead of sending a search query to GitHub for each number.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Directory where issues are stored between runs, so that only recently updated issues are fetched.
+		 */
+		private Path path = Paths.get(System.getProperty("user.home"), ".scorecard", "issues");
+
+		/**
+		 * Number of searches running in parallel to fetch all the issues of a repository on its first sync,
+		 * by splitting them in creation date windows. Issues are listed with a single cursor if lower than 1.
+		 */
+		private int crawlConcurrency;
+
+		/**
+		 * Maximum age of the stored snapshot of a repository's issues for it to be used on startup without syncing
+		 * with GitHub first. Later refreshes of a long-running server always sync.
+		 */
+		private Duration snapshotMaxAge = Duration.ofMinutes(10);
+
+		/**
+		 * How often syncs should also list all the issue numbers of a repository to remove the stored issues that
+		 * were deleted or transferred since, as they are never reported as updated. Never done if zero.
+		 */
+		private Duration reconcileInterval = Duration.ofDays(1);
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Path getPath() {
+			return this.path;
+		}
+
+		public void setPath(Path path) {
+			this.path = path;
+		}
+
+		public int getCrawlConcurrency() {
+			return this.crawlConcurrency;
+		}
+
+		public void setCrawlConcurrency(int crawlConcurrency) {
+			this.crawlConcurrency = crawlConcurrency;
+		}
+
+		public Duration getSnapshotMaxAge() {
+			return this.snapshotMaxAge;
+		}
+
+		public void setSnapshotMaxAge(Duration snapshotMaxAge) {
+			this.snapshotMaxAge = snapshotMaxAge;
+		}
+
+		public Duration getReconcileInterval() {
+			return this.reconcileInterval;
+		}
+
+		public void setReconcileInterval(Duration reconcileInterval) {
+			this.reconcileInterval = reconcileInterval;
+		}
+	}
+
+	public static class Journal {
+
+		/**
+		 * Whether search counts should be appended to a journal as they arrive, so that an interrupted run
+		 * can be resumed with --resume.
+		 */
+		private boolean enabled;
+
+		/**
+		 * File where the search counts of the current run are journaled.
+		 */
+		private Path path = Paths.get(System.getProperty("user.home"), ".scorecard", "journal.ndjson");
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Path getPath() {
+			return this.path;
+		}
+
+		public void setPath(Path path) {
+			this.path = path;
+		}
+	}
+
+	public static class HttpCache {
+
+		/**
+		 * Whether assignable users and repositories should be listed with the REST API, caching responses on disk
+		 * and revalidating them with conditional requests instead of fetching them again with GraphQL.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Directory where HTTP responses are cached between runs.
+		 */
+		private Path path = Paths.get(System.getProperty("user.home"), ".scorecard", "http-cache");
+
+		/**
+		 * Maximum size of the HTTP cache, least recently used responses are evicted first.
+		 */
+		private DataSize maxSize = DataSize.ofMegabytes(50);
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Path getPath() {
+			return this.path;
+		}
+
+		public void setPath(Path path) {
+			this.path = path;
+		}
+
+		public DataSize getMaxSize() {
+			return this.maxSize;
+		}
+
+		public void setMaxSize(DataSize maxSize) {
+			this.maxSize = maxSize;
+		}
+	}
+
+	public static class Webhooks {
+
+		/**
+		 * Whether GitHub issues and pull_request webhook events should be accepted on /webhooks/github
+		 * when running with the "server" profile, to update scorecards as issues change.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Secret of the webhook, used to verify the signature of deliveries. Required when webhooks are enabled.
+		 */
+		private String secret;
+
+		/**
+		 * File where accepted deliveries are journaled, to be applied once the issues of their repository are
+		 * synced or loaded.
+		 */
+		private Path journal = Paths.get(System.getProperty("user.home"), ".scorecard", "webhooks.ndjson");
+
+		/**
+		 * Number of most recent delivery IDs remembered to skip redelivered events.
+		 */
+		private int maxDeliveries = 10000;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getSecret() {
+			return this.secret;
+		}
+
+		public void setSecret(String secret) {
+			this.secret = secret;
+		}
+
+		public Path getJournal() {
+			return this.journal;
+		}
+
+		public void setJournal(Path journal) {
+			this.journal = journal;
+		}
+
+		public int getMaxDeliveries() {
+			return this.maxDeliveries;
+		}
+
+		public void setMaxDeliveries(int maxDeliveries) {
+			this.maxDeliveries = maxDeliveries;
+		}
+	}
+
+	public static class Metrics {
+
+		/**
+		 * File where the metrics recorded during the run are exported, if any.
+		 */
+		private Path export;
+
+		public Path getExport() {
+			return this.export;
+		}
+
+		public void setExport(Path export) {
+			this.export = export;
+		}
 	}
 
 	public static class Milestones {
@@ -179,6 +808,22 @@ public class ScorecardProperties {
 		 */
 		private List<String> triage;
 
+		/**
+		 * Return the labels of each type of closed issues reported in a scorecard, keyed by the name of the type.
+		 */
+		public Map<String, List<String>> closedTypes() {
+			Map<String, List<String>> types = new LinkedHashMap<>();
+			types.put("Duplicates", this.duplicates);
+			types.put("Questions", this.questions);
+			types.put("Declined", this.rejected);
+			types.put("Enhancements", this.enhancements);
+			types.put("Back/Forward-port", this.ports);
+			types.put("Bug/Regression", this.bugs);
+			types.put("Task/Dependency Upgrade", this.tasks);
+			types.put("Documentation", this.docs);
+			return types;
+		}
+
 		public List<String> getEnhancements() {
 			return this.enhancements;
 		}
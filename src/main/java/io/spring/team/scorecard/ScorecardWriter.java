@@ -0,0 +1,151 @@
+package io.spring.team.scorecard;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.spring.team.scorecard.stats.DurationHistogram;
+import io.spring.team.scorecard.stats.Scorecard;
+
+/**
+ * Writes scorecards to a file as JSON or CSV, so that they can be processed by other tools.
+ */
+public class ScorecardWriter {
+
+	public enum Format {
+
+		JSON, CSV;
+
+		/**
+		 * Return the format matching the extension of the given file, defaulting to JSON.
+		 */
+		public static Format forFile(Path file) {
+			return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : JSON;
+		}
+	}
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public void write(List<Scorecard> scorecards, Path file) throws IOException {
+		Path directory = file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			write(scorecards, Format.forFile(file), writer);
+		}
+	}
+
+	public void write(List<Scorecard> scorecards, Format format, Writer writer) throws IOException {
+		if (format == Format.CSV) {
+			writeCsv(scorecards, writer);
+		}
+		else {
+			writeJson(scorecards, writer);
+		}
+	}
+
+	private void writeJson(List<Scorecard> scorecards, Writer writer) throws IOException {
+		ArrayNode content = this.objectMapper.createArrayNode();
+		for (Scorecard scorecard : scorecards) {
+			ObjectNode node = content.addObject()
+					.put("repository", scorecard.getRepository())
+					.put("start", scorecard.getPeriod().getStart().toString())
+					.put("end", scorecard.getPeriod().getEnd().toString())
+					.put("teamCreated", scorecard.getTeamCreated())
+					.put("inboundVolume", scorecard.getInboundVolume());
+			ObjectNode closed = node.putObject("closedByType");
+			scorecard.getClosedByType().forEach(closed::put);
+			if (scorecard.isPartial()) {
+				ArrayNode gaps = node.putArray("gaps");
+				scorecard.getGaps().forEach(gaps::add);
+			}
+			if (!scorecard.getDurations().isEmpty()) {
+				ObjectNode durations = node.putObject("durations");
+				scorecard.getDurations().forEach((name, histogram) -> histogram.summary()
+						.forEach(durations.putObject(name)::put));
+			}
+			if (!scorecard.getBreakdowns().isEmpty()) {
+				ObjectNode breakdowns = node.putObject("breakdowns");
+				scorecard.getBreakdowns().forEach((name, breakdown) -> {
+					ObjectNode breakdownNode = breakdowns.putObject(name);
+					breakdown.getByAuthor().forEach(breakdownNode.putObject("byAuthor")::put);
+					breakdown.getByLabelGroup().forEach(breakdownNode.putObject("byLabelGroup")::put);
+					breakdown.getByMilestone().forEach(breakdownNode.putObject("byMilestone")::put);
+				});
+			}
+		}
+		this.objectMapper.writerWithDefaultPrettyPrinter().writeValue(writer, content);
+	}
+
+	private void writeCsv(List<Scorecard> scorecards, Writer writer) throws IOException {
+		if (scorecards.isEmpty()) {
+			return;
+		}
+		List<String> header = new ArrayList<>();
+		header.add("Repository");
+		header.add("Start");
+		header.add("End");
+		Set<String> columns = new LinkedHashSet<>();
+		Set<String> durations = new LinkedHashSet<>();
+		for (Scorecard scorecard : scorecards) {
+			columns.addAll(scorecard.getStats().keySet());
+			durations.addAll(scorecard.getDurations().keySet());
+		}
+		header.addAll(columns);
+		for (String duration : durations) {
+			header.add(duration + " (count)");
+			header.add(duration + " (mean s)");
+			header.add(duration + " (p50 s)");
+			header.add(duration + " (p90 s)");
+			header.add(duration + " (p99 s)");
+		}
+		writeCsvLine(header, writer);
+		for (Scorecard scorecard : scorecards) {
+			Map<String, Integer> stats = scorecard.getStats();
+			List<String> values = new ArrayList<>();
+			values.add(scorecard.getRepository());
+			values.add(scorecard.getPeriod().getStart().toString());
+			values.add(scorecard.getPeriod().getEnd().toString());
+			columns.forEach((column) -> values.add((stats.get(column) != null) ? String.valueOf(stats.get(column)) : ""));
+			for (String duration : durations) {
+				DurationHistogram histogram = scorecard.getDurations().get(duration);
+				if (histogram != null) {
+					values.add(String.valueOf(histogram.getCount()));
+					values.add(String.valueOf(histogram.getMean().getSeconds()));
+					values.add(String.valueOf(histogram.getPercentile(0.5).getSeconds()));
+					values.add(String.valueOf(histogram.getPercentile(0.9).getSeconds()));
+					values.add(String.valueOf(histogram.getPercentile(0.99).getSeconds()));
+				}
+				else {
+					values.addAll(Collections.nCopies(5, ""));
+				}
+			}
+			writeCsvLine(values, writer);
+		}
+	}
+
+	private void writeCsvLine(List<String> values, Writer writer) throws IOException {
+		writer.write(values.stream().map(this::escapeCsv).collect(Collectors.joining(",")));
+		writer.write("\n");
+	}
+
+	private String escapeCsv(String value) {
+		if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+			return "\"" + value.replace("\"", "\"\"") + "\"";
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,65 @@
+package io.spring.team.scorecard;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.spring.team.scorecard.graphql.GraphQLClient;
+import io.spring.team.scorecard.graphql.IssueSearch;
+import io.spring.team.scorecard.issues.IssueCrawler;
+import io.spring.team.scorecard.issues.IssueStore;
+import io.spring.team.scorecard.issues.IssueSync;
+import io.spring.team.scorecard.stats.IssueCounter;
+import io.spring.team.scorecard.stats.LocalIssueCounter;
+import io.spring.team.scorecard.stats.SearchIssueCounter;
+import io.spring.team.scorecard.stats.StatsService;
+
+/**
+ * Creates {@link StatsService} instances for projects, all sharing the same GitHub client.
+ */
+public class StatsServiceFactory {
+
+	private final ScorecardProperties properties;
+
+	private final GraphQLClient client;
+
+	private final IssueSearch search;
+
+	private final MeterRegistry meterRegistry;
+
+	private volatile IssueSync.Listener syncListener;
+
+	public StatsServiceFactory(ScorecardProperties properties, GraphQLClient client, IssueSearch search,
+			MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.client = client;
+		this.search = search;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Set the listener notified of the syncs of the issues indexed by the services created from now on.
+	 */
+	public void setSyncListener(IssueSync.Listener syncListener) {
+		this.syncListener = syncListener;
+	}
+
+	public StatsService create(ScorecardProperties.Project project) {
+		IssueCounter counter = new SearchIssueCounter(this.search, this.properties.getCache().getMaxEntries());
+		if (this.properties.getIndex().isEnabled()) {
+			ScorecardProperties.Index index = this.properties.getIndex();
+			IssueCrawler crawler = (index.getCrawlConcurrency() > 0)
+					? new IssueCrawler(this.client, index.getCrawlConcurrency()) : null;
+			IssueSync sync = new IssueSync(this.client, new IssueStore(index.getPath()),
+					project.getOrg(), project.getName(), crawler);
+			if (project.getMembers() != null) {
+				sync.setResponders(project.getMembers());
+			}
+			if (project.getBots() != null) {
+				sync.setIgnoredResponders(project.getBots());
+			}
+			sync.setReconcileInterval(index.getReconcileInterval());
+			sync.setListener(this.syncListener);
+			counter = new LocalIssueCounter(() -> sync.columns(index.getSnapshotMaxAge()), sync::update);
+		}
+		return new StatsService(project.getOrg(), project.getName(), this.client, counter, this.meterRegistry);
+	}
+
+}
@@ -1,88 +1,566 @@
 package io.spring.team.scorecard.graphql;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
-import com.apollographql.apollo.ApolloCall;
-import com.apollographql.apollo.ApolloClient;
+import com.apollographql.apollo.api.Operation;
+import com.apollographql.apollo.api.Query;
 import com.apollographql.apollo.api.Response;
 import com.apollographql.apollo.exception.ApolloException;
+import com.apollographql.apollo.exception.ApolloParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.spring.team.scorecard.AssignableUsersQuery;
 import io.spring.team.scorecard.IssueCountQuery;
-import okhttp3.Interceptor;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
+import io.spring.team.scorecard.IssueNumbersQuery;
+import io.spring.team.scorecard.OrganizationRepositoriesQuery;
+import io.spring.team.scorecard.PullRequestNumbersQuery;
+import io.spring.team.scorecard.RepositoryIssuesQuery;
+import io.spring.team.scorecard.RepositoryPullRequestsQuery;
+import io.spring.team.scorecard.SearchIssuesQuery;
+import io.spring.team.scorecard.UpdatedIssuesQuery;
+import io.spring.team.scorecard.UpdatedPullRequestsQuery;
+import io.spring.team.scorecard.fragment.IssueFields;
+import io.spring.team.scorecard.fragment.PullRequestFields;
+import io.spring.team.scorecard.issues.Issue;
+import io.spring.team.scorecard.jfr.FlightRecording;
+import io.spring.team.scorecard.jfr.GraphQLRequestEvent;
+import io.spring.team.scorecard.rest.GitHubRestClient;
+import okio.ByteString;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.jetbrains.annotations.NotNull;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import org.springframework.util.Assert;
 
 public class GraphQLClient {
 
+	public static final String GITHUB_URL = "https://api.github.com/graphql";
+
 	private final Log logger = LogFactory.getLog(GraphQLClient.class);
 
-	private final ApolloClient apolloClient;
+	private final GraphQLTransport transport;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final RequestScheduler scheduler;
+
+	private final MeterRegistry meterRegistry;
+
+	private volatile int prefetchPages = 1;
+
+	private volatile GitHubRestClient restClient;
+
+	private volatile QueryProfile queryProfile;
 
 	public GraphQLClient(String githubToken) {
-		OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder();
-		clientBuilder.addInterceptor(new AuthorizationInterceptor(githubToken));
-		this.apolloClient = ApolloClient.builder()
-				.serverUrl("https://api.github.com/graphql")
-				.okHttpClient(clientBuilder.build())
-				.build();
+		this(githubToken, new RequestScheduler(4, 30, 5, Duration.ofSeconds(1)));
+	}
+
+	public GraphQLClient(String githubToken, RequestScheduler scheduler) {
+		this(GITHUB_URL, githubToken, scheduler);
+	}
+
+	public GraphQLClient(String serverUrl, String githubToken, RequestScheduler scheduler) {
+		this(serverUrl, githubToken, scheduler, Metrics.globalRegistry);
+	}
+
+	public GraphQLClient(String serverUrl, String githubToken, RequestScheduler scheduler, MeterRegistry meterRegistry) {
+		this(new OkHttpTransport(serverUrl, githubToken, scheduler), scheduler, meterRegistry);
+	}
+
+	/**
+	 * Create a client sending its requests with the given transport.
+	 * Requests for operations generated by Apollo are encoded and their responses parsed by the operations themselves,
+	 * so they go through the same transport as the other requests.
+	 */
+	public GraphQLClient(GraphQLTransport transport, RequestScheduler scheduler, MeterRegistry meterRegistry) {
+		this.transport = transport;
+		this.scheduler = scheduler;
+		this.meterRegistry = meterRegistry;
 	}
 
 
 	public Mono<Integer> searchNumberOfIssuesAndPRs(String searchQuery) {
 		logger.debug("query: " + searchQuery);
-		return Mono.create(sink -> {
-			this.apolloClient.query(new IssueCountQuery(searchQuery))
-					.enqueue(new ApolloCall.Callback<IssueCountQuery.Data>() {
-						@Override
-						public void onResponse(@NotNull Response<IssueCountQuery.Data> response) {
-							sink.success(response.getData().search().issueCount());
-						}
+		return this.scheduler.schedule(true, call(new IssueCountQuery(searchQuery),
+				(data) -> (data.rateLimit() != null) ? data.rateLimit().cost() : 0))
+				.doOnNext((data) -> {
+					if (data.rateLimit() != null) {
+						this.scheduler.recordCost(data.rateLimit().cost());
+						this.scheduler.updateRateLimit(data.rateLimit().remaining(), Instant.parse(data.rateLimit().resetAt()));
+					}
+				})
+				.map((data) -> data.search().issueCount());
+	}
 
-						@Override
-						public void onFailure(@NotNull ApolloException e) {
-							sink.error(e);
-						}
-					});
+	/**
+	 * Count the issues and PRs matching each of the given search queries, using a single GraphQL request
+	 * that aliases one {@code search} field per query.
+	 * Counts are returned in the same order as the given queries, each one failing on its own if GitHub
+	 * reported an error for its query or didn't return it, while the request fails as a whole if it was throttled
+	 * or if GitHub reported errors that aren't about a single query.
+	 */
+	public Mono<List<Mono<Integer>>> searchNumberOfIssuesAndPRs(List<String> searchQueries) {
+		Map<String, Object> variables = new LinkedHashMap<>();
+		for (int i = 0; i < searchQueries.size(); i++) {
+			logger.debug("query q" + i + ": " + searchQueries.get(i));
+			variables.put("q" + i, searchQueries.get(i));
+		}
+		return this.scheduler.schedule(true, execute("IssueCounts", batchSearchDocument(searchQueries.size()), variables)).map((response) -> {
+			JsonNode data = response.path("data");
+			JsonNode rateLimit = data.path("rateLimit");
+			if (rateLimit.hasNonNull("remaining") && rateLimit.hasNonNull("resetAt")) {
+				this.scheduler.recordCost(rateLimit.path("cost").asInt());
+				this.scheduler.updateRateLimit(rateLimit.path("remaining").asInt(), Instant.parse(rateLimit.path("resetAt").asText()));
+			}
+			Map<String, List<String>> errors = new LinkedHashMap<>();
+			for (JsonNode error : response.path("errors")) {
+				errors.computeIfAbsent(error.path("path").path(0).asText(), (alias) -> new ArrayList<>())
+						.add(error.path("message").asText());
+			}
+			List<Mono<Integer>> counts = new ArrayList<>(searchQueries.size());
+			for (int i = 0; i < searchQueries.size(); i++) {
+				JsonNode count = data.path("q" + i).path("issueCount");
+				if (count.isInt()) {
+					counts.add(Mono.just(count.asInt()));
+				}
+				else {
+					counts.add(Mono.error(new ApolloException("No issue count for search query '" + searchQueries.get(i)
+							+ "'" + (errors.containsKey("q" + i) ? ": " + errors.get("q" + i) : ""))));
+				}
+			}
+			return counts;
 		});
 	}
 
+	private static String batchSearchDocument(int size) {
+		StringBuilder document = new StringBuilder("query IssueCounts(");
+		for (int i = 0; i < size; i++) {
+			document.append((i > 0) ? ", " : "").append("$q").append(i).append(": String!");
+		}
+		document.append(") {");
+		for (int i = 0; i < size; i++) {
+			document.append(" q").append(i).append(": search(query: $q").append(i).append(", type: ISSUE) { issueCount }");
+		}
+		return document.append(" rateLimit { cost remaining resetAt } }").toString();
+	}
+
+	/**
+	 * Execute a GraphQL document that can't be generated ahead of time by Apollo, and return the response.
+	 * Errors located at a field of the response are returned along with the {@code data} element,
+	 * other errors fail the request.
+	 */
+	private Mono<JsonNode> execute(String operationName, String document, Map<String, Object> variables) {
+		return timed(operationName, document, variables, (response) -> response.path("data").path("rateLimit").path("cost").asInt(),
+				(trace) -> Mono.fromCallable(() -> {
+			Map<String, Object> payload = new LinkedHashMap<>();
+			payload.put("query", document);
+			payload.put("variables", variables);
+			return this.objectMapper.writeValueAsBytes(payload);
+		}).flatMap((payload) -> post(trace, payload)).<JsonNode>handle((body, sink) -> {
+			try {
+				JsonNode json = this.objectMapper.readTree(body);
+				boolean located = json.hasNonNull("data");
+				for (JsonNode error : json.path("errors")) {
+					if ("RATE_LIMITED".equals(error.path("type").asText())) {
+						sink.error(new RateLimitExceededException(error.path("message").asText(), null));
+						return;
+					}
+					located = located && error.path("path").size() > 0;
+				}
+				if (!located) {
+					sink.error(new ApolloException("GraphQL errors: " + json.get("errors")));
+					return;
+				}
+				sink.next(json);
+			}
+			catch (IOException ex) {
+				sink.error(new ApolloParseException("Failed to parse GraphQL response", ex));
+			}
+		}));
+	}
+
 	public Flux<String> findAssignableUsers(String org, String repo) {
-		return Flux.create(sink -> {
-			this.apolloClient.query(new AssignableUsersQuery(org, repo))
-					.enqueue(new ApolloCall.Callback<AssignableUsersQuery.Data>() {
-						@Override
-						public void onResponse(@NotNull Response<AssignableUsersQuery.Data> response) {
-							response.getData().repository().assignableUsers()
-									.nodes().forEach(node -> sink.next(node.login()));
-							sink.complete();
-						}
+		GitHubRestClient restClient = this.restClient;
+		if (restClient != null) {
+			return paginate((url) -> restClient.getPage((url != null) ? url : restClient.assignableUsersUrl(org, repo),
+					(node) -> true, (node) -> node.get("login").asText()));
+		}
+		return paginate((cursor) -> query(AssignableUsersQuery.builder().org(org).repo(repo).cursor(cursor).build())
+				.map((data) -> {
+					AssignableUsersQuery.AssignableUsers users = data.repository().assignableUsers();
+					List<String> items = users.nodes().stream().filter(Objects::nonNull)
+							.map((node) -> node.login()).collect(Collectors.toList());
+					return new Page<>(items, users.pageInfo().endCursor(), users.pageInfo().hasNextPage());
+				}));
+	}
+
+	/**
+	 * Find the names of the repositories of the given organization, ignoring forks and archived repositories.
+	 */
+	public Flux<String> findRepositories(String org) {
+		GitHubRestClient restClient = this.restClient;
+		if (restClient != null) {
+			return paginate((url) -> restClient.getPage((url != null) ? url : restClient.repositoriesUrl(org),
+					(node) -> !node.path("fork").asBoolean() && !node.path("archived").asBoolean(),
+					(node) -> node.get("name").asText()));
+		}
+		return paginate((cursor) -> query(OrganizationRepositoriesQuery.builder().org(org).cursor(cursor).build())
+				.map((data) -> {
+					OrganizationRepositoriesQuery.Repositories repositories = data.organization().repositories();
+					List<String> items = repositories.nodes().stream()
+							.filter((node) -> node != null && !node.isArchived())
+							.map((node) -> node.name()).collect(Collectors.toList());
+					return new Page<>(items, repositories.pageInfo().endCursor(), repositories.pageInfo().hasNextPage());
+				}));
+	}
 
-						@Override
-						public void onFailure(@NotNull ApolloException e) {
-							sink.error(e);
+	/**
+	 * Find all the issues and pull requests matching the given search query.
+	 * GitHub only returns the first 1000 results of a search, so the query should be narrow enough.
+	 */
+	public Flux<Issue> searchIssuesAndPRs(String searchQuery) {
+		logger.debug("search: " + searchQuery);
+		return paginate((cursor) -> this.scheduler.schedule(true,
+				call(SearchIssuesQuery.builder().query(searchQuery).cursor(cursor).build()))
+				.doOnNext((data) -> {
+					if (data.rateLimit() != null) {
+						this.scheduler.recordCost(data.rateLimit().cost());
+						this.scheduler.updateRateLimit(data.rateLimit().remaining(), Instant.parse(data.rateLimit().resetAt()));
+					}
+				})
+				.map((data) -> {
+					SearchIssuesQuery.Search search = data.search();
+					List<Issue> items = new ArrayList<>();
+					for (SearchIssuesQuery.Node node : search.nodes()) {
+						if (node != null && node.fragments().issueFields() != null) {
+							items.add(toIssue(node.fragments().issueFields()));
+						}
+						else if (node != null && node.fragments().pullRequestFields() != null) {
+							items.add(toIssue(node.fragments().pullRequestFields()));
 						}
+					}
+					return new Page<>(items, search.pageInfo().endCursor(), search.pageInfo().hasNextPage());
+				}));
+	}
+
+	/**
+	 * Find all the issues and pull requests of the given repository.
+	 */
+	public Flux<Issue> findIssuesAndPullRequests(String org, String repo) {
+		return Flux.merge(findIssues(org, repo), findPullRequests(org, repo));
+	}
+
+	public Flux<Issue> findIssues(String org, String repo) {
+		return paginate((cursor) -> query(RepositoryIssuesQuery.builder().org(org).repo(repo).cursor(cursor).build())
+				.map((data) -> {
+					RepositoryIssuesQuery.Issues issues = data.repository().issues();
+					List<Issue> items = issues.nodes().stream().filter(Objects::nonNull)
+							.map((node) -> toIssue(node.fragments().issueFields())).collect(Collectors.toList());
+					return new Page<>(items, issues.pageInfo().endCursor(), issues.pageInfo().hasNextPage());
+				}));
+	}
+
+	public Flux<Issue> findPullRequests(String org, String repo) {
+		return paginate((cursor) -> query(RepositoryPullRequestsQuery.builder().org(org).repo(repo).cursor(cursor).build())
+				.map((data) -> {
+					RepositoryPullRequestsQuery.PullRequests pullRequests = data.repository().pullRequests();
+					List<Issue> items = pullRequests.nodes().stream().filter(Objects::nonNull)
+							.map((node) -> toIssue(node.fragments().pullRequestFields())).collect(Collectors.toList());
+					return new Page<>(items, pullRequests.pageInfo().endCursor(), pullRequests.pageInfo().hasNextPage());
+				}));
+	}
+
+	/**
+	 * Find the numbers of the issues and pull requests currently in the given repository, which excludes deleted
+	 * and transferred ones.
+	 */
+	public Flux<Integer> findIssueAndPullRequestNumbers(String org, String repo) {
+		return Flux.merge(findIssueNumbers(org, repo), findPullRequestNumbers(org, repo));
+	}
+
+	private Flux<Integer> findIssueNumbers(String org, String repo) {
+		return paginate((cursor) -> query(IssueNumbersQuery.builder().org(org).repo(repo).cursor(cursor).build())
+				.map((data) -> {
+					IssueNumbersQuery.Issues issues = data.repository().issues();
+					List<Integer> items = issues.nodes().stream().filter(Objects::nonNull)
+							.map((node) -> node.number()).collect(Collectors.toList());
+					return new Page<>(items, issues.pageInfo().endCursor(), issues.pageInfo().hasNextPage());
+				}));
+	}
+
+	private Flux<Integer> findPullRequestNumbers(String org, String repo) {
+		return paginate((cursor) -> query(PullRequestNumbersQuery.builder().org(org).repo(repo).cursor(cursor).build())
+				.map((data) -> {
+					PullRequestNumbersQuery.PullRequests pullRequests = data.repository().pullRequests();
+					List<Integer> items = pullRequests.nodes().stream().filter(Objects::nonNull)
+							.map((node) -> node.number()).collect(Collectors.toList());
+					return new Page<>(items, pullRequests.pageInfo().endCursor(), pullRequests.pageInfo().hasNextPage());
+				}));
+	}
+
+	/**
+	 * Find the issues and pull requests of the given repository that were updated at or after the given instant.
+	 */
+	public Flux<Issue> findIssuesAndPullRequestsUpdatedSince(String org, String repo, Instant since) {
+		return Flux.merge(findIssuesUpdatedSince(org, repo, since), findPullRequestsUpdatedSince(org, repo, since));
+	}
+
+	public Flux<Issue> findIssuesUpdatedSince(String org, String repo, Instant since) {
+		return paginate((cursor) -> query(UpdatedIssuesQuery.builder().org(org).repo(repo).since(since.toString()).cursor(cursor).build())
+				.map((data) -> {
+					UpdatedIssuesQuery.Issues issues = data.repository().issues();
+					List<Issue> items = issues.nodes().stream().filter(Objects::nonNull)
+							.map((node) -> toIssue(node.fragments().issueFields())).collect(Collectors.toList());
+					return new Page<>(items, issues.pageInfo().endCursor(), issues.pageInfo().hasNextPage());
+				}));
+	}
+
+	/**
+	 * Find the pull requests updated at or after the given instant. Pull requests can't be filtered
+	 * by update date, so they are listed from the most recently updated one until the given instant is reached.
+	 */
+	public Flux<Issue> findPullRequestsUpdatedSince(String org, String repo, Instant since) {
+		return paginate((cursor) -> query(UpdatedPullRequestsQuery.builder().org(org).repo(repo).cursor(cursor).build())
+				.map((data) -> {
+					UpdatedPullRequestsQuery.PullRequests pullRequests = data.repository().pullRequests();
+					List<Issue> items = pullRequests.nodes().stream().filter(Objects::nonNull)
+							.map((node) -> toIssue(node.fragments().pullRequestFields())).collect(Collectors.toList());
+					return new Page<>(items, pullRequests.pageInfo().endCursor(), pullRequests.pageInfo().hasNextPage());
+				}))
+				.takeWhile((pullRequest) -> !pullRequest.getUpdatedAt().isBefore(since));
+	}
+
+	/**
+	 * Set the number of pages fetched ahead of the ones being consumed when paginating through a listing.
+	 * Each page needs the cursor of the previous one, so pages are fetched one after the other, but
+	 * fetching the next pages overlaps with the processing of the current one, within the limits of downstream demand.
+	 */
+	public void setPrefetchPages(int prefetchPages) {
+		Assert.isTrue(prefetchPages >= 0, "prefetchPages must not be negative");
+		this.prefetchPages = prefetchPages;
+	}
+
+	/**
+	 * Set the REST client used to list assignable users and repositories instead of GraphQL queries,
+	 * so that unchanged listings can be revalidated from its HTTP cache rather than fetched again.
+	 */
+	public void setRestClient(GitHubRestClient restClient) {
+		this.restClient = restClient;
+	}
+
+	/**
+	 * Set the profile recording the latency of each GraphQL request, to report the slowest and most repeated ones.
+	 */
+	public void setQueryProfile(QueryProfile queryProfile) {
+		this.queryProfile = queryProfile;
+	}
+
+	/**
+	 * Stream all the items of a paginated listing, following the cursor of each page.
+	 * @param pageFetcher fetches the page after the given cursor, or the first page for a {@code null} cursor
+	 */
+	public <T> Flux<T> paginate(Function<String, Mono<Page<T>>> pageFetcher) {
+		return pageFetcher.apply(null)
+				.expand((page) -> page.hasNextPage() ? pageFetcher.apply(page.getEndCursor()) : Mono.empty())
+				.concatMapIterable(Page::getItems, this.prefetchPages + 1);
+	}
+
+	private <D extends Operation.Data, V extends Operation.Variables> Mono<D> query(Query<D, D, V> query) {
+		return this.scheduler.schedule(false, call(query));
+	}
+
+	private <D extends Operation.Data, V extends Operation.Variables> Mono<D> call(Query<D, D, V> query) {
+		return call(query, (data) -> 0);
+	}
+
+	private <D extends Operation.Data, V extends Operation.Variables> Mono<D> call(Query<D, D, V> query,
+			ToIntFunction<D> cost) {
+		return timed(query.name().name(), query.queryDocument(), query.variables().valueMap(), cost,
+				(trace) -> Mono.defer(() -> post(trace, query.composeRequestBody().toByteArray())).<D>handle((body, sink) -> {
+					Response<D> response;
+					try {
+						response = query.parse(ByteString.of(body));
+					}
+					catch (IOException ex) {
+						sink.error(new ApolloParseException("Failed to parse GraphQL response", ex));
+						return;
+					}
+					if (response.hasErrors()) {
+						boolean rateLimited = response.getErrors().stream()
+								.anyMatch((error) -> "RATE_LIMITED".equals(error.getCustomAttributes().get("type")));
+						sink.error(rateLimited ? new RateLimitExceededException("GraphQL rate limit exceeded", null)
+								: new ApolloException("GraphQL errors: " + response.getErrors()));
+					}
+					else {
+						sink.next(response.getData());
+					}
+				}));
+	}
+
+	/**
+	 * Record the latency and outcome of each attempt of a GraphQL request, tagged by query and repository.
+	 * Each attempt is also added to the {@link QueryProfile} if set, and emitted as a {@link GraphQLRequestEvent}
+	 * linked to the metric being computed when Flight Recorder is recording.
+	 */
+	private <T> Mono<T> timed(String operationName, String document, Map<String, Object> variables,
+			ToIntFunction<T> cost, Function<RequestTrace, Mono<T>> request) {
+		return Mono.deferContextual((context) -> {
+			Timer.Sample sample = Timer.start(this.meterRegistry);
+			RequestTrace trace = new RequestTrace(operationName, document, variables,
+					FlightRecording.currentMetricId(context));
+			return request.apply(trace)
+					.doOnNext((result) -> trace.cost = cost.applyAsInt(result))
+					.doFinally((signal) -> {
+						String outcome = (signal == SignalType.ON_ERROR) ? "error"
+								: (signal == SignalType.CANCEL) ? "cancelled" : "success";
+						sample.stop(Timer.builder("scorecard.graphql.requests")
+								.description("GitHub GraphQL requests")
+								.tag("query", operationName)
+								.tag("repository", repository(variables))
+								.tag("outcome", outcome)
+								.publishPercentiles(0.5, 0.9, 0.99)
+								.publishPercentileHistogram()
+								.register(this.meterRegistry));
+						trace.finish(outcome, this.queryProfile);
 					});
 		});
 	}
 
-	private static class AuthorizationInterceptor implements Interceptor {
+	private Mono<byte[]> post(RequestTrace trace, byte[] body) {
+		trace.requestBytes = body.length;
+		return this.transport.post(body).doOnNext((response) -> trace.responseBytes = response.length);
+	}
 
-		private final String token;
+	/**
+	 * Guess the repository a request is about from its variables, either the repository
+	 * variables or the "repo:" qualifier of search queries.
+	 */
+	static String repository(Map<String, Object> variables) {
+		if (variables.containsKey("repo")) {
+			return variables.get("org") + "/" + variables.get("repo");
+		}
+		if (variables.containsKey("org")) {
+			return String.valueOf(variables.get("org"));
+		}
+		Set<String> repositories = new HashSet<>();
+		for (Object value : variables.values()) {
+			String query = String.valueOf(value);
+			int start = query.indexOf("repo:");
+			if (start != -1) {
+				int end = query.indexOf(' ', start);
+				repositories.add(query.substring(start + 5, (end != -1) ? end : query.length()));
+			}
+		}
+		return (repositories.size() == 1) ? repositories.iterator().next()
+				: repositories.isEmpty() ? "none" : "multiple";
+	}
+
+	private static Issue toIssue(IssueFields fields) {
+		Set<String> labels = (fields.labels() != null && fields.labels().nodes() != null) ? fields.labels().nodes().stream().filter(Objects::nonNull)
+				.map((label) -> label.name()).collect(Collectors.toSet()) : Collections.emptySet();
+		String author = (fields.author() != null) ? fields.author().login() : null;
+		List<Issue.Comment> responses = (fields.comments().nodes() != null) ? fields.comments().nodes().stream()
+				.filter((comment) -> comment != null && comment.author() != null && !comment.author().login().equalsIgnoreCase(author))
+				.map((comment) -> new Issue.Comment(comment.author().login(), Instant.parse(comment.createdAt())))
+				.collect(Collectors.toList()) : Collections.emptyList();
+		int fetched = (fields.comments().nodes() != null) ? fields.comments().nodes().size() : 0;
+		return new Issue(fields.number(), false, author,
+				Instant.parse(fields.createdAt()), fields.closed() ? parseInstant(fields.closedAt()) : null,
+				Instant.parse(fields.updatedAt()), labels, (fields.milestone() != null) ? fields.milestone().title() : null,
+				responses, fields.comments().totalCount() > fetched);
+	}
+
+	private static Issue toIssue(PullRequestFields fields) {
+		Set<String> labels = (fields.labels() != null && fields.labels().nodes() != null) ? fields.labels().nodes().stream().filter(Objects::nonNull)
+				.map((label) -> label.name()).collect(Collectors.toSet()) : Collections.emptySet();
+		String author = (fields.author() != null) ? fields.author().login() : null;
+		List<Issue.Comment> responses = (fields.comments().nodes() != null) ? fields.comments().nodes().stream()
+				.filter((comment) -> comment != null && comment.author() != null && !comment.author().login().equalsIgnoreCase(author))
+				.map((comment) -> new Issue.Comment(comment.author().login(), Instant.parse(comment.createdAt())))
+				.collect(Collectors.toList()) : Collections.emptyList();
+		int fetched = (fields.comments().nodes() != null) ? fields.comments().nodes().size() : 0;
+		return new Issue(fields.number(), true, author,
+				Instant.parse(fields.createdAt()), fields.closed() ? parseInstant(fields.closedAt()) : null,
+				Instant.parse(fields.updatedAt()), labels, (fields.milestone() != null) ? fields.milestone().title() : null,
+				responses, fields.comments().totalCount() > fetched);
+	}
+
+	private static Instant parseInstant(String dateTime) {
+		return (dateTime != null) ? Instant.parse(dateTime) : null;
+	}
+
+	/**
+	 * What is known about an attempt at sending a request, gathered while it is sent.
+	 */
+	private static final class RequestTrace {
 
-		public AuthorizationInterceptor(String token) {
-			this.token = token;
+		private final String operationName;
+
+		private final String document;
+
+		private final Map<String, Object> variables;
+
+		private final long metricId;
+
+		private final long startedAt = System.nanoTime();
+
+		private final GraphQLRequestEvent event;
+
+		private volatile int requestBytes;
+
+		private volatile int responseBytes;
+
+		private volatile int cost;
+
+		RequestTrace(String operationName, String document, Map<String, Object> variables, long metricId) {
+			this.operationName = operationName;
+			this.document = document;
+			this.variables = variables;
+			this.metricId = metricId;
+			this.event = FlightRecording.AVAILABLE ? new GraphQLRequestEvent() : null;
+			if (this.event != null) {
+				this.event.begin();
+			}
 		}
 
-		@Override
-		public okhttp3.Response intercept(Chain chain) throws IOException {
-			Request request = chain.request().newBuilder()
-					.addHeader("Authorization", "Bearer " + this.token).build();
-			return chain.proceed(request);
+		void finish(String outcome, QueryProfile queryProfile) {
+			if (queryProfile != null) {
+				queryProfile.record(QueryProfile.describe(this.operationName, this.variables),
+						System.nanoTime() - this.startedAt, this.responseBytes, this.cost);
+			}
+			if (this.event != null && this.event.shouldCommit()) {
+				this.event.setOperation(this.operationName);
+				this.event.setQueryHash(FlightRecording.hash(this.document.getBytes(StandardCharsets.UTF_8)));
+				this.event.setRepository(repository(this.variables));
+				this.event.setRequestBytes(this.requestBytes);
+				this.event.setResponseBytes(this.responseBytes);
+				this.event.setCost(this.cost);
+				this.event.setOutcome(outcome);
+				this.event.setMetricId(this.metricId);
+				this.event.commit();
+			}
 		}
+
 	}
+
 }
@@ -0,0 +1,20 @@
+package io.spring.team.scorecard.graphql;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a {@link GraphQLTransport} when the GraphQL endpoint answers with an HTTP error status.
+ */
+public class GraphQLHttpException extends IOException {
+
+	private final int status;
+
+	public GraphQLHttpException(int status, String message) {
+		super("HTTP " + status + " " + message);
+		this.status = status;
+	}
+
+	public int getStatus() {
+		return this.status;
+	}
+}
@@ -0,0 +1,20 @@
+package io.spring.team.scorecard.graphql;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Sends GraphQL requests to the GitHub API over HTTP.
+ * Implementations authenticate requests, report rate limit headers to the {@link RequestScheduler},
+ * and abort the request in flight when the returned {@code Mono} is cancelled.
+ */
+@FunctionalInterface
+public interface GraphQLTransport {
+
+	/**
+	 * Post the given JSON request body to the GraphQL endpoint.
+	 * @return the JSON response body, or an error if the request failed, was throttled
+	 * ({@link RateLimitExceededException}), or got an error status ({@link GraphQLHttpException})
+	 */
+	Mono<byte[]> post(byte[] body);
+
+}
@@ -0,0 +1,13 @@
+package io.spring.team.scorecard.graphql;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Strategy for counting the issues and pull requests matching a GitHub search query.
+ */
+@FunctionalInterface
+public interface IssueSearch {
+
+	Mono<Integer> searchNumberOfIssuesAndPRs(String searchQuery);
+
+}
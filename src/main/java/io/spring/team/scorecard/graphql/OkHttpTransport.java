@@ -0,0 +1,88 @@
+package io.spring.team.scorecard.graphql;
+
+import java.io.IOException;
+
+import com.apollographql.apollo.exception.ApolloNetworkException;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link GraphQLTransport} sending requests with OkHttp, completing them from the callbacks of its dispatcher.
+ * The dispatcher allows as many requests per host as the {@link RequestScheduler} lets through,
+ * instead of its default limit of 5.
+ */
+public class OkHttpTransport implements GraphQLTransport {
+
+	private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+	private final String serverUrl;
+
+	private final String token;
+
+	private final RequestScheduler scheduler;
+
+	private final OkHttpClient httpClient;
+
+	public OkHttpTransport(String serverUrl, String token, RequestScheduler scheduler) {
+		this(serverUrl, token, scheduler, new OkHttpClient.Builder());
+	}
+
+	public OkHttpTransport(String serverUrl, String token, RequestScheduler scheduler, OkHttpClient.Builder builder) {
+		this.serverUrl = serverUrl;
+		this.token = token;
+		this.scheduler = scheduler;
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), scheduler.getMaxConcurrency()));
+		dispatcher.setMaxRequestsPerHost(Math.max(dispatcher.getMaxRequestsPerHost(), scheduler.getMaxConcurrency()));
+		this.httpClient = builder.dispatcher(dispatcher).build();
+	}
+
+	@Override
+	public Mono<byte[]> post(byte[] body) {
+		return Mono.create((sink) -> {
+			Request request = new Request.Builder().url(this.serverUrl)
+					.header("Authorization", "Bearer " + this.token)
+					.post(RequestBody.create(JSON, body)).build();
+			Call call = this.httpClient.newCall(request);
+			sink.onCancel(call::cancel);
+			call.enqueue(new Callback() {
+				@Override
+				public void onResponse(@NotNull Call call, @NotNull Response response) {
+					try (ResponseBody responseBody = response.body()) {
+						RateLimitExceededException throttled = scheduler.checkResponse(response.code(), response::header);
+						if (throttled != null) {
+							sink.error(throttled);
+						}
+						else if (!response.isSuccessful()) {
+							sink.error(new GraphQLHttpException(response.code(), response.message()));
+						}
+						else {
+							sink.success(responseBody.bytes());
+						}
+					}
+					catch (IOException ex) {
+						sink.error(new ApolloNetworkException("Failed to read GraphQL response", ex));
+					}
+					catch (RuntimeException ex) {
+						sink.error(ex);
+					}
+				}
+
+				@Override
+				public void onFailure(@NotNull Call call, @NotNull IOException e) {
+					sink.error(new ApolloNetworkException("Failed to execute GraphQL request", e));
+				}
+			});
+		});
+	}
+
+}
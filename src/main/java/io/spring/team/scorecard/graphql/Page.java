@@ -0,0 +1,33 @@
+package io.spring.team.scorecard.graphql;
+
+import java.util.List;
+
+/**
+ * A page of results from a GraphQL connection, along with the cursor to the next page.
+ */
+public class Page<T> {
+
+	private final List<T> items;
+
+	private final String endCursor;
+
+	private final boolean hasNextPage;
+
+	public Page(List<T> items, String endCursor, boolean hasNextPage) {
+		this.items = items;
+		this.endCursor = endCursor;
+		this.hasNextPage = hasNextPage;
+	}
+
+	public List<T> getItems() {
+		return this.items;
+	}
+
+	public String getEndCursor() {
+		return this.endCursor;
+	}
+
+	public boolean hasNextPage() {
+		return this.hasNextPage;
+	}
+}
@@ -0,0 +1,148 @@
+package io.spring.team.scorecard.graphql;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Profile of the GraphQL requests sent during a run, grouped by query and variables, to report
+ * the slowest requests and the ones sent several times. The pages of a listing have different cursors,
+ * so they are grouped separately and only requests sent again with the same cursor count as repeats.
+ */
+public class QueryProfile {
+
+	private static final Log logger = LogFactory.getLog(QueryProfile.class);
+
+	private static final int MAX_DESCRIPTION_LENGTH = 160;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Describe a request by its operation and variables, pagination cursors included.
+	 */
+	static String describe(String operationName, Map<String, Object> variables) {
+		String values = variables.values().stream().map(String::valueOf).collect(Collectors.joining(", "));
+		return operationName + " " + values;
+	}
+
+	/**
+	 * Record an attempt at sending a request.
+	 * @param query the description of the request
+	 * @param nanos the latency of the request
+	 * @param responseBytes the size of the response
+	 * @param cost the GraphQL points spent, 0 if unknown
+	 */
+	public void record(String query, long nanos, int responseBytes, int cost) {
+		this.entries.computeIfAbsent(query, Entry::new).record(nanos, responseBytes, cost);
+	}
+
+	/**
+	 * Return the entries with the highest maximum latency.
+	 */
+	public List<Entry> getSlowest(int limit) {
+		return this.entries.values().stream().sorted(Comparator.comparingLong(Entry::getMaxNanos).reversed())
+				.limit(limit).collect(Collectors.toList());
+	}
+
+	/**
+	 * Return the entries sent the most times, among those sent more than once.
+	 */
+	public List<Entry> getMostRepeated(int limit) {
+		return this.entries.values().stream().filter((entry) -> entry.getCount() > 1)
+				.sorted(Comparator.comparingInt(Entry::getCount).reversed()).limit(limit).collect(Collectors.toList());
+	}
+
+	/**
+	 * Log the slowest and most repeated requests, if any request was sent.
+	 */
+	public void log(int limit) {
+		if (this.entries.isEmpty()) {
+			return;
+		}
+		StringBuilder report = new StringBuilder("Query profile of " + this.entries.size() + " distinct queries:");
+		report.append(System.lineSeparator()).append("  Slowest:");
+		getSlowest(limit).forEach((entry) -> append(report, entry));
+		List<Entry> repeated = getMostRepeated(limit);
+		if (!repeated.isEmpty()) {
+			report.append(System.lineSeparator()).append("  Most repeated:");
+			repeated.forEach((entry) -> append(report, entry));
+		}
+		logger.info(report);
+	}
+
+	private static void append(StringBuilder report, Entry entry) {
+		String query = entry.getQuery();
+		if (query.length() > MAX_DESCRIPTION_LENGTH) {
+			query = query.substring(0, MAX_DESCRIPTION_LENGTH) + "...";
+		}
+		report.append(System.lineSeparator()).append(String.format("    count=%d max=%.1fms total=%.1fms bytes=%d cost=%d %s",
+				entry.getCount(), nanosToMillis(entry.getMaxNanos()), nanosToMillis(entry.getTotalNanos()),
+				entry.getResponseBytes(), entry.getCost(), query));
+	}
+
+	private static double nanosToMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * Requests sent with the same query and variables.
+	 */
+	public static final class Entry {
+
+		private final String query;
+
+		private int count;
+
+		private long totalNanos;
+
+		private long maxNanos;
+
+		private long responseBytes;
+
+		private long cost;
+
+		Entry(String query) {
+			this.query = query;
+		}
+
+		synchronized void record(long nanos, int responseBytes, int cost) {
+			this.count++;
+			this.totalNanos += nanos;
+			this.maxNanos = Math.max(this.maxNanos, nanos);
+			this.responseBytes += responseBytes;
+			this.cost += cost;
+		}
+
+		public String getQuery() {
+			return this.query;
+		}
+
+		public synchronized int getCount() {
+			return this.count;
+		}
+
+		public synchronized long getTotalNanos() {
+			return this.totalNanos;
+		}
+
+		public synchronized long getMaxNanos() {
+			return this.maxNanos;
+		}
+
+		public synchronized long getResponseBytes() {
+			return this.responseBytes;
+		}
+
+		public synchronized long getCost() {
+			return this.cost;
+		}
+
+	}
+
+}
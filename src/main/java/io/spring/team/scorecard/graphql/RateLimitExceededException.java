@@ -0,0 +1,24 @@
+package io.spring.team.scorecard.graphql;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Thrown when GitHub throttles a request because a primary or secondary rate limit has been exceeded.
+ */
+public class RateLimitExceededException extends IOException {
+
+	private final Instant retryAt;
+
+	public RateLimitExceededException(String message, Instant retryAt) {
+		super(message);
+		this.retryAt = retryAt;
+	}
+
+	/**
+	 * Return the instant after which the request can be sent again, {@code null} if unknown.
+	 */
+	public Instant getRetryAt() {
+		return this.retryAt;
+	}
+}
@@ -0,0 +1,344 @@
+package io.spring.team.scorecard.graphql;
+
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.apollographql.apollo.exception.ApolloHttpException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.spring.team.scorecard.rest.GitHubRestException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.retry.Retry;
+
+/**
+ * Schedules GitHub API requests so that they're sent as fast as rate limits allow:
+ * <ul>
+ * <li>the number of in-flight requests is bounded, waiting requests are dequeued in a round-robin fashion
+ * across the queues named by the {@link #QUEUE_KEY} context key, so that a large workload can't starve the others</li>
+ * <li>search requests are paced to a per-minute budget</li>
+ * <li>requests are held back when the rate limit budget is exhausted, until it is reset</li>
+ * <li>throttled requests and server errors are retried with a jittered exponential backoff</li>
+ * </ul>
+ * Rate limit information is read from the {@code X-RateLimit-*} and {@code Retry-After} response headers
+ * by the {@link GraphQLTransport} through {@link #checkResponse}, and from the {@code rateLimit} field of GraphQL responses.
+ */
+public class RequestScheduler {
+
+	/**
+	 * Reactor context key naming the queue of the scheduled requests, typically the repository they're about.
+	 * Requests shared by several subscribers run with the context of the first one, which is why memoized
+	 * pipelines are kept per repository, and why {@link SearchBatcher} batches queries per queue.
+	 */
+	public static final String QUEUE_KEY = RequestScheduler.class.getName() + ".QUEUE";
+
+	private static final Log logger = LogFactory.getLog(RequestScheduler.class);
+
+	private final int maxConcurrency;
+
+	private final Duration searchInterval;
+
+	private final Retry retry;
+
+	private final Clock clock;
+
+	private final Counter retries;
+
+	private final AtomicInteger rateLimitRemaining = new AtomicInteger(-1);
+
+	private final AtomicLong rateLimitCost = new AtomicLong();
+
+	private final Map<String, Queue<Runnable>> waiting = new HashMap<>();
+
+	private final Deque<String> queues = new ArrayDeque<>();
+
+	private int inFlight;
+
+	private int waitingCount;
+
+	private Instant nextSearchAt = Instant.MIN;
+
+	private Instant pausedUntil = Instant.MIN;
+
+	public RequestScheduler(int maxConcurrency, int searchesPerMinute, int maxRetries, Duration minBackoff) {
+		this(maxConcurrency, searchesPerMinute, maxRetries, minBackoff, Metrics.globalRegistry);
+	}
+
+	public RequestScheduler(int maxConcurrency, int searchesPerMinute, int maxRetries, Duration minBackoff,
+			MeterRegistry meterRegistry) {
+		this(maxConcurrency, searchesPerMinute, maxRetries, minBackoff, meterRegistry, Clock.systemUTC());
+	}
+
+	public RequestScheduler(int maxConcurrency, int searchesPerMinute, int maxRetries, Duration minBackoff,
+			MeterRegistry meterRegistry, Clock clock) {
+		this.maxConcurrency = maxConcurrency;
+		this.searchInterval = Duration.ofMinutes(1).dividedBy(searchesPerMinute);
+		this.retries = Counter.builder("scorecard.github.retries")
+				.description("Requests retried after being throttled or failing").register(meterRegistry);
+		this.retry = Retry.backoff(maxRetries, minBackoff).jitter(0.5)
+				.filter(RequestScheduler::isRetryable)
+				.doBeforeRetry((signal) -> {
+					logger.debug("retrying request after failure: " + signal.failure().getMessage());
+					this.retries.increment();
+				})
+				.onRetryExhaustedThrow((spec, signal) -> signal.failure());
+		this.clock = clock;
+		Gauge.builder("scorecard.github.ratelimit.remaining", this.rateLimitRemaining, AtomicInteger::get)
+				.description("Remaining GitHub API rate limit budget").register(meterRegistry);
+		Gauge.builder("scorecard.github.ratelimit.cost", this.rateLimitCost, AtomicLong::get)
+				.description("GraphQL points spent since startup").register(meterRegistry);
+		Gauge.builder("scorecard.github.requests.waiting", this, (scheduler) -> scheduler.getWaitingCount())
+				.description("Requests waiting for a permit to be sent").register(meterRegistry);
+	}
+
+	/**
+	 * Schedule the given request, which is subscribed again for each retry.
+	 * Requests wait for their search slot or for the end of a rate limit pause before taking a permit,
+	 * so that paced searches don't hold back the other requests.
+	 * @param search whether the request performs a search and should be paced to the search budget
+	 * @param request the request to schedule
+	 */
+	public <T> Mono<T> schedule(boolean search, Mono<T> request) {
+		return schedule(search, () -> Duration.ZERO, request);
+	}
+
+	/**
+	 * Schedule the given request, which is subscribed again for each retry, after an additional pause
+	 * that is checked again before each attempt and waited for without holding a permit, such as the pause
+	 * of another rate limit budget.
+	 * @param search whether the request performs a search and should be paced to the search budget
+	 * @param pause how long to wait before taking a permit
+	 * @param request the request to schedule
+	 */
+	public <T> Mono<T> schedule(boolean search, Supplier<Duration> pause, Mono<T> request) {
+		return Mono.defer(() -> {
+			Duration delay = reserve(search);
+			Duration additional = pause.get();
+			return Mono.delay((additional.compareTo(delay) > 0) ? additional : delay);
+		}).then(withPermit(request)).retryWhen(this.retry);
+	}
+
+	private <T> Mono<T> withPermit(Mono<T> request) {
+		return Mono.create((sink) -> {
+			String queue = sink.currentContext().getOrDefault(QUEUE_KEY, "");
+			AtomicReference<Disposable> running = new AtomicReference<>();
+			Runnable start = () -> running.set(request.doFinally((signal) -> release())
+					.subscribe(sink::success, sink::error, sink::success));
+			sink.onCancel(() -> {
+				if (!dequeue(queue, start) && running.get() != null) {
+					running.get().dispose();
+				}
+			});
+			acquire(queue, start);
+		});
+	}
+
+	private void acquire(String queue, Runnable task) {
+		synchronized (this) {
+			if (this.inFlight >= this.maxConcurrency) {
+				Queue<Runnable> tasks = this.waiting.computeIfAbsent(queue, (key) -> new ArrayDeque<>());
+				if (tasks.isEmpty()) {
+					this.queues.addLast(queue);
+				}
+				tasks.add(task);
+				this.waitingCount++;
+				return;
+			}
+			this.inFlight++;
+		}
+		task.run();
+	}
+
+	private synchronized boolean dequeue(String queue, Runnable task) {
+		Queue<Runnable> tasks = this.waiting.get(queue);
+		if (tasks == null || !tasks.remove(task)) {
+			return false;
+		}
+		this.waitingCount--;
+		if (tasks.isEmpty()) {
+			this.waiting.remove(queue);
+			this.queues.remove(queue);
+		}
+		return true;
+	}
+
+	private void release() {
+		Runnable next;
+		synchronized (this) {
+			String queue = this.queues.pollFirst();
+			if (queue == null) {
+				this.inFlight--;
+				return;
+			}
+			Queue<Runnable> tasks = this.waiting.get(queue);
+			next = tasks.poll();
+			this.waitingCount--;
+			if (tasks.isEmpty()) {
+				this.waiting.remove(queue);
+			}
+			else {
+				this.queues.addLast(queue);
+			}
+		}
+		next.run();
+	}
+
+	/**
+	 * Return a context putting the requests scheduled by a pipeline in the queue with the given name.
+	 */
+	public static Context queue(String name) {
+		return Context.of(QUEUE_KEY, name);
+	}
+
+	/**
+	 * Reserve a slot for sending a request, and return how long to wait before sending it.
+	 */
+	private synchronized Duration reserve(boolean search) {
+		Instant now = this.clock.instant();
+		Instant sendAt = this.pausedUntil.isAfter(now) ? this.pausedUntil : now;
+		if (search) {
+			sendAt = this.nextSearchAt.isAfter(sendAt) ? this.nextSearchAt : sendAt;
+			this.nextSearchAt = sendAt.plus(this.searchInterval);
+		}
+		return Duration.between(now, sendAt);
+	}
+
+	/**
+	 * Hold back all requests until the given instant.
+	 */
+	public synchronized void pauseUntil(Instant instant) {
+		if (instant != null && instant.isAfter(this.pausedUntil)) {
+			logger.info("Rate limit exceeded, pausing requests until " + instant);
+			this.pausedUntil = instant;
+		}
+	}
+
+	/**
+	 * Record the rate limit budget reported by GitHub, pausing requests if it's exhausted.
+	 * @param remaining the remaining points or requests
+	 * @param resetAt when the budget will be reset
+	 */
+	public void updateRateLimit(int remaining, Instant resetAt) {
+		this.rateLimitRemaining.set(remaining);
+		if (remaining <= 0) {
+			pauseUntil(resetAt);
+		}
+	}
+
+	/**
+	 * Record the GraphQL points spent by a request.
+	 */
+	public void recordCost(int cost) {
+		this.rateLimitCost.addAndGet(cost);
+	}
+
+	private synchronized int getWaitingCount() {
+		return this.waitingCount;
+	}
+
+	/**
+	 * Read the rate limit headers of a response, pausing requests if it was throttled.
+	 * @param status the HTTP status of the response
+	 * @param headers the values of the response headers, by name
+	 * @return the exception to fail the request with if it was throttled, {@code null} otherwise
+	 */
+	public RateLimitExceededException checkResponse(int status, Function<String, String> headers) {
+		Long remaining = parseLong(headers.apply("X-RateLimit-Remaining"));
+		Long reset = parseLong(headers.apply("X-RateLimit-Reset"));
+		Instant resetAt = (reset != null) ? Instant.ofEpochSecond(reset) : null;
+		if (remaining != null && resetAt != null) {
+			updateRateLimit((int) Math.min(remaining, Integer.MAX_VALUE), resetAt);
+		}
+		String retryAfter = headers.apply("Retry-After");
+		boolean exhausted = remaining != null && remaining == 0;
+		boolean throttled = status == 429 || (status == 403 && (retryAfter != null || exhausted));
+		if (!throttled) {
+			return null;
+		}
+		Instant retryAt = retryAt(retryAfter);
+		if (retryAt == null) {
+			retryAt = resetAt;
+		}
+		pauseUntil(retryAt);
+		return new RateLimitExceededException("GitHub API rate limit exceeded (HTTP " + status + ")", retryAt);
+	}
+
+	/**
+	 * Parse a {@code Retry-After} header, either a number of seconds or an HTTP date.
+	 * @return when to retry, or {@code null} if the header is missing or can't be parsed
+	 */
+	public Instant retryAt(String retryAfter) {
+		if (retryAfter == null) {
+			return null;
+		}
+		Long seconds = parseLong(retryAfter);
+		if (seconds != null) {
+			return this.clock.instant().plusSeconds(Math.max(seconds, 0));
+		}
+		try {
+			return ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+		}
+		catch (DateTimeParseException ex) {
+			logger.debug("Ignoring unparseable Retry-After header: " + retryAfter);
+			return null;
+		}
+	}
+
+	private static Long parseLong(String value) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	public int getMaxConcurrency() {
+		return this.maxConcurrency;
+	}
+
+	static boolean isRetryable(Throwable ex) {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof RateLimitExceededException) {
+				return true;
+			}
+			if (cause instanceof GraphQLHttpException) {
+				return ((GraphQLHttpException) cause).getStatus() >= 500;
+			}
+			if (cause instanceof GitHubRestException) {
+				return ((GitHubRestException) cause).getStatus() >= 500;
+			}
+			if (cause instanceof ApolloHttpException) {
+				return ((ApolloHttpException) cause).code() >= 500;
+			}
+			if (cause instanceof SocketTimeoutException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,127 @@
+package io.spring.team.scorecard.graphql;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+
+/**
+ * {@link IssueSearch} that collects search queries submitted within a short time window
+ * and sends them to GitHub as a single GraphQL document with many aliased {@code search} fields.
+ * Each caller gets its own count back, once the batch it belongs to has been executed.
+ * <p>Batches are sent from a shared flusher, so queries are batched per {@link RequestScheduler} queue,
+ * taken from the context of the caller or else from the {@code repo:} qualifier of the query,
+ * and each batch is scheduled in the queue of its queries. At most {@code maxConcurrency} batches are
+ * in flight, the next ones waiting for one of them to complete. Callers that cancel are dropped from
+ * the batch they wait for, and a batch whose callers all cancelled is cancelled as well.
+ */
+public class SearchBatcher implements IssueSearch, Closeable {
+
+	private static final Log logger = LogFactory.getLog(SearchBatcher.class);
+
+	private final GraphQLClient client;
+
+	private final Sinks.Many<PendingSearch> pending = Sinks.many().unicast().onBackpressureBuffer();
+
+	private final Disposable flusher;
+
+	public SearchBatcher(GraphQLClient client, int batchSize, Duration maxWait, int maxConcurrency) {
+		this.client = client;
+		this.flusher = this.pending.asFlux()
+				.groupBy((search) -> search.queue)
+				.flatMap((queue) -> queue.bufferTimeout(batchSize, maxWait).onBackpressureBuffer(), Integer.MAX_VALUE)
+				.flatMap(this::execute, maxConcurrency)
+				.subscribe();
+	}
+
+	@Override
+	public Mono<Integer> searchNumberOfIssuesAndPRs(String searchQuery) {
+		return Mono.create((sink) -> {
+			String queue = sink.currentContext().getOrDefault(RequestScheduler.QUEUE_KEY, null);
+			if (queue == null) {
+				String repository = GraphQLClient.repository(Collections.singletonMap("query", searchQuery));
+				queue = repository.contains("/") ? repository : "";
+			}
+			PendingSearch search = new PendingSearch(queue, searchQuery, sink);
+			sink.onCancel(search::cancel);
+			submit(search);
+		});
+	}
+
+	private synchronized void submit(PendingSearch search) {
+		this.pending.tryEmitNext(search).orThrow();
+	}
+
+	private Mono<Void> execute(List<PendingSearch> batch) {
+		Map<String, List<PendingSearch>> callers = new LinkedHashMap<>();
+		batch.stream().filter((search) -> !search.cancelled)
+				.forEach((search) -> callers.computeIfAbsent(search.query, (query) -> new ArrayList<>()).add(search));
+		if (callers.isEmpty()) {
+			return Mono.empty();
+		}
+		List<String> queries = new ArrayList<>(callers.keySet());
+		logger.debug("batch of " + queries.size() + " search queries for " + batch.size() + " callers");
+		Sinks.Empty<Void> abandoned = Sinks.empty();
+		Runnable checkAbandoned = () -> {
+			if (batch.stream().allMatch((search) -> search.cancelled)) {
+				abandoned.tryEmitEmpty();
+			}
+		};
+		batch.forEach((search) -> search.onCancel = checkAbandoned);
+		checkAbandoned.run();
+		return this.client.searchNumberOfIssuesAndPRs(queries).contextWrite(RequestScheduler.queue(batch.get(0).queue))
+				.takeUntilOther(abandoned.asMono())
+				.doOnNext((counts) -> {
+					for (int i = 0; i < queries.size(); i++) {
+						Mono<Integer> count = counts.get(i);
+						callers.get(queries.get(i)).forEach((search) -> count.subscribe(search.sink::success, search.sink::error));
+					}
+				})
+				.doOnError((ex) -> callers.values().forEach((searches) -> searches.forEach((search) -> search.sink.error(ex))))
+				.onErrorResume((ex) -> Mono.empty())
+				.then();
+	}
+
+	@Override
+	public void close() {
+		this.pending.tryEmitComplete();
+		this.flusher.dispose();
+	}
+
+	private static class PendingSearch {
+
+		private final String queue;
+
+		private final String query;
+
+		private final MonoSink<Integer> sink;
+
+		private volatile boolean cancelled;
+
+		private volatile Runnable onCancel;
+
+		PendingSearch(String queue, String query, MonoSink<Integer> sink) {
+			this.queue = queue;
+			this.query = query;
+			this.sink = sink;
+		}
+
+		void cancel() {
+			this.cancelled = true;
+			Runnable onCancel = this.onCancel;
+			if (onCancel != null) {
+				onCancel.run();
+			}
+		}
+	}
+}
@@ -0,0 +1,277 @@
+package io.spring.team.scorecard.graphql;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link IssueSearch} that caches issue counts by normalized search query and persists them to a local file.
+ * Counts for queries whose date qualifiers all end before the settle horizon are considered final and cached permanently,
+ * other counts expire after a short time-to-live. The least recently used entries are evicted once the cache is full.
+ * <p>New counts are written to the file at most {@code flushInterval} after they were fetched, so that a run that
+ * crashes or is killed doesn't lose them, and the file is written one last time when the cache is closed.
+ */
+public class SearchCountCache implements IssueSearch, Closeable {
+
+	private static final Log logger = LogFactory.getLog(SearchCountCache.class);
+
+	private final IssueSearch delegate;
+
+	private final Path file;
+
+	private final Duration settleHorizon;
+
+	private final Duration timeToLive;
+
+	private final Duration flushInterval;
+
+	private final Clock clock;
+
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Map<String, CachedCount> entries;
+
+	public SearchCountCache(IssueSearch delegate, Path file, int maxEntries, Duration settleHorizon, Duration timeToLive,
+			Duration flushInterval) {
+		this(delegate, file, maxEntries, settleHorizon, timeToLive, flushInterval, Clock.systemUTC());
+	}
+
+	public SearchCountCache(IssueSearch delegate, Path file, int maxEntries, Duration settleHorizon,
+			Duration timeToLive, Duration flushInterval, Clock clock) {
+		this.delegate = delegate;
+		this.file = file;
+		this.settleHorizon = settleHorizon;
+		this.timeToLive = timeToLive;
+		this.flushInterval = flushInterval;
+		this.clock = clock;
+		this.entries = new LinkedHashMap<String, CachedCount>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+				return size() > maxEntries;
+			}
+		};
+		load();
+	}
+
+	@Override
+	public Mono<Integer> searchNumberOfIssuesAndPRs(String searchQuery) {
+		String key = normalize(searchQuery);
+		CachedCount cached = get(key);
+		if (cached != null) {
+			logger.debug("cache hit: " + key);
+			return Mono.just(cached.count);
+		}
+		return this.delegate.searchNumberOfIssuesAndPRs(searchQuery)
+				.doOnNext((count) -> {
+					put(key, new CachedCount(count, expiry(key)));
+					scheduleFlush();
+				});
+	}
+
+	private synchronized CachedCount get(String key) {
+		CachedCount cached = this.entries.get(key);
+		if (cached != null && cached.isExpired(this.clock.instant())) {
+			this.entries.remove(key);
+			return null;
+		}
+		return cached;
+	}
+
+	private synchronized void put(String key, CachedCount count) {
+		this.entries.put(key, count);
+	}
+
+	private void scheduleFlush() {
+		if (this.flushInterval.isZero()) {
+			flush();
+		}
+		else if (this.flushScheduled.compareAndSet(false, true)) {
+			Mono.delay(this.flushInterval, Schedulers.boundedElastic()).subscribe((tick) -> {
+				this.flushScheduled.set(false);
+				flush();
+			});
+		}
+	}
+
+	private void flush() {
+		try {
+			save();
+		}
+		catch (IOException ex) {
+			logger.warn("Could not write search count cache " + this.file, ex);
+		}
+	}
+
+	/**
+	 * Return the instant at which a count for this query should expire, or {@code null} if it is settled.
+	 */
+	private Instant expiry(String query) {
+		LocalDate end = windowEnd(query);
+		LocalDate today = LocalDate.now(this.clock.withZone(ZoneOffset.UTC));
+		if (end != null && end.atStartOfDay().plus(this.settleHorizon).toLocalDate().isBefore(today)) {
+			return null;
+		}
+		return this.clock.instant().plus(this.timeToLive);
+	}
+
+	/**
+	 * Return the last day covered by the date qualifiers of this query,
+	 * or {@code null} if the query is open-ended or depends on the current state of issues.
+	 */
+	static LocalDate windowEnd(String query) {
+		LocalDate end = null;
+		for (String term : tokenize(query)) {
+			if (term.equals("is:open")) {
+				return null;
+			}
+			if (term.startsWith("created:") || term.startsWith("closed:")) {
+				String range = term.substring(term.indexOf(':') + 1);
+				LocalDate last;
+				if (range.contains("..")) {
+					last = LocalDate.parse(range.substring(range.indexOf("..") + 2));
+				}
+				else if (range.startsWith("<=")) {
+					last = LocalDate.parse(range.substring(2));
+				}
+				else if (range.startsWith("<")) {
+					last = LocalDate.parse(range.substring(1)).minusDays(1);
+				}
+				else if (range.startsWith(">")) {
+					return null;
+				}
+				else {
+					last = LocalDate.parse(range);
+				}
+				end = (end == null || last.isAfter(end)) ? last : end;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * Normalize a search query so that equivalent queries share the same cache entry:
+	 * terms are sorted and separated by a single space.
+	 */
+	static String normalize(String query) {
+		List<String> terms = tokenize(query);
+		Collections.sort(terms);
+		return String.join(" ", terms);
+	}
+
+	private static List<String> tokenize(String query) {
+		List<String> terms = new ArrayList<>();
+		StringBuilder term = new StringBuilder();
+		boolean quoted = false;
+		for (char c : query.trim().toCharArray()) {
+			if (c == '"') {
+				quoted = !quoted;
+			}
+			if (Character.isWhitespace(c) && !quoted) {
+				if (term.length() > 0) {
+					terms.add(term.toString());
+					term.setLength(0);
+				}
+			}
+			else {
+				term.append(c);
+			}
+		}
+		if (term.length() > 0) {
+			terms.add(term.toString());
+		}
+		return terms;
+	}
+
+	private void load() {
+		if (!Files.isReadable(this.file)) {
+			return;
+		}
+		try {
+			Instant now = this.clock.instant();
+			for (JsonNode node : this.objectMapper.readTree(this.file.toFile())) {
+				Instant expires = node.hasNonNull("expires") ? Instant.ofEpochMilli(node.get("expires").asLong()) : null;
+				CachedCount cached = new CachedCount(node.get("count").asInt(), expires);
+				if (!cached.isExpired(now)) {
+					this.entries.put(node.get("query").asText(), cached);
+				}
+			}
+			logger.debug("loaded " + this.entries.size() + " cached search counts from " + this.file);
+		}
+		catch (IOException ex) {
+			logger.warn("Could not read search count cache " + this.file + ", starting with an empty cache", ex);
+		}
+	}
+
+	/**
+	 * Write the cache content to its file, replacing the previous file atomically.
+	 */
+	public synchronized void save() throws IOException {
+		ArrayNode content = this.objectMapper.createArrayNode();
+		Instant now = this.clock.instant();
+		this.entries.forEach((query, cached) -> {
+			if (!cached.isExpired(now)) {
+				ObjectNode node = content.addObject().put("query", query).put("count", cached.count);
+				if (cached.expires != null) {
+					node.put("expires", cached.expires.toEpochMilli());
+				}
+			}
+		});
+		Path directory = this.file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path temp = Files.createTempFile(directory, this.file.getFileName().toString(), ".tmp");
+		this.objectMapper.writeValue(temp.toFile(), content);
+		Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			save();
+		}
+		finally {
+			if (this.delegate instanceof Closeable) {
+				((Closeable) this.delegate).close();
+			}
+		}
+	}
+
+	private static class CachedCount {
+
+		private final int count;
+
+		private final Instant expires;
+
+		CachedCount(int count, Instant expires) {
+			this.count = count;
+			this.expires = expires;
+		}
+
+		boolean isExpired(Instant now) {
+			return this.expires != null && !now.isBefore(this.expires);
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package io.spring.team.scorecard.graphql;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link IssueSearch} appending each count to a journal file as soon as it arrives, one JSON object per line.
+ * When resuming, the counts of the journal are replayed and only the missing searches are sent,
+ * so a run that failed halfway doesn't pay again for the searches it completed.
+ * Otherwise the journal is started over.
+ */
+public class SearchJournal implements IssueSearch, Closeable {
+
+	private static final Log logger = LogFactory.getLog(SearchJournal.class);
+
+	private final IssueSearch delegate;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+
+	private final Writer writer;
+
+	public SearchJournal(IssueSearch delegate, Path file, boolean resume) throws IOException {
+		this.delegate = delegate;
+		Path directory = file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		if (resume && Files.isReadable(file)) {
+			replay(file);
+			logger.info("Resuming with " + this.counts.size() + " search counts from " + file);
+			this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		}
+		else {
+			this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+		}
+	}
+
+	@Override
+	public Mono<Integer> searchNumberOfIssuesAndPRs(String searchQuery) {
+		String key = SearchCountCache.normalize(searchQuery);
+		Integer count = this.counts.get(key);
+		if (count != null) {
+			return Mono.just(count);
+		}
+		return this.delegate.searchNumberOfIssuesAndPRs(searchQuery).doOnNext((result) -> append(key, result));
+	}
+
+	/**
+	 * Return the number of search counts recorded in the journal so far.
+	 */
+	public int size() {
+		return this.counts.size();
+	}
+
+	private void replay(Path file) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				try {
+					JsonNode node = this.objectMapper.readTree(line);
+					this.counts.put(node.get("query").asText(), node.get("count").asInt());
+				}
+				catch (IOException | RuntimeException ex) {
+					// the last line may have been cut short when the previous run was interrupted
+					logger.debug("Skipping unreadable journal line: " + line);
+				}
+			}
+		}
+	}
+
+	private void append(String query, int count) {
+		if (this.counts.putIfAbsent(query, count) != null) {
+			return;
+		}
+		try {
+			String line = this.objectMapper.createObjectNode().put("query", query).put("count", count).toString();
+			synchronized (this.writer) {
+				this.writer.write(line);
+				this.writer.write('\n');
+				this.writer.flush();
+			}
+		}
+		catch (IOException ex) {
+			logger.warn("Could not journal search count for " + query, ex);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (this.writer) {
+			this.writer.close();
+		}
+		if (this.delegate instanceof Closeable) {
+			((Closeable) this.delegate).close();
+		}
+	}
+
+}
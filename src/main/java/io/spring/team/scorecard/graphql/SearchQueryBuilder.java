@@ -2,9 +2,12 @@ package io.spring.team.scorecard.graphql;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import org.springframework.util.StringUtils;
 
@@ -12,9 +15,9 @@ public class SearchQueryBuilder {
 
 	private final String repository;
 
-	private String created;
+	private DateRange created;
 
-	private String closed;
+	private DateRange closed;
 
 	private String author;
 
@@ -22,20 +25,27 @@ public class SearchQueryBuilder {
 
 	private Set<String> ignoringLabels = new HashSet<>();
 
+	private Set<String> anyLabels = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+	private Set<String> ignoringAuthors = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
 	private Milestone milestone = Milestone.UNKNOWN;
 
 	private State state = State.UNKNOWN;
 
 	private Type type = Type.UNKNOWN;
 
-	private SearchQueryBuilder(String repository, String created, String closed, String author, Set<String> labels,
-			Set<String> ignoringLabels, Milestone milestone, State state, Type type) {
+	private SearchQueryBuilder(String repository, DateRange created, DateRange closed, String author, Set<String> labels,
+			Set<String> ignoringLabels, Set<String> anyLabels, Set<String> ignoringAuthors, Milestone milestone,
+			State state, Type type) {
 		this.repository = repository;
 		this.created = created;
 		this.closed = closed;
 		this.author = author;
 		this.labels.addAll(labels);
 		this.ignoringLabels.addAll(ignoringLabels);
+		this.anyLabels.addAll(anyLabels);
+		this.ignoringAuthors.addAll(ignoringAuthors);
 		this.milestone = milestone;
 		this.state = state;
 		this.type = type;
@@ -43,94 +53,126 @@ public class SearchQueryBuilder {
 
 	public static SearchQueryBuilder create(String organization, String repository) {
 		return new SearchQueryBuilder(organization + "/" + repository, null, null, null,
-				Collections.emptySet(), Collections.emptySet(), Milestone.UNKNOWN, State.UNKNOWN, Type.UNKNOWN);
+				Collections.emptySet(), Collections.emptySet(), Collections.emptySet(), Collections.emptySet(),
+				Milestone.UNKNOWN, State.UNKNOWN, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder createdBetween(LocalDate start, LocalDate end) {
-		String created = String.format("%s..%s", start.format(DateTimeFormatter.ISO_DATE), end.format(DateTimeFormatter.ISO_DATE));
+		DateRange created = new DateRange(start, end);
 		return new SearchQueryBuilder(this.repository, created, this.closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, this.state, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder createdBefore(LocalDate date) {
-		String created = String.format("<%s", date.format(DateTimeFormatter.ISO_DATE));
+		DateRange created = new DateRange(null, date.minusDays(1));
 		return new SearchQueryBuilder(this.repository, created, this.closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, this.state, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder createdAfter(LocalDate date) {
-		String created = String.format(">=%s", date.format(DateTimeFormatter.ISO_DATE));
+		DateRange created = new DateRange(date, null);
 		return new SearchQueryBuilder(this.repository, created, this.closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, this.state, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder closedBetween(LocalDate start, LocalDate end) {
-		String closed = String.format("%s..%s", start.format(DateTimeFormatter.ISO_DATE), end.format(DateTimeFormatter.ISO_DATE));
+		DateRange closed = new DateRange(start, end);
 		return new SearchQueryBuilder(this.repository, this.created, closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, this.state, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder closedBefore(LocalDate date) {
-		String closed = String.format("<%s", date.format(DateTimeFormatter.ISO_DATE));
+		DateRange closed = new DateRange(null, date.minusDays(1));
 		return new SearchQueryBuilder(this.repository, this.created, closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, this.state, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder closedAfter(LocalDate date) {
-		String closed = String.format(">=%s", date.format(DateTimeFormatter.ISO_DATE));
+		DateRange closed = new DateRange(date, null);
 		return new SearchQueryBuilder(this.repository, this.created, closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, this.state, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.UNKNOWN);
+	}
+
+	/**
+	 * Return a copy of this query without any creation or closing date qualifier.
+	 */
+	public SearchQueryBuilder anyDate() {
+		return new SearchQueryBuilder(this.repository, null, null, this.author, this.labels,
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, this.type);
 	}
 
 	public SearchQueryBuilder author(String author) {
 		return new SearchQueryBuilder(this.repository, this.created, this.closed, author, this.labels,
-				this.ignoringLabels, this.milestone, this.state, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder withLabel(String label) {
 		this.labels.add(label);
 		return new SearchQueryBuilder(this.repository, this.created, this.closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, this.state, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder ignoringLabel(String label) {
 		this.ignoringLabels.add(label);
 		return new SearchQueryBuilder(this.repository, this.created, this.closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, this.state, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.UNKNOWN);
+	}
+
+	/**
+	 * Only match issues tagged with at least one of the given labels, using GitHub's comma-separated OR syntax.
+	 * Labels are added to the ones given by previous calls, all of them being part of the same OR term.
+	 */
+	public SearchQueryBuilder withAnyLabel(Collection<String> labels) {
+		Set<String> anyLabels = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		anyLabels.addAll(this.anyLabels);
+		anyLabels.addAll(labels);
+		return new SearchQueryBuilder(this.repository, this.created, this.closed, this.author, this.labels,
+				this.ignoringLabels, anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.UNKNOWN);
+	}
+
+	/**
+	 * Exclude issues created by any of the given users.
+	 */
+	public SearchQueryBuilder ignoringAuthors(Collection<String> authors) {
+		Set<String> ignoringAuthors = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		ignoringAuthors.addAll(this.ignoringAuthors);
+		ignoringAuthors.addAll(authors);
+		return new SearchQueryBuilder(this.repository, this.created, this.closed, this.author, this.labels,
+				this.ignoringLabels, this.anyLabels, ignoringAuthors, this.milestone, this.state, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder notMilestoned() {
 		return new SearchQueryBuilder(this.repository, this.created, this.closed, this.author, this.labels,
-				this.ignoringLabels, Milestone.NOT_MILESTONED, this.state, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, Milestone.NOT_MILESTONED, this.state, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder isOpen() {
 		return new SearchQueryBuilder(this.repository, this.created, this.closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, State.OPEN, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, State.OPEN, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder isClosed() {
 		return new SearchQueryBuilder(this.repository, this.created, this.closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, State.CLOSED, Type.UNKNOWN);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, State.CLOSED, Type.UNKNOWN);
 	}
 
 	public SearchQueryBuilder isIssue() {
 		return new SearchQueryBuilder(this.repository, this.created, this.closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, this.state, Type.ISSUE);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.ISSUE);
 	}
 
 	public SearchQueryBuilder isPr() {
 		return new SearchQueryBuilder(this.repository, this.created, this.closed, this.author, this.labels,
-				this.ignoringLabels, this.milestone, this.state, Type.PR);
+				this.ignoringLabels, this.anyLabels, this.ignoringAuthors, this.milestone, this.state, Type.PR);
 	}
 
 	public String build() {
 		StringBuilder builder = new StringBuilder();
 		builder.append("repo:").append(this.repository).append(" ");
-		if (StringUtils.hasText(this.created)) {
+		if (this.created != null) {
 			builder.append("created:").append(this.created).append(" ");
 		}
-		if (StringUtils.hasText(this.closed)) {
+		if (this.closed != null) {
 			builder.append("closed:").append(this.closed).append(" ");
 		}
 		if (StringUtils.hasText(this.author)) {
@@ -138,6 +180,11 @@ public class SearchQueryBuilder {
 		}
 		this.labels.forEach(label -> builder.append("label:\"").append(label).append("\" "));
 		this.ignoringLabels.forEach(label -> builder.append("-label:\"").append(label).append("\" "));
+		if (!this.anyLabels.isEmpty()) {
+			builder.append("label:").append(this.anyLabels.stream().map((label) -> "\"" + label + "\"")
+					.collect(Collectors.joining(","))).append(" ");
+		}
+		this.ignoringAuthors.forEach(author -> builder.append("-author:").append(author).append(" "));
 		if (this.milestone == Milestone.NOT_MILESTONED) {
 			builder.append("no:milestone ");
 		}
@@ -160,6 +207,88 @@ public class SearchQueryBuilder {
 		return builder.toString();
 	}
 
+	public String getRepository() {
+		return this.repository;
+	}
+
+	public DateRange getCreated() {
+		return this.created;
+	}
+
+	public DateRange getClosed() {
+		return this.closed;
+	}
+
+	public String getAuthor() {
+		return this.author;
+	}
+
+	public Set<String> getLabels() {
+		return Collections.unmodifiableSet(this.labels);
+	}
+
+	public Set<String> getIgnoringLabels() {
+		return Collections.unmodifiableSet(this.ignoringLabels);
+	}
+
+	public Set<String> getAnyLabels() {
+		return Collections.unmodifiableSet(this.anyLabels);
+	}
+
+	public Set<String> getIgnoringAuthors() {
+		return Collections.unmodifiableSet(this.ignoringAuthors);
+	}
+
+	public Milestone getMilestone() {
+		return this.milestone;
+	}
+
+	public State getState() {
+		return this.state;
+	}
+
+	public Type getType() {
+		return this.type;
+	}
+
+	/**
+	 * Range of days used by date qualifiers, both bounds are inclusive and optional.
+	 */
+	public static class DateRange {
+
+		private final LocalDate start;
+
+		private final LocalDate end;
+
+		DateRange(LocalDate start, LocalDate end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		public LocalDate getStart() {
+			return this.start;
+		}
+
+		public LocalDate getEnd() {
+			return this.end;
+		}
+
+		public boolean contains(LocalDate date) {
+			return (this.start == null || !date.isBefore(this.start)) && (this.end == null || !date.isAfter(this.end));
+		}
+
+		@Override
+		public String toString() {
+			if (this.start == null) {
+				return "<" + this.end.plusDays(1).format(DateTimeFormatter.ISO_DATE);
+			}
+			if (this.end == null) {
+				return ">=" + this.start.format(DateTimeFormatter.ISO_DATE);
+			}
+			return this.start.format(DateTimeFormatter.ISO_DATE) + ".." + this.end.format(DateTimeFormatter.ISO_DATE);
+		}
+	}
+
 	public enum Milestone {
 		NOT_MILESTONED, UNKNOWN
 	}
@@ -0,0 +1,51 @@
+package io.spring.team.scorecard.graphql;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link IssueSearch} that coalesces identical search queries: concurrent subscribers
+ * to the same query share a single in-flight request, and the count is memoized
+ * for the lifetime of this instance, up to a maximum number of counts evicting the least recently used ones.
+ * Failed searches are not memoized.
+ * <p>The shared request runs with the context of its first subscriber, so an instance should only be shared
+ * by the subscribers of a single {@link RequestScheduler} queue, typically the counts of one repository.
+ */
+public class SingleFlightSearch implements IssueSearch {
+
+	private final IssueSearch delegate;
+
+	private final Map<String, Mono<Integer>> searches;
+
+	public SingleFlightSearch(IssueSearch delegate) {
+		this(delegate, Integer.MAX_VALUE);
+	}
+
+	public SingleFlightSearch(IssueSearch delegate, int maxEntries) {
+		this.delegate = delegate;
+		this.searches = Collections.synchronizedMap(new LinkedHashMap<String, Mono<Integer>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Mono<Integer>> eldest) {
+				return size() > maxEntries;
+			}
+		});
+	}
+
+	@Override
+	public Mono<Integer> searchNumberOfIssuesAndPRs(String searchQuery) {
+		return this.searches.computeIfAbsent(searchQuery, (query) -> this.delegate.searchNumberOfIssuesAndPRs(query)
+				.doOnError((ex) -> this.searches.remove(query))
+				.cache());
+	}
+
+	/**
+	 * Forget all memoized counts, so that the next searches are sent again to the delegate.
+	 */
+	public void clear() {
+		this.searches.clear();
+	}
+
+}
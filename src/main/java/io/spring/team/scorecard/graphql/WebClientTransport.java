@@ -0,0 +1,82 @@
+package io.spring.team.scorecard.graphql;
+
+import java.time.Duration;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * {@link GraphQLTransport} sending requests with {@link WebClient} on Reactor Netty, without blocking any thread.
+ * Connections are pooled, and HTTP/2 is negotiated with HTTPS endpoints so that concurrent requests
+ * are multiplexed on the same connections. Cancelling a request closes its stream or connection.
+ */
+public class WebClientTransport implements GraphQLTransport {
+
+	private static final int MAX_RESPONSE_SIZE = 16 * 1024 * 1024;
+
+	private final RequestScheduler scheduler;
+
+	private final ConnectionProvider connectionProvider;
+
+	private final WebClient webClient;
+
+	/**
+	 * Create a new transport.
+	 * @param serverUrl the URL of the GraphQL endpoint
+	 * @param token the GitHub access token
+	 * @param scheduler the scheduler to report rate limit headers to
+	 * @param maxConnections the maximum number of pooled connections
+	 * @param http2 whether HTTP/2 should be negotiated with HTTPS endpoints
+	 */
+	public WebClientTransport(String serverUrl, String token, RequestScheduler scheduler, int maxConnections,
+			boolean http2) {
+		this.scheduler = scheduler;
+		this.connectionProvider = ConnectionProvider.builder("github")
+				.maxConnections(maxConnections)
+				.pendingAcquireTimeout(Duration.ofMinutes(1))
+				.maxIdleTime(Duration.ofSeconds(30))
+				.build();
+		HttpClient httpClient = HttpClient.create(this.connectionProvider).compress(true);
+		if (http2 && serverUrl.startsWith("https:")) {
+			httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+		}
+		this.webClient = WebClient.builder()
+				.baseUrl(serverUrl)
+				.clientConnector(new ReactorClientHttpConnector(httpClient))
+				.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.codecs((codecs) -> codecs.defaultCodecs().maxInMemorySize(MAX_RESPONSE_SIZE))
+				.build();
+	}
+
+	@Override
+	public Mono<byte[]> post(byte[] body) {
+		return this.webClient.post()
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(body)
+				.exchangeToMono((response) -> {
+					HttpHeaders headers = response.headers().asHttpHeaders();
+					RateLimitExceededException throttled = this.scheduler.checkResponse(response.rawStatusCode(),
+							headers::getFirst);
+					if (throttled != null) {
+						return response.releaseBody().then(Mono.error(throttled));
+					}
+					if (response.rawStatusCode() >= 400) {
+						return response.releaseBody().then(Mono.error(new GraphQLHttpException(response.rawStatusCode(),
+								"GraphQL request failed")));
+					}
+					return response.bodyToMono(byte[].class);
+				});
+	}
+
+	public void close() {
+		this.connectionProvider.dispose();
+	}
+
+}
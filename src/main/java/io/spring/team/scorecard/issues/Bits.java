@@ -0,0 +1,97 @@
+package io.spring.team.scorecard.issues;
+
+import java.nio.LongBuffer;
+
+/**
+ * Operations on bitsets stored as words of 64 bits, either in an array or in a {@link LongBuffer}
+ * that may be memory-mapped. Words missing at the end of a buffer are considered empty.
+ */
+final class Bits {
+
+	private Bits() {
+	}
+
+	static int words(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	static void set(long[] words, int bit) {
+		words[bit >>> 6] |= 1L << bit;
+	}
+
+	static void clear(long[] words, int bit) {
+		words[bit >>> 6] &= ~(1L << bit);
+	}
+
+	static boolean get(long[] words, int bit) {
+		return (words[bit >>> 6] & (1L << bit)) != 0;
+	}
+
+	/**
+	 * Set the bits from {@code from} (inclusive) to {@code to} (exclusive).
+	 */
+	static void setRange(long[] words, int from, int to) {
+		for (int bit = from; bit < to; bit++) {
+			if ((bit & 63) == 0 && bit + 64 <= to) {
+				words[bit >>> 6] = -1L;
+				bit += 63;
+			}
+			else {
+				set(words, bit);
+			}
+		}
+	}
+
+	static void and(long[] words, LongBuffer other) {
+		int common = Math.min(words.length, other.capacity());
+		for (int i = 0; i < common; i++) {
+			words[i] &= other.get(i);
+		}
+		for (int i = common; i < words.length; i++) {
+			words[i] = 0;
+		}
+	}
+
+	static void andNot(long[] words, LongBuffer other) {
+		int common = Math.min(words.length, other.capacity());
+		for (int i = 0; i < common; i++) {
+			words[i] &= ~other.get(i);
+		}
+	}
+
+	static void or(long[] words, LongBuffer other) {
+		int common = Math.min(words.length, other.capacity());
+		for (int i = 0; i < common; i++) {
+			words[i] |= other.get(i);
+		}
+	}
+
+	static int cardinality(long[] words) {
+		int count = 0;
+		for (long word : words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Return the index of the first bit set at or after the given one, or -1 if there is none.
+	 */
+	static int nextSetBit(long[] words, int from) {
+		int index = from >>> 6;
+		if (index >= words.length) {
+			return -1;
+		}
+		long word = words[index] & (-1L << from);
+		while (true) {
+			if (word != 0) {
+				return (index << 6) + Long.numberOfTrailingZeros(word);
+			}
+			if (++index == words.length) {
+				return -1;
+			}
+			word = words[index];
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package io.spring.team.scorecard.issues;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Number of issues matching a query, grouped by author, by label group and by milestone.
+ * Each grouping is ordered by decreasing count.
+ */
+public final class Breakdown {
+
+	/**
+	 * Group of the issues whose author account has been deleted.
+	 */
+	public static final String GHOST = "ghost";
+
+	/**
+	 * Group of the issues that are not milestoned.
+	 */
+	public static final String NO_MILESTONE = "no milestone";
+
+	private final Map<String, Integer> byAuthor;
+
+	private final Map<String, Integer> byLabelGroup;
+
+	private final Map<String, Integer> byMilestone;
+
+	Breakdown(Map<String, Integer> byAuthor, Map<String, Integer> byLabelGroup, Map<String, Integer> byMilestone) {
+		this.byAuthor = sorted(byAuthor);
+		this.byLabelGroup = sorted(byLabelGroup);
+		this.byMilestone = sorted(byMilestone);
+	}
+
+	public Map<String, Integer> getByAuthor() {
+		return this.byAuthor;
+	}
+
+	/**
+	 * Return the number of issues with any of the labels of each group, an issue can be part of several groups.
+	 */
+	public Map<String, Integer> getByLabelGroup() {
+		return this.byLabelGroup;
+	}
+
+	public Map<String, Integer> getByMilestone() {
+		return this.byMilestone;
+	}
+
+	private static Map<String, Integer> sorted(Map<String, Integer> counts) {
+		Map<String, Integer> sorted = new LinkedHashMap<>();
+		counts.entrySet().stream().filter((entry) -> entry.getValue() > 0)
+				.sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+				.forEach((entry) -> sorted.put(entry.getKey(), entry.getValue()));
+		return Collections.unmodifiableMap(sorted);
+	}
+
+}
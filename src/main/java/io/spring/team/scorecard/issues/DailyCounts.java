@@ -0,0 +1,56 @@
+package io.spring.team.scorecard.issues;
+
+import java.time.LocalDate;
+
+/**
+ * Cumulative number of issues per day, for the issues matching a query regardless of their dates.
+ * The number of issues created or closed during any date range is then the difference of two lookups,
+ * whatever the length of the range.
+ */
+public final class DailyCounts {
+
+	/**
+	 * Date the issues are counted by.
+	 */
+	public enum Field {
+
+		CREATED, CLOSED
+
+	}
+
+	private final long firstDay;
+
+	/**
+	 * Number of issues before each day, starting with {@code firstDay}.
+	 */
+	private final int[] cumulative;
+
+	DailyCounts(long firstDay, int[] cumulative) {
+		this.firstDay = firstDay;
+		this.cumulative = cumulative;
+	}
+
+	/**
+	 * Count the issues with a date between the given days, inclusive.
+	 * @param start the first day, or {@code null} for no lower bound
+	 * @param end the last day, or {@code null} for no upper bound
+	 */
+	public int count(LocalDate start, LocalDate end) {
+		int before = (start != null) ? before(start.toEpochDay()) : 0;
+		int until = (end != null) ? before(end.toEpochDay() + 1) : total();
+		return Math.max(0, until - before);
+	}
+
+	public int total() {
+		return this.cumulative[this.cumulative.length - 1];
+	}
+
+	private int before(long day) {
+		long index = day - this.firstDay;
+		if (index <= 0) {
+			return 0;
+		}
+		return (index < this.cumulative.length) ? this.cumulative[(int) index] : total();
+	}
+
+}
@@ -0,0 +1,233 @@
+package io.spring.team.scorecard.issues;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Metadata of a GitHub issue or pull request, as needed for computing stats locally.
+ */
+public class Issue {
+
+	private final int number;
+
+	private final boolean pullRequest;
+
+	private final String author;
+
+	private final Instant createdAt;
+
+	private final Instant closedAt;
+
+	private final Instant updatedAt;
+
+	private final Set<String> labels;
+
+	private final String milestone;
+
+	private final List<Comment> responses;
+
+	private final boolean moreComments;
+
+	/**
+	 * Create a new issue.
+	 * @param number the issue number
+	 * @param pullRequest whether this issue is a pull request
+	 * @param author the author login, {@code null} if the account has been deleted
+	 * @param createdAt when the issue was created
+	 * @param closedAt when the issue was closed, {@code null} if it is open
+	 * @param updatedAt when the issue was last updated
+	 * @param labels the names of the labels of the issue
+	 * @param milestone the milestone title, {@code null} if the issue is not milestoned
+	 */
+	public Issue(int number, boolean pullRequest, String author, Instant createdAt, Instant closedAt,
+			Instant updatedAt, Set<String> labels, String milestone) {
+		this(number, pullRequest, author, createdAt, closedAt, updatedAt, labels, milestone, Collections.emptyList());
+	}
+
+	/**
+	 * Create a new issue.
+	 * @param number the issue number
+	 * @param pullRequest whether this issue is a pull request
+	 * @param author the author login, {@code null} if the account has been deleted
+	 * @param createdAt when the issue was created
+	 * @param closedAt when the issue was closed, {@code null} if it is open
+	 * @param updatedAt when the issue was last updated
+	 * @param labels the names of the labels of the issue
+	 * @param milestone the milestone title, {@code null} if the issue is not milestoned
+	 * @param responses the first comments from someone other than the author
+	 */
+	public Issue(int number, boolean pullRequest, String author, Instant createdAt, Instant closedAt,
+			Instant updatedAt, Set<String> labels, String milestone, List<Comment> responses) {
+		this(number, pullRequest, author, createdAt, closedAt, updatedAt, labels, milestone, responses, false);
+	}
+
+	/**
+	 * Create a new issue.
+	 * @param number the issue number
+	 * @param pullRequest whether this issue is a pull request
+	 * @param author the author login, {@code null} if the account has been deleted
+	 * @param createdAt when the issue was created
+	 * @param closedAt when the issue was closed, {@code null} if it is open
+	 * @param updatedAt when the issue was last updated
+	 * @param labels the names of the labels of the issue
+	 * @param milestone the milestone title, {@code null} if the issue is not milestoned
+	 * @param responses the first comments from someone other than the author
+	 * @param moreComments whether the issue has more comments than the ones the responses were taken from
+	 */
+	public Issue(int number, boolean pullRequest, String author, Instant createdAt, Instant closedAt,
+			Instant updatedAt, Set<String> labels, String milestone, List<Comment> responses, boolean moreComments) {
+		this.number = number;
+		this.pullRequest = pullRequest;
+		this.author = author;
+		this.createdAt = createdAt;
+		this.closedAt = closedAt;
+		this.updatedAt = updatedAt;
+		this.labels = Collections.unmodifiableSet(new LinkedHashSet<>(labels));
+		this.milestone = milestone;
+		this.responses = Collections.unmodifiableList(new ArrayList<>(responses));
+		this.moreComments = moreComments;
+	}
+
+	public int getNumber() {
+		return this.number;
+	}
+
+	public boolean isPullRequest() {
+		return this.pullRequest;
+	}
+
+	public String getAuthor() {
+		return this.author;
+	}
+
+	public Instant getCreatedAt() {
+		return this.createdAt;
+	}
+
+	public Instant getClosedAt() {
+		return this.closedAt;
+	}
+
+	public Instant getUpdatedAt() {
+		return this.updatedAt;
+	}
+
+	public Set<String> getLabels() {
+		return this.labels;
+	}
+
+	public String getMilestone() {
+		return this.milestone;
+	}
+
+	/**
+	 * Return the first comments from someone other than the author, as far as they were fetched.
+	 */
+	public List<Comment> getResponses() {
+		return this.responses;
+	}
+
+	/**
+	 * Return whether the issue has more comments than the ones its responses were taken from, in which case
+	 * a response may have been posted after them.
+	 */
+	public boolean hasMoreComments() {
+		return this.moreComments;
+	}
+
+	/**
+	 * Return when someone other than the author first commented on this issue, ignoring the comments of the given
+	 * accounts (typically bots), or {@code null} if nobody did.
+	 */
+	public Instant getFirstResponseAt(Collection<String> ignoredAuthors) {
+		return getFirstResponseAt(Collections.emptySet(), ignoredAuthors);
+	}
+
+	/**
+	 * Return when one of the given responders, other than the author, first commented on this issue,
+	 * or {@code null} if none of them did as far as comments were fetched.
+	 * @param responders the accounts whose comments are responses, typically the team members,
+	 * or an empty collection to consider the comments of everyone
+	 * @param ignoredAuthors the accounts whose comments are not responses, typically bots
+	 */
+	public Instant getFirstResponseAt(Collection<String> responders, Collection<String> ignoredAuthors) {
+		Set<String> included = logins(responders);
+		Set<String> ignored = logins(ignoredAuthors);
+		if (this.author != null) {
+			ignored.add(this.author.toLowerCase(Locale.ROOT));
+		}
+		Instant firstResponseAt = null;
+		for (Comment response : this.responses) {
+			String login = response.getAuthor().toLowerCase(Locale.ROOT);
+			if ((included.isEmpty() || included.contains(login)) && !ignored.contains(login)
+					&& (firstResponseAt == null || response.getCreatedAt().isBefore(firstResponseAt))) {
+				firstResponseAt = response.getCreatedAt();
+			}
+		}
+		return firstResponseAt;
+	}
+
+	private static Set<String> logins(Collection<String> logins) {
+		Set<String> normalized = new LinkedHashSet<>();
+		logins.forEach((login) -> normalized.add(login.toLowerCase(Locale.ROOT)));
+		return normalized;
+	}
+
+	public boolean isClosed() {
+		return this.closedAt != null;
+	}
+
+	/**
+	 * Return the day this issue was created, as used by GitHub search date qualifiers.
+	 */
+	public LocalDate getCreatedDate() {
+		return LocalDateTime.ofInstant(this.createdAt, ZoneOffset.UTC).toLocalDate();
+	}
+
+	/**
+	 * Return the day this issue was closed, as used by GitHub search date qualifiers,
+	 * or {@code null} if it is open.
+	 */
+	public LocalDate getClosedDate() {
+		return (this.closedAt != null) ? LocalDateTime.ofInstant(this.closedAt, ZoneOffset.UTC).toLocalDate() : null;
+	}
+
+	@Override
+	public String toString() {
+		return "#" + this.number;
+	}
+
+	/**
+	 * Comment on an issue, as needed for computing the time to first response.
+	 */
+	public static final class Comment {
+
+		private final String author;
+
+		private final Instant createdAt;
+
+		public Comment(String author, Instant createdAt) {
+			this.author = author;
+			this.createdAt = createdAt;
+		}
+
+		public String getAuthor() {
+			return this.author;
+		}
+
+		public Instant getCreatedAt() {
+			return this.createdAt;
+		}
+
+	}
+
+}
@@ -0,0 +1,501 @@
+package io.spring.team.scorecard.issues;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+
+/**
+ * Compact, read-only view of the issues of a repository, evaluating search queries without going through issue objects.
+ * <p>Rows are sorted by creation date and each attribute is stored in its own column: creation and closing dates
+ * as epoch days, authors and milestones as ids into a dictionary, and pull requests, closed issues, milestoned issues
+ * and each label as a bitset of rows. A query then becomes a binary search on the sorted dates followed by
+ * bitset intersections, with a row by row check only for author qualifiers.
+ * <p>Creation, closing and first response times are also kept as epoch seconds, so that the {@link Timespan}
+ * of the matching issues can be scanned in a single pass.
+ * <p>Columns are held in {@link IntBuffer} and {@link LongBuffer} instances, backed either by arrays when built
+ * from issues, or directly by a memory-mapped {@link IssueSnapshot}.
+ */
+public final class IssueColumns {
+
+	static final int OPEN = Integer.MAX_VALUE;
+
+	static final long NONE = -1L;
+
+	/**
+	 * First response time of issues with no response among their fetched comments, but more comments than that.
+	 */
+	static final long UNKNOWN = -2L;
+
+	private static final int ANY_AUTHOR = Integer.MIN_VALUE;
+
+	/**
+	 * Time elapsed between two events in the lifecycle of an issue.
+	 */
+	public enum Timespan {
+
+		/**
+		 * From the creation of an issue until it was closed.
+		 */
+		TIME_TO_CLOSE,
+
+		/**
+		 * From the creation of an issue until someone other than its author commented.
+		 */
+		TIME_TO_FIRST_RESPONSE
+
+	}
+
+	private final int size;
+
+	private final IntBuffer created;
+
+	private final IntBuffer closed;
+
+	private final IntBuffer closedOrder;
+
+	private final IntBuffer closedDays;
+
+	private final IntBuffer authors;
+
+	private final IntBuffer milestones;
+
+	private final LongBuffer createdAt;
+
+	private final LongBuffer closedAt;
+
+	private final LongBuffer firstResponseAt;
+
+	private final LongBuffer pullRequests;
+
+	private final LongBuffer closedIssues;
+
+	private final LongBuffer milestoned;
+
+	private final Map<String, LongBuffer> labels;
+
+	private final List<String> authorNames;
+
+	private final List<String> milestoneNames;
+
+	private final Map<String, Integer> authorIds;
+
+	IssueColumns(int size, IntBuffer created, IntBuffer closed, IntBuffer closedOrder, IntBuffer closedDays,
+			IntBuffer authors, IntBuffer milestones, LongBuffer createdAt, LongBuffer closedAt, LongBuffer firstResponseAt,
+			LongBuffer pullRequests, LongBuffer closedIssues, LongBuffer milestoned, Map<String, LongBuffer> labels,
+			List<String> authorNames, List<String> milestoneNames) {
+		this.size = size;
+		this.created = created;
+		this.closed = closed;
+		this.closedOrder = closedOrder;
+		this.closedDays = closedDays;
+		this.authors = authors;
+		this.milestones = milestones;
+		this.createdAt = createdAt;
+		this.closedAt = closedAt;
+		this.firstResponseAt = firstResponseAt;
+		this.pullRequests = pullRequests;
+		this.closedIssues = closedIssues;
+		this.milestoned = milestoned;
+		this.labels = labels;
+		this.authorNames = authorNames;
+		this.milestoneNames = milestoneNames;
+		this.authorIds = new HashMap<>();
+		for (int i = 0; i < authorNames.size(); i++) {
+			this.authorIds.put(authorNames.get(i), i);
+		}
+	}
+
+	/**
+	 * Build the columns of the given issues.
+	 */
+	public static IssueColumns of(Collection<Issue> issues) {
+		return of(issues, Collections.emptySet());
+	}
+
+	/**
+	 * Build the columns of the given issues, ignoring the comments of the given accounts when looking for the
+	 * first response to each issue.
+	 */
+	public static IssueColumns of(Collection<Issue> issues, Collection<String> ignoredResponders) {
+		return of(issues, Collections.emptySet(), ignoredResponders);
+	}
+
+	/**
+	 * Build the columns of the given issues, only considering the comments of the given responders when looking
+	 * for the first response to each issue.
+	 * @param responders the accounts whose comments are responses, or an empty collection for everyone
+	 * @param ignoredResponders the accounts whose comments are not responses
+	 */
+	public static IssueColumns of(Collection<Issue> issues, Collection<String> responders,
+			Collection<String> ignoredResponders) {
+		List<Issue> sorted = new ArrayList<>(issues);
+		sorted.sort(Comparator.comparing(Issue::getCreatedAt));
+		int size = sorted.size();
+		int words = Bits.words(size);
+		int[] created = new int[size];
+		int[] closed = new int[size];
+		int[] authors = new int[size];
+		int[] milestones = new int[size];
+		long[] createdAt = new long[size];
+		long[] closedAt = new long[size];
+		long[] firstResponseAt = new long[size];
+		long[] pullRequests = new long[words];
+		long[] closedIssues = new long[words];
+		long[] milestoned = new long[words];
+		Map<String, long[]> labels = new LinkedHashMap<>();
+		Map<String, Integer> authorIds = new LinkedHashMap<>();
+		Map<String, Integer> milestoneIds = new LinkedHashMap<>();
+		for (int row = 0; row < size; row++) {
+			Issue issue = sorted.get(row);
+			created[row] = (int) issue.getCreatedDate().toEpochDay();
+			closed[row] = issue.isClosed() ? (int) issue.getClosedDate().toEpochDay() : OPEN;
+			createdAt[row] = issue.getCreatedAt().getEpochSecond();
+			closedAt[row] = issue.isClosed() ? issue.getClosedAt().getEpochSecond() : NONE;
+			Instant firstResponse = issue.getFirstResponseAt(responders, ignoredResponders);
+			firstResponseAt[row] = (firstResponse != null) ? firstResponse.getEpochSecond()
+					: issue.hasMoreComments() ? UNKNOWN : NONE;
+			authors[row] = (issue.getAuthor() != null)
+					? authorIds.computeIfAbsent(key(issue.getAuthor()), (author) -> authorIds.size()) : -1;
+			milestones[row] = (issue.getMilestone() != null)
+					? milestoneIds.computeIfAbsent(issue.getMilestone(), (milestone) -> milestoneIds.size()) : -1;
+			if (issue.getMilestone() != null) {
+				Bits.set(milestoned, row);
+			}
+			if (issue.isPullRequest()) {
+				Bits.set(pullRequests, row);
+			}
+			if (issue.isClosed()) {
+				Bits.set(closedIssues, row);
+			}
+			for (String label : issue.getLabels()) {
+				Bits.set(labels.computeIfAbsent(key(label), (name) -> new long[words]), row);
+			}
+		}
+		int[] closedOrder = IntStream.range(0, size).filter((row) -> closed[row] != OPEN).boxed()
+				.sorted(Comparator.comparingInt((row) -> closed[row]))
+				.mapToInt(Integer::intValue).toArray();
+		int[] closedDays = new int[closedOrder.length];
+		for (int i = 0; i < closedOrder.length; i++) {
+			closedDays[i] = closed[closedOrder[i]];
+		}
+		Map<String, LongBuffer> labelColumns = new LinkedHashMap<>();
+		labels.forEach((label, bits) -> labelColumns.put(label, LongBuffer.wrap(bits)));
+		return new IssueColumns(size, IntBuffer.wrap(created), IntBuffer.wrap(closed), IntBuffer.wrap(closedOrder),
+				IntBuffer.wrap(closedDays), IntBuffer.wrap(authors), IntBuffer.wrap(milestones),
+				LongBuffer.wrap(createdAt), LongBuffer.wrap(closedAt), LongBuffer.wrap(firstResponseAt),
+				LongBuffer.wrap(pullRequests), LongBuffer.wrap(closedIssues), LongBuffer.wrap(milestoned),
+				labelColumns, new ArrayList<>(authorIds.keySet()), new ArrayList<>(milestoneIds.keySet()));
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Count the issues matching the given query, the same way GitHub search would.
+	 */
+	public int count(SearchQueryBuilder query) {
+		return Bits.cardinality(matching(query));
+	}
+
+	/**
+	 * Pass the given timespan of each issue matching the given query to the consumer, in seconds.
+	 * Issues for which the timespan has not ended yet, like open issues for {@link Timespan#TIME_TO_CLOSE},
+	 * are skipped, as well as issues whose first response is unknown because it wasn't among their fetched comments.
+	 */
+	public void forEachTimespan(SearchQueryBuilder query, Timespan timespan, LongConsumer consumer) {
+		LongBuffer ends = (timespan == Timespan.TIME_TO_CLOSE) ? this.closedAt : this.firstResponseAt;
+		long[] rows = matching(query);
+		for (int row = Bits.nextSetBit(rows, 0); row >= 0; row = Bits.nextSetBit(rows, row + 1)) {
+			long end = ends.get(row);
+			if (end != NONE && end != UNKNOWN) {
+				consumer.accept(Math.max(0, end - this.createdAt.get(row)));
+			}
+		}
+	}
+
+	/**
+	 * Count the issues matching the given query by author, by label group and by milestone,
+	 * evaluating the query once and aggregating the matching rows in a single pass.
+	 * @param anyAuthor the authors to restrict the issues to, {@code null} to keep all of them
+	 * @param labelGroups the labels of each group, keyed by the name of the group
+	 */
+	public Breakdown breakdown(SearchQueryBuilder query, Collection<String> anyAuthor,
+			Map<String, ? extends Collection<String>> labelGroups) {
+		long[] rows = matching(query);
+		long[] authorIds = null;
+		if (anyAuthor != null) {
+			authorIds = new long[Bits.words(this.authorNames.size())];
+			for (String author : anyAuthor) {
+				Integer id = this.authorIds.get(key(author));
+				if (id != null) {
+					Bits.set(authorIds, id);
+				}
+			}
+		}
+		int[] authorCounts = new int[this.authorNames.size() + 1];
+		int[] milestoneCounts = new int[this.milestoneNames.size() + 1];
+		for (int row = Bits.nextSetBit(rows, 0); row >= 0; row = Bits.nextSetBit(rows, row + 1)) {
+			int author = this.authors.get(row);
+			if (authorIds != null && (author < 0 || !Bits.get(authorIds, author))) {
+				Bits.clear(rows, row);
+				continue;
+			}
+			authorCounts[this.authors.get(row) + 1]++;
+			milestoneCounts[this.milestones.get(row) + 1]++;
+		}
+		Map<String, Integer> byAuthor = new HashMap<>();
+		for (int i = 0; i < authorCounts.length; i++) {
+			byAuthor.put((i > 0) ? this.authorNames.get(i - 1) : Breakdown.GHOST, authorCounts[i]);
+		}
+		Map<String, Integer> byMilestone = new HashMap<>();
+		for (int i = 0; i < milestoneCounts.length; i++) {
+			byMilestone.put((i > 0) ? this.milestoneNames.get(i - 1) : Breakdown.NO_MILESTONE, milestoneCounts[i]);
+		}
+		Map<String, Integer> byLabelGroup = new HashMap<>();
+		labelGroups.forEach((group, labels) -> {
+			long[] groupRows = new long[rows.length];
+			labels.forEach((label) -> Bits.or(groupRows, label(label)));
+			Bits.and(groupRows, LongBuffer.wrap(rows));
+			byLabelGroup.put(group, Bits.cardinality(groupRows));
+		});
+		return new Breakdown(byAuthor, byLabelGroup, byMilestone);
+	}
+
+	/**
+	 * Build the cumulative daily counts of the issues matching the given query, ignoring its date qualifiers.
+	 * Rows are visited once, so this costs about as much as a single {@link #count}.
+	 */
+	public DailyCounts dailyCounts(SearchQueryBuilder query, DailyCounts.Field field) {
+		IntBuffer days = (field == DailyCounts.Field.CREATED) ? this.created : this.closed;
+		long[] rows = matching(query, false);
+		int first = OPEN;
+		int last = Integer.MIN_VALUE;
+		for (int row = Bits.nextSetBit(rows, 0); row >= 0; row = Bits.nextSetBit(rows, row + 1)) {
+			int day = days.get(row);
+			if (day != OPEN) {
+				first = Math.min(first, day);
+				last = Math.max(last, day);
+			}
+		}
+		if (first == OPEN) {
+			return new DailyCounts(0, new int[1]);
+		}
+		int[] cumulative = new int[last - first + 2];
+		for (int row = Bits.nextSetBit(rows, 0); row >= 0; row = Bits.nextSetBit(rows, row + 1)) {
+			int day = days.get(row);
+			if (day != OPEN) {
+				cumulative[day - first + 1]++;
+			}
+		}
+		for (int i = 1; i < cumulative.length; i++) {
+			cumulative[i] += cumulative[i - 1];
+		}
+		return new DailyCounts(first, cumulative);
+	}
+
+	private long[] matching(SearchQueryBuilder query) {
+		return matching(query, true);
+	}
+
+	/**
+	 * Return the bitset of the rows matching the given query, optionally ignoring its date qualifiers.
+	 */
+	private long[] matching(SearchQueryBuilder query, boolean dates) {
+		long[] rows = new long[Bits.words(this.size)];
+		if (dates && query.getCreated() != null) {
+			Bits.setRange(rows, lowerBound(this.created, query.getCreated().getStart()),
+					upperBound(this.created, query.getCreated().getEnd()));
+		}
+		else {
+			Bits.setRange(rows, 0, this.size);
+		}
+		if (dates && query.getClosed() != null) {
+			int from = lowerBound(this.closedDays, query.getClosed().getStart());
+			int to = upperBound(this.closedDays, query.getClosed().getEnd());
+			long[] closedRows = new long[rows.length];
+			for (int i = from; i < to; i++) {
+				Bits.set(closedRows, this.closedOrder.get(i));
+			}
+			Bits.and(rows, LongBuffer.wrap(closedRows));
+		}
+		for (String label : query.getLabels()) {
+			Bits.and(rows, label(label));
+		}
+		if (!query.getAnyLabels().isEmpty()) {
+			long[] anyLabel = new long[rows.length];
+			query.getAnyLabels().forEach((label) -> Bits.or(anyLabel, label(label)));
+			Bits.and(rows, LongBuffer.wrap(anyLabel));
+		}
+		for (String label : query.getIgnoringLabels()) {
+			Bits.andNot(rows, label(label));
+		}
+		if (query.getMilestone() == SearchQueryBuilder.Milestone.NOT_MILESTONED) {
+			Bits.andNot(rows, this.milestoned);
+		}
+		switch (query.getState()) {
+			case OPEN:
+				Bits.andNot(rows, this.closedIssues);
+				break;
+			case CLOSED:
+				Bits.and(rows, this.closedIssues);
+				break;
+		}
+		switch (query.getType()) {
+			case ISSUE:
+				Bits.andNot(rows, this.pullRequests);
+				break;
+			case PR:
+				Bits.and(rows, this.pullRequests);
+				break;
+		}
+		if (query.getAuthor() == null && query.getIgnoringAuthors().isEmpty()) {
+			return rows;
+		}
+		// GitHub attributes the issues of deleted accounts to the "ghost" user, which has id -1 here
+		int author = (query.getAuthor() != null) ? authorId(query.getAuthor()) : ANY_AUTHOR;
+		long[] ignoredAuthors = new long[Bits.words(this.authorNames.size())];
+		boolean ignoringGhost = false;
+		for (String login : query.getIgnoringAuthors()) {
+			int id = authorId(login);
+			if (id >= 0) {
+				Bits.set(ignoredAuthors, id);
+			}
+			ignoringGhost = ignoringGhost || id == -1;
+		}
+		for (int row = Bits.nextSetBit(rows, 0); row >= 0; row = Bits.nextSetBit(rows, row + 1)) {
+			int rowAuthor = this.authors.get(row);
+			boolean ignored = (rowAuthor >= 0) ? Bits.get(ignoredAuthors, rowAuthor) : ignoringGhost;
+			if ((author != ANY_AUTHOR && rowAuthor != author) || ignored) {
+				Bits.clear(rows, row);
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Return the id of the given author, -1 for the "ghost" user standing for deleted accounts,
+	 * or -2 if no issue was created by that author.
+	 */
+	private int authorId(String login) {
+		String key = key(login);
+		return Breakdown.GHOST.equals(key) ? -1 : this.authorIds.getOrDefault(key, -2);
+	}
+
+	private LongBuffer label(String label) {
+		LongBuffer rows = this.labels.get(key(label));
+		return (rows != null) ? rows : LongBuffer.allocate(0);
+	}
+
+	int getClosedCount() {
+		return this.closedOrder.capacity();
+	}
+
+	IntBuffer getCreated() {
+		return this.created.duplicate();
+	}
+
+	IntBuffer getClosed() {
+		return this.closed.duplicate();
+	}
+
+	IntBuffer getClosedOrder() {
+		return this.closedOrder.duplicate();
+	}
+
+	IntBuffer getClosedDays() {
+		return this.closedDays.duplicate();
+	}
+
+	IntBuffer getAuthors() {
+		return this.authors.duplicate();
+	}
+
+	IntBuffer getMilestones() {
+		return this.milestones.duplicate();
+	}
+
+	LongBuffer getCreatedAt() {
+		return this.createdAt.duplicate();
+	}
+
+	LongBuffer getClosedAt() {
+		return this.closedAt.duplicate();
+	}
+
+	LongBuffer getFirstResponseAt() {
+		return this.firstResponseAt.duplicate();
+	}
+
+	LongBuffer getPullRequests() {
+		return this.pullRequests.duplicate();
+	}
+
+	LongBuffer getClosedIssues() {
+		return this.closedIssues.duplicate();
+	}
+
+	LongBuffer getMilestoned() {
+		return this.milestoned.duplicate();
+	}
+
+	Map<String, LongBuffer> getLabels() {
+		return Collections.unmodifiableMap(this.labels);
+	}
+
+	List<String> getAuthorNames() {
+		return Collections.unmodifiableList(this.authorNames);
+	}
+
+	List<String> getMilestoneNames() {
+		return Collections.unmodifiableList(this.milestoneNames);
+	}
+
+	/**
+	 * Return the index of the first of the given sorted days that is at or after the given date.
+	 */
+	private static int lowerBound(IntBuffer days, LocalDate start) {
+		return (start != null) ? search(days, (int) start.toEpochDay()) : 0;
+	}
+
+	/**
+	 * Return the index of the first of the given sorted days that is after the given date.
+	 */
+	private static int upperBound(IntBuffer days, LocalDate end) {
+		return (end != null) ? search(days, (int) end.toEpochDay() + 1) : days.capacity();
+	}
+
+	private static int search(IntBuffer days, int day) {
+		int low = 0;
+		int high = days.capacity();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (days.get(middle) < day) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private static String key(String value) {
+		return value.toLowerCase(Locale.ROOT);
+	}
+
+}
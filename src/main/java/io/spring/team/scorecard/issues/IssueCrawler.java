@@ -0,0 +1,92 @@
+package io.spring.team.scorecard.issues;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.spring.team.scorecard.graphql.GraphQLClient;
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+
+/**
+ * Fetches all the issues and pull requests of a repository with searches running in parallel.
+ * GitHub only returns the first 1000 results of a search, so the lifetime of the repository is split
+ * in creation date windows, and windows matching more issues than that are split again until they fit.
+ * Each window is then fetched independently. Splitting and fetching happen one after the other, both limited
+ * to the same number of concurrent searches. A single day matching more issues or more pull requests than
+ * a search can return fails the crawl with a {@link TruncatedSearchException}, rather than leaving a gap.
+ */
+public class IssueCrawler {
+
+	/**
+	 * Maximum number of results returned by a GitHub search.
+	 */
+	public static final int MAX_SEARCH_RESULTS = 1000;
+
+	private static final LocalDate GITHUB_LAUNCH = LocalDate.of(2008, 1, 1);
+
+	private static final Log logger = LogFactory.getLog(IssueCrawler.class);
+
+	private final GraphQLClient client;
+
+	private final int concurrency;
+
+	private final Clock clock;
+
+	public IssueCrawler(GraphQLClient client, int concurrency) {
+		this(client, concurrency, Clock.systemUTC());
+	}
+
+	public IssueCrawler(GraphQLClient client, int concurrency, Clock clock) {
+		this.client = client;
+		this.concurrency = concurrency;
+		this.clock = clock;
+	}
+
+	public Flux<Issue> crawl(String org, String repo) {
+		LocalDate today = LocalDate.now(this.clock);
+		List<SearchQueryBuilder> windows = new ArrayList<>();
+		for (LocalDate start = GITHUB_LAUNCH; !start.isAfter(today); start = start.plusYears(1)) {
+			LocalDate end = start.plusYears(1).minusDays(1);
+			windows.add(SearchQueryBuilder.create(org, repo).createdBetween(start, end.isAfter(today) ? today : end));
+		}
+		return Flux.fromIterable(windows)
+				.flatMap(this::shards, this.concurrency)
+				.collectList()
+				.flatMapMany((shards) -> Flux.fromIterable(shards)
+						.flatMap((shard) -> this.client.searchIssuesAndPRs(shard.build()), this.concurrency));
+	}
+
+	/**
+	 * Split the given window until each part matches at most {@link #MAX_SEARCH_RESULTS} issues.
+	 * Parts are counted one after the other, so that each window sends a single search at a time.
+	 */
+	private Flux<SearchQueryBuilder> shards(SearchQueryBuilder window) {
+		return this.client.searchNumberOfIssuesAndPRs(window.build()).flatMapMany((count) -> {
+			if (count == 0) {
+				return Flux.empty();
+			}
+			if (count <= MAX_SEARCH_RESULTS) {
+				logger.debug("shard of " + count + " issues: " + window.build());
+				return Flux.just(window);
+			}
+			LocalDate start = window.getCreated().getStart();
+			LocalDate end = window.getCreated().getEnd();
+			long days = ChronoUnit.DAYS.between(start, end);
+			if (days > 0) {
+				LocalDate middle = start.plusDays(days / 2);
+				return Flux.concat(shards(window.createdBetween(start, middle)),
+						shards(window.createdBetween(middle.plusDays(1), end)));
+			}
+			if (window.getType() == SearchQueryBuilder.Type.UNKNOWN) {
+				return Flux.concat(shards(window.isIssue()), shards(window.isPr()));
+			}
+			return Flux.error(new TruncatedSearchException(window.build(), count));
+		});
+	}
+
+}
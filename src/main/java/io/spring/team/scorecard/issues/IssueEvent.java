@@ -0,0 +1,129 @@
+package io.spring.team.scorecard.issues;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Change to an issue or pull request notified by a GitHub {@code issues} or {@code pull_request} webhook event.
+ * The payload of these events carries the whole issue as it is after the change, so applying an event
+ * replaces the issue rather than patching it, and applying it again has no effect.
+ */
+public final class IssueEvent {
+
+	/**
+	 * Actions of the events changing what the scorecard counts, other events are ignored.
+	 */
+	public static final Set<String> ACTIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("opened",
+			"closed", "reopened", "labeled", "unlabeled", "milestoned", "demilestoned", "deleted", "transferred")));
+
+	/**
+	 * Actions after which the issue no longer belongs to the repository.
+	 */
+	private static final Set<String> REMOVALS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("deleted",
+			"transferred")));
+
+	private final String deliveryId;
+
+	private final String org;
+
+	private final String repo;
+
+	private final String action;
+
+	private final Issue issue;
+
+	IssueEvent(String deliveryId, String org, String repo, String action, Issue issue) {
+		this.deliveryId = deliveryId;
+		this.org = org;
+		this.repo = repo;
+		this.action = action;
+		this.issue = issue;
+	}
+
+	/**
+	 * Read an event from a webhook delivery.
+	 * @param deliveryId the unique ID of the delivery, from the {@code X-GitHub-Delivery} header
+	 * @param eventType the type of the event, from the {@code X-GitHub-Event} header
+	 * @param payload the JSON payload of the delivery
+	 * @return the event, or {@code null} if the delivery isn't about an issue change that is counted
+	 */
+	public static IssueEvent from(String deliveryId, String eventType, JsonNode payload) {
+		String action = payload.path("action").asText();
+		if (!ACTIONS.contains(action)) {
+			return null;
+		}
+		JsonNode node;
+		if ("issues".equals(eventType)) {
+			node = payload.path("issue");
+		}
+		else if ("pull_request".equals(eventType)) {
+			node = payload.path("pull_request");
+		}
+		else {
+			return null;
+		}
+		JsonNode repository = payload.path("repository");
+		if (node.isMissingNode() || repository.isMissingNode()) {
+			return null;
+		}
+		boolean pullRequest = "pull_request".equals(eventType) || node.has("pull_request");
+		return new IssueEvent(deliveryId, repository.path("owner").path("login").asText(),
+				repository.path("name").asText(), action, readIssue(node, pullRequest));
+	}
+
+	private static Issue readIssue(JsonNode node, boolean pullRequest) {
+		String author = node.path("user").path("login").asText(null);
+		Set<String> labels = new LinkedHashSet<>();
+		node.path("labels").forEach((label) -> labels.add(label.path("name").asText()));
+		return new Issue(node.path("number").asInt(), pullRequest, Breakdown.GHOST.equals(author) ? null : author,
+				instant(node.path("created_at")), instant(node.path("closed_at")), instant(node.path("updated_at")),
+				labels, node.path("milestone").path("title").asText(null));
+	}
+
+	private static Instant instant(JsonNode node) {
+		return node.isTextual() ? Instant.parse(node.asText()) : null;
+	}
+
+	public String getDeliveryId() {
+		return this.deliveryId;
+	}
+
+	public String getOrg() {
+		return this.org;
+	}
+
+	public String getRepo() {
+		return this.repo;
+	}
+
+	public String getAction() {
+		return this.action;
+	}
+
+	/**
+	 * Return whether the issue was deleted or transferred to another repository, and should no longer be counted.
+	 */
+	public boolean isRemoval() {
+		return REMOVALS.contains(this.action);
+	}
+
+	/**
+	 * Return the issue as it is after the change. Payloads don't list comments, so the responses to the issue
+	 * are unknown and should be kept from the previous version of the issue.
+	 */
+	public Issue getIssue() {
+		return this.issue;
+	}
+
+	@Override
+	public String toString() {
+		return this.org + "/" + this.repo + this.issue + " " + this.action;
+	}
+
+}
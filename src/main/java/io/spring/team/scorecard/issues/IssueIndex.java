@@ -0,0 +1,85 @@
+package io.spring.team.scorecard.issues;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of the issues and pull requests of a repository, keyed by number.
+ */
+public class IssueIndex {
+
+	private final Map<Integer, Issue> issues = new LinkedHashMap<>();
+
+	private Instant lastUpdatedAt;
+
+	private Instant reconciledAt;
+
+	/**
+	 * Add an issue to the index, replacing any previous version of the same issue
+	 * unless that version is more recent.
+	 */
+	public synchronized void add(Issue issue) {
+		Issue previous = this.issues.get(issue.getNumber());
+		if (previous != null && previous.getUpdatedAt().isAfter(issue.getUpdatedAt())) {
+			return;
+		}
+		this.issues.put(issue.getNumber(), issue);
+		if (this.lastUpdatedAt == null || issue.getUpdatedAt().isAfter(this.lastUpdatedAt)) {
+			this.lastUpdatedAt = issue.getUpdatedAt();
+		}
+	}
+
+	/**
+	 * Remove an issue from the index, keeping the high-water mark as is.
+	 * @return whether the issue was indexed
+	 */
+	public synchronized boolean remove(int number) {
+		return this.issues.remove(number) != null;
+	}
+
+	/**
+	 * Return the high-water mark of the update dates of indexed issues, {@code null} if the index is empty.
+	 */
+	public synchronized Instant getLastUpdatedAt() {
+		return this.lastUpdatedAt;
+	}
+
+	/**
+	 * Return when the indexed issues were last checked against all the issues of the repository,
+	 * {@code null} if they never were.
+	 */
+	public synchronized Instant getReconciledAt() {
+		return this.reconciledAt;
+	}
+
+	public synchronized void setReconciledAt(Instant reconciledAt) {
+		this.reconciledAt = reconciledAt;
+	}
+
+	public synchronized Issue get(int number) {
+		return this.issues.get(number);
+	}
+
+	public synchronized List<Issue> getIssues() {
+		return new ArrayList<>(this.issues.values());
+	}
+
+	public synchronized int size() {
+		return this.issues.size();
+	}
+
+	public synchronized int count(Predicate<Issue> predicate) {
+		int count = 0;
+		for (Issue issue : this.issues.values()) {
+			if (predicate.test(issue)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,225 @@
+package io.spring.team.scorecard.issues;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot of the {@link IssueColumns} of a repository, opened with a memory mapping
+ * so that columns are read straight from the file instead of being deserialized on the heap.
+ * <p>The file starts with a fixed header, followed by the bitset columns (pull requests, closed issues,
+ * milestoned issues, then one per label), the creation, closing and first response times in epoch seconds,
+ * the int columns (created, closed, authors, milestones,
+ * closed order and closed days), and finally the label, author and milestone dictionaries.
+ * All values are little-endian, and bitset columns are aligned on 8 bytes.
+ */
+public final class IssueSnapshot {
+
+	private static final int MAGIC = 0x53434958;
+
+	private static final int VERSION = 3;
+
+	private static final int HEADER_SIZE = 40;
+
+	private final IssueColumns columns;
+
+	private final Instant syncedAt;
+
+	private IssueSnapshot(IssueColumns columns, Instant syncedAt) {
+		this.columns = columns;
+		this.syncedAt = syncedAt;
+	}
+
+	public IssueColumns getColumns() {
+		return this.columns;
+	}
+
+	/**
+	 * Return when the issues of this snapshot were last synchronized with GitHub.
+	 */
+	public Instant getSyncedAt() {
+		return this.syncedAt;
+	}
+
+	/**
+	 * Write the given columns to the given file, replacing any previous snapshot atomically.
+	 */
+	public static void write(IssueColumns columns, Instant syncedAt, Path file) throws IOException {
+		int size = columns.size();
+		int words = Bits.words(size);
+		int closedCount = columns.getClosedCount();
+		List<String> labels = new ArrayList<>(columns.getLabels().keySet());
+		List<byte[]> strings = new ArrayList<>();
+		labels.forEach((label) -> strings.add(label.getBytes(StandardCharsets.UTF_8)));
+		columns.getAuthorNames().forEach((author) -> strings.add(author.getBytes(StandardCharsets.UTF_8)));
+		columns.getMilestoneNames().forEach((milestone) -> strings.add(milestone.getBytes(StandardCharsets.UTF_8)));
+		long length = columnsLength(size, closedCount, labels.size());
+		for (byte[] string : strings) {
+			length += 4 + string.length;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(length)).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(VERSION).putLong(syncedAt.toEpochMilli()).putInt(size).putInt(closedCount)
+				.putInt(labels.size()).putInt(columns.getAuthorNames().size())
+				.putInt(columns.getMilestoneNames().size()).putInt(0);
+		putLongs(buffer, columns.getPullRequests(), words);
+		putLongs(buffer, columns.getClosedIssues(), words);
+		putLongs(buffer, columns.getMilestoned(), words);
+		for (String label : labels) {
+			putLongs(buffer, columns.getLabels().get(label), words);
+		}
+		putLongs(buffer, columns.getCreatedAt(), size);
+		putLongs(buffer, columns.getClosedAt(), size);
+		putLongs(buffer, columns.getFirstResponseAt(), size);
+		putInts(buffer, columns.getCreated());
+		putInts(buffer, columns.getClosed());
+		putInts(buffer, columns.getAuthors());
+		putInts(buffer, columns.getMilestones());
+		putInts(buffer, columns.getClosedOrder());
+		putInts(buffer, columns.getClosedDays());
+		for (byte[] string : strings) {
+			buffer.putInt(string.length).put(string);
+		}
+		buffer.flip();
+		Path directory = file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Open the snapshot stored in the given file.
+	 * @throws IOException if the file cannot be read, was written in a different format version or is truncated
+	 */
+	public static IssueSnapshot open(Path file) throws IOException {
+		MappedByteBuffer mapped;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+			throw new IOException("Not an issue snapshot: " + file);
+		}
+		int version = buffer.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported issue snapshot version " + version + ": " + file);
+		}
+		Instant syncedAt = Instant.ofEpochMilli(buffer.getLong());
+		int size = buffer.getInt();
+		int closedCount = buffer.getInt();
+		int labelCount = buffer.getInt();
+		int authorCount = buffer.getInt();
+		int milestoneCount = buffer.getInt();
+		buffer.getInt();
+		if (size < 0 || closedCount < 0 || closedCount > size || labelCount < 0 || authorCount < 0
+				|| milestoneCount < 0 || columnsLength(size, closedCount, labelCount)
+						+ 4L * (labelCount + authorCount + milestoneCount) > buffer.capacity()) {
+			throw new IOException("Corrupted issue snapshot, its header doesn't match its size: " + file);
+		}
+		int words = Bits.words(size);
+		LongBuffer pullRequests = longs(buffer, words);
+		LongBuffer closedIssues = longs(buffer, words);
+		LongBuffer milestoned = longs(buffer, words);
+		List<LongBuffer> labelColumns = new ArrayList<>();
+		for (int i = 0; i < labelCount; i++) {
+			labelColumns.add(longs(buffer, words));
+		}
+		LongBuffer createdAt = longs(buffer, size);
+		LongBuffer closedAt = longs(buffer, size);
+		LongBuffer firstResponseAt = longs(buffer, size);
+		IntBuffer created = ints(buffer, size);
+		IntBuffer closed = ints(buffer, size);
+		IntBuffer authors = ints(buffer, size);
+		IntBuffer milestones = ints(buffer, size);
+		IntBuffer closedOrder = ints(buffer, closedCount);
+		IntBuffer closedDays = ints(buffer, closedCount);
+		Map<String, LongBuffer> labels = new LinkedHashMap<>();
+		for (LongBuffer labelColumn : labelColumns) {
+			labels.put(string(buffer, file), labelColumn);
+		}
+		List<String> authorNames = strings(buffer, authorCount, file);
+		List<String> milestoneNames = strings(buffer, milestoneCount, file);
+		if (buffer.hasRemaining()) {
+			throw new IOException("Corrupted issue snapshot, unexpected trailing bytes: " + file);
+		}
+		IssueColumns columns = new IssueColumns(size, created, closed, closedOrder, closedDays, authors, milestones,
+				createdAt, closedAt, firstResponseAt, pullRequests, closedIssues, milestoned, labels, authorNames, milestoneNames);
+		return new IssueSnapshot(columns, syncedAt);
+	}
+
+	/**
+	 * Return the length of a snapshot of the given size, without its strings.
+	 */
+	private static long columnsLength(int size, int closedCount, int labelCount) {
+		int words = Bits.words(size);
+		return HEADER_SIZE + 8L * words * (3 + labelCount) + 8L * 3 * size + 4L * (4L * size + 2L * closedCount);
+	}
+
+	private static void putLongs(ByteBuffer buffer, LongBuffer values, int words) {
+		for (int i = 0; i < words; i++) {
+			buffer.putLong((i < values.capacity()) ? values.get(i) : 0);
+		}
+	}
+
+	private static void putInts(ByteBuffer buffer, IntBuffer values) {
+		for (int i = 0; i < values.capacity(); i++) {
+			buffer.putInt(values.get(i));
+		}
+	}
+
+	private static LongBuffer longs(ByteBuffer buffer, int count) {
+		LongBuffer values = slice(buffer, 8 * count).asLongBuffer();
+		buffer.position(buffer.position() + 8 * count);
+		return values;
+	}
+
+	private static IntBuffer ints(ByteBuffer buffer, int count) {
+		IntBuffer values = slice(buffer, 4 * count).asIntBuffer();
+		buffer.position(buffer.position() + 4 * count);
+		return values;
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, int length) {
+		ByteBuffer slice = buffer.slice();
+		slice.limit(length);
+		return slice.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static List<String> strings(ByteBuffer buffer, int count, Path file) throws IOException {
+		List<String> strings = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			strings.add(string(buffer, file));
+		}
+		return strings;
+	}
+
+	private static String string(ByteBuffer buffer, Path file) throws IOException {
+		int length = (buffer.remaining() >= 4) ? buffer.getInt() : -1;
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IOException("Corrupted issue snapshot, a string overflows the file: " + file);
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
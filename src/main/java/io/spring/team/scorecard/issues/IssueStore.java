@@ -0,0 +1,149 @@
+package io.spring.team.scorecard.issues;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Local file storage for the {@link IssueIndex} of a repository, along with an {@link IssueSnapshot} of its columns.
+ */
+public class IssueStore {
+
+	private static final Log logger = LogFactory.getLog(IssueStore.class);
+
+	/**
+	 * Version of the stored issues format, stored issues of another version are fetched again.
+	 */
+	private static final int VERSION = 2;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Path directory;
+
+	public IssueStore(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Load the stored issues of the given repository, or return an empty index if none are stored yet
+	 * or if they were stored in another format.
+	 */
+	public IssueIndex load(String org, String repo) throws IOException {
+		IssueIndex index = new IssueIndex();
+		Path file = file(org, repo);
+		if (Files.isReadable(file)) {
+			JsonNode content = this.objectMapper.readTree(file.toFile());
+			if (content.path("version").asInt(1) != VERSION) {
+				logger.info("Ignoring issues of " + org + "/" + repo
+						+ " stored in an older format, fetching all of them again");
+				return index;
+			}
+			for (JsonNode node : content.path("issues")) {
+				index.add(readIssue(node));
+			}
+			if (content.hasNonNull("reconciledAt")) {
+				index.setReconciledAt(Instant.parse(content.get("reconciledAt").asText()));
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Store the issues of the given repository, replacing the previous file atomically.
+	 */
+	public void save(String org, String repo, IssueIndex index) throws IOException {
+		ObjectNode content = this.objectMapper.createObjectNode();
+		content.put("version", VERSION);
+		if (index.getLastUpdatedAt() != null) {
+			content.put("lastUpdatedAt", index.getLastUpdatedAt().toString());
+		}
+		if (index.getReconciledAt() != null) {
+			content.put("reconciledAt", index.getReconciledAt().toString());
+		}
+		ArrayNode issues = content.putArray("issues");
+		index.getIssues().forEach((issue) -> writeIssue(issues.addObject(), issue));
+		Path file = file(org, repo);
+		Files.createDirectories(file.getParent());
+		Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+		this.objectMapper.writeValue(temp.toFile(), content);
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Open the stored snapshot of the given repository, or return {@code null} if there is none
+	 * or if it can't be read.
+	 */
+	public IssueSnapshot openSnapshot(String org, String repo) {
+		Path file = snapshotFile(org, repo);
+		if (!Files.isReadable(file)) {
+			return null;
+		}
+		try {
+			return IssueSnapshot.open(file);
+		}
+		catch (IOException | RuntimeException ex) {
+			logger.warn("Ignoring unreadable issue snapshot " + file + ": " + ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Store a snapshot of the given columns, replacing the previous one atomically.
+	 */
+	public void saveSnapshot(String org, String repo, IssueColumns columns, Instant syncedAt) throws IOException {
+		IssueSnapshot.write(columns, syncedAt, snapshotFile(org, repo));
+	}
+
+	private Path file(String org, String repo) {
+		return this.directory.resolve(org).resolve(repo + ".json");
+	}
+
+	private Path snapshotFile(String org, String repo) {
+		return this.directory.resolve(org).resolve(repo + ".columns");
+	}
+
+	private static Issue readIssue(JsonNode node) {
+		Set<String> labels = new LinkedHashSet<>();
+		node.path("labels").forEach((label) -> labels.add(label.asText()));
+		List<Issue.Comment> responses = new ArrayList<>();
+		node.path("responses").forEach((response) -> responses.add(new Issue.Comment(response.get("author").asText(),
+				Instant.parse(response.get("createdAt").asText()))));
+		return new Issue(node.get("number").asInt(), node.path("pullRequest").asBoolean(),
+				node.hasNonNull("author") ? node.get("author").asText() : null,
+				Instant.parse(node.get("createdAt").asText()),
+				node.hasNonNull("closedAt") ? Instant.parse(node.get("closedAt").asText()) : null,
+				Instant.parse(node.get("updatedAt").asText()), labels,
+				node.hasNonNull("milestone") ? node.get("milestone").asText() : null,
+				responses, node.path("moreComments").asBoolean());
+	}
+
+	private static void writeIssue(ObjectNode node, Issue issue) {
+		node.put("number", issue.getNumber());
+		node.put("pullRequest", issue.isPullRequest());
+		node.put("author", issue.getAuthor());
+		node.put("createdAt", issue.getCreatedAt().toString());
+		node.put("closedAt", (issue.getClosedAt() != null) ? issue.getClosedAt().toString() : null);
+		node.put("updatedAt", issue.getUpdatedAt().toString());
+		ArrayNode labels = node.putArray("labels");
+		issue.getLabels().forEach(labels::add);
+		node.put("milestone", issue.getMilestone());
+		ArrayNode responses = node.putArray("responses");
+		issue.getResponses().forEach((response) -> responses.addObject().put("author", response.getAuthor())
+				.put("createdAt", response.getCreatedAt().toString()));
+		node.put("moreComments", issue.hasMoreComments());
+	}
+
+}
@@ -0,0 +1,278 @@
+package io.spring.team.scorecard.issues;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import io.spring.team.scorecard.graphql.GraphQLClient;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Synchronizes the locally stored issues of a repository with GitHub.
+ * The first sync fetches all issues and pull requests, later ones only fetch those updated since
+ * the high-water mark of the stored issues and merge them into the stored records. Deleted and transferred
+ * issues don't show up as updated: as listing all the numbers of a large repository takes many requests, the stored
+ * issues are only reconciled with the numbers currently in the repository once per {@link #setReconcileInterval
+ * reconcile interval}, removing the issues that are no longer there.
+ */
+public class IssueSync {
+
+	private static final Log logger = LogFactory.getLog(IssueSync.class);
+
+	private final GraphQLClient client;
+
+	private final IssueStore store;
+
+	private final String org;
+
+	private final String repo;
+
+	private final IssueCrawler crawler;
+
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	private IssueIndex index;
+
+	private boolean snapshotUsed;
+
+	private Collection<String> responders = Collections.emptySet();
+
+	private Collection<String> ignoredResponders = Collections.emptySet();
+
+	private Duration reconcileInterval;
+
+	private Listener listener;
+
+	public IssueSync(GraphQLClient client, IssueStore store, String org, String repo) {
+		this(client, store, org, repo, null);
+	}
+
+	/**
+	 * Create a new instance, using the given {@link IssueCrawler} if not {@code null} to fetch all
+	 * the issues of the repository with parallel searches on the first sync.
+	 */
+	public IssueSync(GraphQLClient client, IssueStore store, String org, String repo, IssueCrawler crawler) {
+		this.client = client;
+		this.store = store;
+		this.org = org;
+		this.repo = repo;
+		this.crawler = crawler;
+	}
+
+	/**
+	 * Set the accounts, typically the team members, whose comments count as a response to an issue.
+	 * The comments of everyone but the author count if none are set.
+	 */
+	public void setResponders(Collection<String> responders) {
+		this.responders = responders;
+	}
+
+	/**
+	 * Set the accounts, typically bots, whose comments don't count as a response to an issue.
+	 */
+	public void setIgnoredResponders(Collection<String> ignoredResponders) {
+		this.ignoredResponders = ignoredResponders;
+	}
+
+	/**
+	 * Set how often incremental syncs should also check the stored issues against all the issues of the repository,
+	 * to remove deleted and transferred ones. Stored issues are never checked if {@code null} or not positive.
+	 */
+	public void setReconcileInterval(Duration reconcileInterval) {
+		this.reconcileInterval = reconcileInterval;
+	}
+
+	/**
+	 * Set the listener notified after each successful sync.
+	 */
+	public void setListener(Listener listener) {
+		this.listener = listener;
+	}
+
+	public Mono<IssueIndex> sync() {
+		return Mono.fromCallable(() -> this.store.load(this.org, this.repo))
+				.subscribeOn(Schedulers.boundedElastic())
+				.flatMap((index) -> {
+					Instant since = index.getLastUpdatedAt();
+					Instant startedAt = Instant.now();
+					logger.info("Syncing issues of " + this.org + "/" + this.repo
+							+ ((since != null) ? " updated since " + since : " (full)"));
+					Mono<IssueIndex> fetched = fetch(since).doOnNext(index::add).count()
+							.doOnNext((count) -> logger.info("Fetched " + count + " issues, " + index.size() + " in total"))
+							.thenReturn(index);
+					if (since == null) {
+						return fetched.doOnNext((synced) -> synced.setReconciledAt(startedAt));
+					}
+					if (isReconcileDue(index, startedAt)) {
+						return fetched.flatMap(this::removeMissing)
+								.doOnNext((synced) -> synced.setReconciledAt(startedAt));
+					}
+					return fetched;
+				})
+				.publishOn(Schedulers.boundedElastic())
+				.doOnNext((index) -> {
+					synchronized (this) {
+						this.index = index;
+					}
+					try {
+						this.store.save(this.org, this.repo, index);
+					}
+					catch (Exception ex) {
+						logger.warn("Could not store issues of " + this.org + "/" + this.repo, ex);
+						return;
+					}
+					if (this.listener != null && index.getLastUpdatedAt() != null) {
+						this.listener.synced(this.org, this.repo, index.getLastUpdatedAt());
+					}
+				});
+	}
+
+	/**
+	 * Return the columns of the issues of the repository. On the first call, a stored snapshot synced less than
+	 * {@code snapshotMaxAge} ago is used as is, without loading the stored issues nor contacting GitHub.
+	 * Otherwise issues are synced and a new snapshot of their columns is stored.
+	 */
+	public Mono<IssueColumns> columns(Duration snapshotMaxAge) {
+		return Mono.fromCallable(() -> {
+					if (this.started.compareAndSet(false, true)) {
+						IssueSnapshot snapshot = this.store.openSnapshot(this.org, this.repo);
+						if (snapshot != null && snapshot.getSyncedAt().plus(snapshotMaxAge).isAfter(Instant.now())) {
+							synchronized (this) {
+								this.snapshotUsed = true;
+							}
+							logger.info("Using snapshot of " + snapshot.getColumns().size() + " issues of "
+									+ this.org + "/" + this.repo + " synced at " + snapshot.getSyncedAt());
+							if (this.listener != null) {
+								this.listener.loaded(this.org, this.repo);
+							}
+							return Optional.of(snapshot.getColumns());
+						}
+					}
+					return Optional.<IssueColumns>empty();
+				})
+				.subscribeOn(Schedulers.boundedElastic())
+				.flatMap((snapshot) -> snapshot.map(Mono::just).orElseGet(() -> {
+					Instant syncedAt = Instant.now();
+					return sync().map((index) -> {
+						IssueColumns columns = columns(index);
+						try {
+							this.store.saveSnapshot(this.org, this.repo, columns, syncedAt);
+						}
+						catch (Exception ex) {
+							logger.warn("Could not store issue snapshot of " + this.org + "/" + this.repo, ex);
+						}
+						return columns;
+					});
+				}));
+	}
+
+	/**
+	 * Apply a change notified by a webhook to the issues of the repository, and return the updated columns.
+	 * Changes are kept in memory only: the next sync fetches the same changes from GitHub, as they happened after
+	 * the high-water mark of the stored issues. Deleted and transferred issues don't show up in the issues updated
+	 * since then, so their removal is stored right away. Changes are dropped until the issues have been synced or
+	 * loaded from a snapshot, as they would otherwise be applied to an incomplete set of issues.
+	 * @param event the change to the issue
+	 * @return the columns of the issues including the change, or an empty {@code Mono} if it was dropped
+	 */
+	public Mono<IssueColumns> update(IssueEvent event) {
+		return Mono.fromCallable(() -> {
+			synchronized (this) {
+				if (this.index == null) {
+					if (!this.snapshotUsed) {
+						return null;
+					}
+					this.index = this.store.load(this.org, this.repo);
+				}
+				Issue issue = event.getIssue();
+				if (event.isRemoval()) {
+					if (this.index.remove(issue.getNumber())) {
+						this.store.save(this.org, this.repo, this.index);
+					}
+					return columns(this.index);
+				}
+				Issue previous = this.index.get(issue.getNumber());
+				if (previous != null && issue.getResponses().isEmpty() && !previous.getResponses().isEmpty()) {
+					this.index.add(new Issue(issue.getNumber(), issue.isPullRequest(), issue.getAuthor(),
+							issue.getCreatedAt(), issue.getClosedAt(), issue.getUpdatedAt(), issue.getLabels(),
+							issue.getMilestone(), previous.getResponses(), previous.hasMoreComments()));
+				}
+				else {
+					this.index.add(issue);
+				}
+				return columns(this.index);
+			}
+		}).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private IssueColumns columns(IssueIndex index) {
+		return IssueColumns.of(index.getIssues(), this.responders, this.ignoredResponders);
+	}
+
+	private boolean isReconcileDue(IssueIndex index, Instant now) {
+		if (this.reconcileInterval == null || this.reconcileInterval.isZero() || this.reconcileInterval.isNegative()) {
+			return false;
+		}
+		Instant reconciledAt = index.getReconciledAt();
+		return reconciledAt == null || !reconciledAt.plus(this.reconcileInterval).isAfter(now);
+	}
+
+	private Mono<IssueIndex> removeMissing(IssueIndex index) {
+		return this.client.findIssueAndPullRequestNumbers(this.org, this.repo).collect(Collectors.toSet())
+				.map((numbers) -> {
+					int removed = 0;
+					for (Issue issue : index.getIssues()) {
+						if (!numbers.contains(issue.getNumber()) && index.remove(issue.getNumber())) {
+							removed++;
+						}
+					}
+					if (removed > 0) {
+						logger.info(removed + " stored issues of " + this.org + "/" + this.repo
+								+ " were deleted or transferred");
+					}
+					return index;
+				});
+	}
+
+	private Flux<Issue> fetch(Instant since) {
+		if (since == null) {
+			if (this.crawler == null) {
+				return this.client.findIssuesAndPullRequests(this.org, this.repo);
+			}
+			return this.crawler.crawl(this.org, this.repo).onErrorResume(TruncatedSearchException.class, (ex) -> {
+				logger.warn(ex.getMessage() + ", listing all the issues of " + this.org + "/" + this.repo + " instead");
+				return this.client.findIssuesAndPullRequests(this.org, this.repo);
+			});
+		}
+		return this.client.findIssuesAndPullRequestsUpdatedSince(this.org, this.repo, since);
+	}
+
+	/**
+	 * Listener notified of the syncs of the issues of a repository.
+	 */
+	@FunctionalInterface
+	public interface Listener {
+
+		/**
+		 * Called once the issues of a repository have been synced and stored.
+		 * @param lastUpdatedAt the high-water mark of the update dates of the stored issues
+		 */
+		void synced(String org, String repo, Instant lastUpdatedAt);
+
+		/**
+		 * Called once the issues of a repository have been loaded from a stored snapshot, without syncing them.
+		 */
+		default void loaded(String org, String repo) {
+		}
+
+	}
+
+}
@@ -0,0 +1,34 @@
+package io.spring.team.scorecard.issues;
+
+/**
+ * Thrown when a search can't be split enough to fetch all of its results, GitHub only returning the first
+ * {@link IssueCrawler#MAX_SEARCH_RESULTS} of them.
+ */
+public class TruncatedSearchException extends RuntimeException {
+
+	private final String query;
+
+	private final int count;
+
+	public TruncatedSearchException(String query, int count) {
+		super("Only the first " + IssueCrawler.MAX_SEARCH_RESULTS + " of " + count + " results can be fetched for: "
+				+ query);
+		this.query = query;
+		this.count = count;
+	}
+
+	/**
+	 * Return the search that matches too many results.
+	 */
+	public String getQuery() {
+		return this.query;
+	}
+
+	/**
+	 * Return the number of results matched by the search.
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+}
@@ -0,0 +1,93 @@
+package io.spring.team.scorecard.jfr;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.ContextView;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Support for emitting Flight Recorder events. Events are only emitted when the JVM ships the {@code jdk.jfr} API,
+ * and they cost next to nothing unless a recording is running. Compiling the events needs that API as well,
+ * which OpenJDK ships from 8u262 on.
+ */
+public final class FlightRecording {
+
+	/**
+	 * Whether Flight Recorder events can be emitted by this JVM.
+	 */
+	public static final boolean AVAILABLE = ClassUtils.isPresent("jdk.jfr.Event", FlightRecording.class.getClassLoader());
+
+	/**
+	 * Key of the Reactor context entry holding the ID of the metric being computed.
+	 */
+	public static final String METRIC_ID_KEY = FlightRecording.class.getName() + ".METRIC_ID";
+
+	private static final AtomicLong metricIds = new AtomicLong();
+
+	private FlightRecording() {
+	}
+
+	/**
+	 * Return a new metric computation ID, never 0.
+	 */
+	public static long nextMetricId() {
+		return metricIds.incrementAndGet();
+	}
+
+	/**
+	 * Return the ID of the metric being computed in the given context, 0 if none.
+	 */
+	public static long currentMetricId(ContextView context) {
+		return context.getOrDefault(METRIC_ID_KEY, 0L);
+	}
+
+	/**
+	 * Record the computation of a metric as a {@link MetricComputationEvent}, linked to the computation
+	 * of the metric it is part of. The ID of the metric is put in the context of the computation,
+	 * so that the events it triggers can refer to it.
+	 */
+	public static <T> Mono<T> recordMetric(String metric, String repository, Mono<T> computation) {
+		if (!AVAILABLE) {
+			return computation;
+		}
+		return Mono.deferContextual((context) -> {
+			long id = nextMetricId();
+			MetricComputationEvent event = new MetricComputationEvent();
+			event.begin();
+			return computation.contextWrite((inner) -> inner.put(METRIC_ID_KEY, id)).doFinally((signal) -> {
+				if (event.shouldCommit()) {
+					event.setMetric(metric);
+					event.setRepository(repository);
+					event.setId(id);
+					event.setParentId(currentMetricId(context));
+					event.setOutcome((signal == SignalType.ON_ERROR) ? "error"
+							: (signal == SignalType.CANCEL) ? "cancelled" : "success");
+					event.commit();
+				}
+			});
+		});
+	}
+
+	/**
+	 * Return a short hexadecimal hash of the given content, identical contents having the same hash.
+	 */
+	public static String hash(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			StringBuilder hex = new StringBuilder();
+			for (int i = 0; i < 8; i++) {
+				hex.append(String.format("%02x", digest[i]));
+			}
+			return hex.toString();
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not supported", ex);
+		}
+	}
+
+}
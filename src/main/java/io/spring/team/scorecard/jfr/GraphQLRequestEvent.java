@@ -0,0 +1,83 @@
+package io.spring.team.scorecard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for an attempt at sending a GitHub GraphQL request, from sending it to parsing its response.
+ */
+@Name("io.spring.team.scorecard.GraphQLRequest")
+@Label("GraphQL Request")
+@Category({ "Scorecard", "GitHub" })
+@Description("Attempt at sending a GitHub GraphQL request")
+@StackTrace(false)
+public class GraphQLRequestEvent extends Event {
+
+	@Label("Operation")
+	private String operation;
+
+	@Label("Query Hash")
+	@Description("Hash of the query document, without its variables, requests sending the same query having the same hash")
+	private String queryHash;
+
+	@Label("Repository")
+	private String repository;
+
+	@Label("Request Size")
+	@DataAmount
+	private long requestBytes;
+
+	@Label("Response Size")
+	@DataAmount
+	private long responseBytes;
+
+	@Label("Cost")
+	@Description("GraphQL points spent, 0 if the query doesn't ask for its cost")
+	private int cost;
+
+	@Label("Outcome")
+	private String outcome;
+
+	@Label("Metric ID")
+	@Description("ID of the metric computation that sent the request, 0 if none")
+	@MetricId
+	private long metricId;
+
+	public void setOperation(String operation) {
+		this.operation = operation;
+	}
+
+	public void setQueryHash(String queryHash) {
+		this.queryHash = queryHash;
+	}
+
+	public void setRepository(String repository) {
+		this.repository = repository;
+	}
+
+	public void setRequestBytes(long requestBytes) {
+		this.requestBytes = requestBytes;
+	}
+
+	public void setResponseBytes(long responseBytes) {
+		this.responseBytes = responseBytes;
+	}
+
+	public void setCost(int cost) {
+		this.cost = cost;
+	}
+
+	public void setOutcome(String outcome) {
+		this.outcome = outcome;
+	}
+
+	public void setMetricId(long metricId) {
+		this.metricId = metricId;
+	}
+
+}
@@ -0,0 +1,58 @@
+package io.spring.team.scorecard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the computation of a scorecard metric, from subscription to completion.
+ */
+@Name("io.spring.team.scorecard.MetricComputation")
+@Label("Metric Computation")
+@Category({ "Scorecard", "Stats" })
+@Description("Computation of a scorecard metric")
+@StackTrace(false)
+public class MetricComputationEvent extends Event {
+
+	@Label("Metric")
+	private String metric;
+
+	@Label("Repository")
+	private String repository;
+
+	@Label("ID")
+	@MetricId
+	private long id;
+
+	@Label("Parent ID")
+	@Description("ID of the computation of the metric this one is part of, 0 if none")
+	@MetricId
+	private long parentId;
+
+	@Label("Outcome")
+	private String outcome;
+
+	public void setMetric(String metric) {
+		this.metric = metric;
+	}
+
+	public void setRepository(String repository) {
+		this.repository = repository;
+	}
+
+	public void setId(long id) {
+		this.id = id;
+	}
+
+	public void setParentId(long parentId) {
+		this.parentId = parentId;
+	}
+
+	public void setOutcome(String outcome) {
+		this.outcome = outcome;
+	}
+
+}
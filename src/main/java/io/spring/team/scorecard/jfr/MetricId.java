@@ -0,0 +1,25 @@
+package io.spring.team.scorecard.jfr;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jdk.jfr.Label;
+import jdk.jfr.MetadataDefinition;
+import jdk.jfr.Name;
+import jdk.jfr.Relational;
+
+/**
+ * Marks fields holding the ID of a {@link MetricComputationEvent}, so that recording tools can relate
+ * the computation of a metric to the computations and requests it triggered.
+ */
+@MetadataDefinition
+@Relational
+@Name("io.spring.team.scorecard.MetricId")
+@Label("Metric ID")
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface MetricId {
+
+}
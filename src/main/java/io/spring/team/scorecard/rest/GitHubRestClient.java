@@ -0,0 +1,273 @@
+package io.spring.team.scorecard.rest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.apollographql.apollo.exception.ApolloNetworkException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.spring.team.scorecard.graphql.Page;
+import io.spring.team.scorecard.graphql.RateLimitExceededException;
+import io.spring.team.scorecard.graphql.RequestScheduler;
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+/**
+ * Client for the GitHub REST API, used for listings of mostly static repository metadata.
+ * Unlike GraphQL requests, REST responses carry validators: with a {@link Cache}, responses are stored on disk
+ * and revalidated with {@code If-None-Match}, so unchanged resources come back as {@code 304 Not Modified}
+ * responses that don't count against the rate limit, even across runs. Responses are requested gzip-compressed.
+ * <p>The REST API has its own rate limit budget, separate from the GraphQL one: when it's exhausted, only REST
+ * requests are held back, before they take a permit of the {@link RequestScheduler} that still limits their
+ * concurrency and retries them.
+ */
+public class GitHubRestClient implements Closeable {
+
+	private static final int PAGE_SIZE = 100;
+
+	private static final Log logger = LogFactory.getLog(GitHubRestClient.class);
+
+	private final HttpUrl baseUrl;
+
+	private final String token;
+
+	private final RequestScheduler scheduler;
+
+	private final OkHttpClient httpClient;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final MeterRegistry meterRegistry;
+
+	private final Clock clock;
+
+	private volatile Instant pausedUntil = Instant.MIN;
+
+	/**
+	 * Create a new client.
+	 * @param graphQLUrl the URL of the GitHub GraphQL API, the REST API URL is derived from it
+	 * @param token the GitHub access token
+	 * @param scheduler the scheduler limiting concurrent requests
+	 * @param cache the cache storing responses, or {@code null} to disable caching
+	 * @param meterRegistry the registry to record cache hits to
+	 */
+	public GitHubRestClient(String graphQLUrl, String token, RequestScheduler scheduler, Cache cache,
+			MeterRegistry meterRegistry) {
+		this(graphQLUrl, token, scheduler, cache, meterRegistry, Clock.systemUTC());
+	}
+
+	GitHubRestClient(String graphQLUrl, String token, RequestScheduler scheduler, Cache cache,
+			MeterRegistry meterRegistry, Clock clock) {
+		this.baseUrl = HttpUrl.get(restUrl(graphQLUrl));
+		this.token = token;
+		this.scheduler = scheduler;
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequestsPerHost(Math.max(dispatcher.getMaxRequestsPerHost(), scheduler.getMaxConcurrency()));
+		this.httpClient = new OkHttpClient.Builder().dispatcher(dispatcher).cache(cache).build();
+		this.meterRegistry = meterRegistry;
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the URL of the REST API of the GitHub instance serving the given GraphQL API:
+	 * {@code https://api.github.com} for GitHub.com, {@code https://host/api/v3} for GitHub Enterprise Server.
+	 */
+	static String restUrl(String graphQLUrl) {
+		if (graphQLUrl.endsWith("/api/graphql")) {
+			return graphQLUrl.substring(0, graphQLUrl.length() - "graphql".length()) + "v3/";
+		}
+		if (graphQLUrl.endsWith("/graphql")) {
+			return graphQLUrl.substring(0, graphQLUrl.length() - "graphql".length());
+		}
+		return graphQLUrl.endsWith("/") ? graphQLUrl : graphQLUrl + "/";
+	}
+
+	/**
+	 * Return the URL of the first page of the users that can be assigned to issues of the given repository.
+	 */
+	public String assignableUsersUrl(String org, String repo) {
+		return this.baseUrl.newBuilder().addPathSegment("repos").addPathSegment(org).addPathSegment(repo)
+				.addPathSegment("assignees").addQueryParameter("per_page", String.valueOf(PAGE_SIZE)).toString();
+	}
+
+	/**
+	 * Return the URL of the first page of the repositories of the given organization, sorted by name.
+	 */
+	public String repositoriesUrl(String org) {
+		return this.baseUrl.newBuilder().addPathSegment("orgs").addPathSegment(org).addPathSegment("repos")
+				.addQueryParameter("type", "all").addQueryParameter("sort", "full_name")
+				.addQueryParameter("per_page", String.valueOf(PAGE_SIZE)).toString();
+	}
+
+	/**
+	 * Fetch a page of a listing, its end cursor being the URL of the next page.
+	 * @param url the URL of the page
+	 * @param filter the items to keep
+	 * @param mapper maps each kept item of the JSON array
+	 */
+	public <T> Mono<Page<T>> getPage(String url, Predicate<JsonNode> filter, Function<JsonNode, T> mapper) {
+		return this.scheduler.schedule(false, this::pause, get(url)).map((response) -> {
+			List<T> items = new ArrayList<>();
+			for (JsonNode node : response.body) {
+				if (filter.test(node)) {
+					items.add(mapper.apply(node));
+				}
+			}
+			return new Page<>(items, response.next, response.next != null);
+		});
+	}
+
+	/**
+	 * Return how long to wait before sending a request, as long as the REST rate limit budget is exhausted.
+	 */
+	private Duration pause() {
+		Instant now = this.clock.instant();
+		return this.pausedUntil.isAfter(now) ? Duration.between(now, this.pausedUntil) : Duration.ZERO;
+	}
+
+	private Mono<JsonResponse> get(String url) {
+		return Mono.create((sink) -> {
+			Request request = new Request.Builder().url(url)
+					.header("Authorization", "Bearer " + this.token)
+					.header("Accept", "application/vnd.github.v3+json")
+					.build();
+			Call call = this.httpClient.newCall(request);
+			sink.onCancel(call::cancel);
+			call.enqueue(new Callback() {
+				@Override
+				public void onResponse(@NotNull Call call, @NotNull Response response) {
+					try (ResponseBody body = response.body()) {
+						RateLimitExceededException throttled = throttled(response);
+						if (throttled != null) {
+							sink.error(throttled);
+						}
+						else if (!response.isSuccessful()) {
+							sink.error(new GitHubRestException(response.code(), response.message()));
+						}
+						else {
+							recordCacheUsage(response);
+							sink.success(new JsonResponse(GitHubRestClient.this.objectMapper.readTree(body.byteStream()),
+									nextPage(response.header("Link"))));
+						}
+					}
+					catch (IOException ex) {
+						sink.error(new ApolloNetworkException("Failed to read GitHub response", ex));
+					}
+					catch (RuntimeException ex) {
+						sink.error(ex);
+					}
+				}
+
+				@Override
+				public void onFailure(@NotNull Call call, @NotNull IOException e) {
+					sink.error(new ApolloNetworkException("Failed to execute GitHub request", e));
+				}
+			});
+		});
+	}
+
+	/**
+	 * Check whether the response was throttled, holding back the following REST requests until the REST budget
+	 * is reset. The rate limit headers of REST responses describe the REST budget only, so they are kept apart from
+	 * the GraphQL budget tracked by the {@link RequestScheduler}.
+	 */
+	RateLimitExceededException throttled(Response response) {
+		String retryAfter = response.header("Retry-After");
+		boolean exhausted = "0".equals(response.header("X-RateLimit-Remaining")) || retryAfter != null;
+		if (response.code() != 429 && !(response.code() == 403 && exhausted)) {
+			return null;
+		}
+		Instant retryAt = this.scheduler.retryAt(retryAfter);
+		if (retryAt == null) {
+			retryAt = resetAt(response.header("X-RateLimit-Reset"));
+		}
+		if (retryAt != null && retryAt.isAfter(this.pausedUntil)) {
+			logger.info("REST rate limit exceeded, pausing REST requests until " + retryAt);
+			this.pausedUntil = retryAt;
+		}
+		return new RateLimitExceededException("GitHub REST API rate limit exceeded (HTTP " + response.code() + ")",
+				retryAt);
+	}
+
+	private static Instant resetAt(String reset) {
+		try {
+			return (reset != null) ? Instant.ofEpochSecond(Long.parseLong(reset.trim())) : null;
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Record whether the response was served from the cache, and whether it was revalidated with a
+	 * {@code 304 Not Modified} response. A conditional request answered with a full response is a miss.
+	 */
+	private void recordCacheUsage(Response response) {
+		Response networkResponse = response.networkResponse();
+		String outcome = (networkResponse == null) ? "hit"
+				: (networkResponse.code() == 304) ? "revalidated" : "miss";
+		Counter.builder("scorecard.github.rest.requests").description("GitHub REST requests, by cache outcome")
+				.tag("cache", outcome).register(this.meterRegistry).increment();
+	}
+
+	/**
+	 * Extract the URL of the next page from a {@code Link} header, {@code null} if this is the last page.
+	 */
+	static String nextPage(String link) {
+		if (link == null) {
+			return null;
+		}
+		for (String part : link.split(",")) {
+			String[] segments = part.split(";");
+			for (int i = 1; i < segments.length; i++) {
+				if (segments[i].trim().equals("rel=\"next\"")) {
+					String url = segments[0].trim();
+					return url.substring(1, url.length() - 1);
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		Cache cache = this.httpClient.cache();
+		if (cache != null) {
+			cache.close();
+		}
+	}
+
+	private static final class JsonResponse {
+
+		private final JsonNode body;
+
+		private final String next;
+
+		JsonResponse(JsonNode body, String next) {
+			this.body = body;
+			this.next = next;
+		}
+
+	}
+
+}
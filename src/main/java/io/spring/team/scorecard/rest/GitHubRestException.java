@@ -0,0 +1,20 @@
+package io.spring.team.scorecard.rest;
+
+import java.io.IOException;
+
+/**
+ * Thrown by the {@link GitHubRestClient} when the REST API answers with an HTTP error status.
+ */
+public class GitHubRestException extends IOException {
+
+	private final int status;
+
+	public GitHubRestException(int status, String message) {
+		super("HTTP " + status + " " + message);
+		this.status = status;
+	}
+
+	public int getStatus() {
+		return this.status;
+	}
+}
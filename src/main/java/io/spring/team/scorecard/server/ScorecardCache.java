@@ -0,0 +1,199 @@
+package io.spring.team.scorecard.server;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import io.spring.team.scorecard.ScorecardProperties;
+import io.spring.team.scorecard.StatsServiceFactory;
+import io.spring.team.scorecard.graphql.RequestScheduler;
+import io.spring.team.scorecard.issues.IssueEvent;
+import io.spring.team.scorecard.stats.ReportingPeriod;
+import io.spring.team.scorecard.stats.Scorecard;
+import io.spring.team.scorecard.stats.StatsService;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps scorecards in memory for a long-running server.
+ * Concurrent requests for the same scorecard share a single computation, and scorecards
+ * covering the current day are refreshed in the background while the previous result keeps being served.
+ * The {@link StatsService} of a repository, with the counts it memoizes, is dropped once none of its scorecards
+ * is cached anymore.
+ */
+public class ScorecardCache {
+
+	private static final Log logger = LogFactory.getLog(ScorecardCache.class);
+
+	private final StatsServiceFactory statsServiceFactory;
+
+	private final ScorecardProperties properties;
+
+	private final Clock clock;
+
+	private final Map<String, StatsService> statsServices = new ConcurrentHashMap<>();
+
+	private final Map<String, Entry> entries;
+
+	private final Disposable refresh;
+
+	public ScorecardCache(StatsServiceFactory statsServiceFactory, ScorecardProperties properties, Clock clock) {
+		this.statsServiceFactory = statsServiceFactory;
+		this.properties = properties;
+		this.clock = clock;
+		int maxEntries = properties.getServer().getMaxEntries();
+		this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() <= maxEntries) {
+					return false;
+				}
+				String repository = eldest.getValue().project.getRepository();
+				if (values().stream().filter((entry) -> entry.project.getRepository().equals(repository)).count() == 1) {
+					ScorecardCache.this.statsServices.remove(repository);
+				}
+				return true;
+			}
+		});
+		Duration refreshInterval = properties.getServer().getRefreshInterval();
+		this.refresh = Flux.interval(refreshInterval, refreshInterval)
+				.onBackpressureDrop()
+				.concatMap((tick) -> refresh())
+				.subscribe();
+	}
+
+	/**
+	 * Return the scorecard of the given repository for the given period, calculating it if needed.
+	 */
+	public Mono<Scorecard> get(String org, String name, ReportingPeriod period) {
+		ScorecardProperties.Project project = this.properties.getProject(org, name);
+		String key = project.getRepository() + " " + period;
+		Entry entry = this.entries.computeIfAbsent(key, (k) -> new Entry(project, period));
+		return entry.getResult(() -> calculate(entry).doOnError((ex) -> remove(key)).cache());
+	}
+
+	private void remove(String key) {
+		synchronized (this.entries) {
+			Entry removed = this.entries.remove(key);
+			if (removed == null) {
+				return;
+			}
+			String repository = removed.project.getRepository();
+			if (this.entries.values().stream().noneMatch((entry) -> entry.project.getRepository().equals(repository))) {
+				this.statsServices.remove(repository);
+			}
+		}
+	}
+
+	/**
+	 * Recalculate the scorecards covering the current day, replacing them only once the new result is available.
+	 */
+	Mono<Void> refresh() {
+		LocalDate today = LocalDate.now(this.clock);
+		List<Entry> current;
+		synchronized (this.entries) {
+			current = this.entries.values().stream()
+					.filter((entry) -> !entry.period.getEnd().isBefore(today))
+					.collect(Collectors.toList());
+		}
+		if (current.isEmpty()) {
+			return Mono.empty();
+		}
+		logger.info("Refreshing " + current.size() + " scorecards for the current period");
+		current.stream().map((entry) -> entry.project.getRepository()).distinct()
+				.map(this.statsServices::get).filter((statsService) -> statsService != null)
+				.forEach(StatsService::reset);
+		return recalculate(current);
+	}
+
+	/**
+	 * Apply a change to an issue notified by a webhook, and recalculate the cached scorecards of its repository.
+	 * Nothing is fetched from GitHub when issues are indexed locally. Otherwise the change is only picked up
+	 * by the next refresh. Changes to repositories without any scorecard computed yet are not applied.
+	 * @return whether the change was applied
+	 */
+	public Mono<Boolean> update(IssueEvent event) {
+		ScorecardProperties.Project project = this.properties.getProject(event.getOrg(), event.getRepo());
+		StatsService statsService = this.statsServices.get(project.getRepository());
+		if (statsService == null) {
+			logger.debug("No scorecard computed for " + project.getRepository() + ", not applying " + event);
+			return Mono.just(false);
+		}
+		return statsService.update(event).flatMap((updated) -> {
+			if (!updated) {
+				logger.debug("Issues are not indexed locally, leaving " + event + " to the next refresh");
+				return Mono.just(false);
+			}
+			List<Entry> affected;
+			synchronized (this.entries) {
+				affected = this.entries.values().stream()
+						.filter((entry) -> entry.project.getRepository().equals(project.getRepository()))
+						.collect(Collectors.toList());
+			}
+			return recalculate(affected).thenReturn(true);
+		});
+	}
+
+	private Mono<Void> recalculate(List<Entry> entries) {
+		return Flux.fromIterable(entries)
+				.flatMap((entry) -> calculate(entry)
+						.doOnNext((scorecard) -> entry.setResult(Mono.just(scorecard)))
+						.onErrorResume((ex) -> {
+							logger.warn("Could not refresh scorecard for " + entry.project.getRepository(), ex);
+							return Mono.empty();
+						}))
+				.then();
+	}
+
+	private Mono<Scorecard> calculate(Entry entry) {
+		ScorecardProperties.Project project = entry.project;
+		return statsService(project).calculateScorecard(entry.period, project.getMembers(), project.getBots(),
+				this.properties.getLabels(project).closedTypes())
+				.contextWrite(RequestScheduler.queue(project.getRepository()));
+	}
+
+	private StatsService statsService(ScorecardProperties.Project project) {
+		return this.statsServices.computeIfAbsent(project.getRepository(),
+				(repository) -> this.statsServiceFactory.create(project));
+	}
+
+	public void close() {
+		this.refresh.dispose();
+	}
+
+	private static class Entry {
+
+		private final ScorecardProperties.Project project;
+
+		private final ReportingPeriod period;
+
+		private Mono<Scorecard> result;
+
+		Entry(ScorecardProperties.Project project, ReportingPeriod period) {
+			this.project = project;
+			this.period = period;
+		}
+
+		synchronized Mono<Scorecard> getResult(Supplier<Mono<Scorecard>> calculation) {
+			if (this.result == null) {
+				this.result = calculation.get();
+			}
+			return this.result;
+		}
+
+		synchronized void setResult(Mono<Scorecard> result) {
+			this.result = result;
+		}
+	}
+
+}
@@ -0,0 +1,36 @@
+package io.spring.team.scorecard.server;
+
+import java.time.LocalDate;
+
+import io.spring.team.scorecard.stats.ReportingPeriod;
+import io.spring.team.scorecard.stats.Scorecard;
+import reactor.core.publisher.Mono;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves scorecards over HTTP, for instance {@code GET /scorecards/spring-projects/spring-boot?start=2020-01-01&end=2020-03-31}.
+ */
+@RestController
+@Profile("server")
+public class ScorecardController {
+
+	private final ScorecardCache scorecardCache;
+
+	public ScorecardController(ScorecardCache scorecardCache) {
+		this.scorecardCache = scorecardCache;
+	}
+
+	@GetMapping("/scorecards/{org}/{name}")
+	public Mono<Scorecard> scorecard(@PathVariable String org, @PathVariable String name,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+		return this.scorecardCache.get(org, name, new ReportingPeriod(start, end));
+	}
+
+}
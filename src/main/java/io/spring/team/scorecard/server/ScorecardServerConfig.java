@@ -0,0 +1,45 @@
+package io.spring.team.scorecard.server;
+
+import java.io.IOException;
+import java.time.Clock;
+
+import io.spring.team.scorecard.ScorecardProperties;
+import io.spring.team.scorecard.StatsServiceFactory;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.StringUtils;
+
+/**
+ * Configuration of the long-running server, enabled with the "server" profile.
+ */
+@Configuration
+@Profile("server")
+public class ScorecardServerConfig {
+
+	@Bean
+	public ScorecardCache scorecardCache(StatsServiceFactory statsServiceFactory, ScorecardProperties properties) {
+		return new ScorecardCache(statsServiceFactory, properties, Clock.systemUTC());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "scorecard.webhooks", name = "enabled")
+	public WebhookIngester webhookIngester(ScorecardCache scorecardCache, StatsServiceFactory statsServiceFactory,
+			ScorecardProperties properties) throws IOException {
+		ScorecardProperties.Webhooks webhooks = properties.getWebhooks();
+		if (!StringUtils.hasText(webhooks.getSecret())) {
+			throw new IllegalStateException("scorecard.webhooks.secret must be set when webhooks are enabled, "
+					+ "anyone could otherwise change the cached scorecards");
+		}
+		WebhookIngester ingester = new WebhookIngester(scorecardCache::update, webhooks.getSecret(),
+				webhooks.getMaxDeliveries(), webhooks.getJournal());
+		if (webhooks.getJournal() != null) {
+			// journaled events are applied once the issues of their repository are synced or loaded
+			statsServiceFactory.setSyncListener(ingester);
+		}
+		return ingester;
+	}
+
+}
@@ -0,0 +1,53 @@
+package io.spring.team.scorecard.server;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Mono;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Receives GitHub {@code issues} and {@code pull_request} webhook deliveries on {@code POST /webhooks/github},
+ * keeping cached scorecards up to date as issues change.
+ */
+@RestController
+@Profile("server")
+@ConditionalOnProperty(prefix = "scorecard.webhooks", name = "enabled")
+public class WebhookController {
+
+	private final WebhookIngester ingester;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public WebhookController(WebhookIngester ingester) {
+		this.ingester = ingester;
+	}
+
+	@PostMapping("/webhooks/github")
+	public Mono<ResponseEntity<Void>> deliver(@RequestHeader("X-GitHub-Event") String eventType,
+			@RequestHeader("X-GitHub-Delivery") String deliveryId,
+			@RequestHeader(name = "X-Hub-Signature-256", required = false) String signature,
+			@RequestBody byte[] body) {
+		if (!this.ingester.verify(body, signature)) {
+			return Mono.just(ResponseEntity.status(401).<Void>build());
+		}
+		JsonNode payload;
+		try {
+			payload = this.objectMapper.readTree(body);
+		}
+		catch (IOException ex) {
+			return Mono.just(ResponseEntity.badRequest().<Void>build());
+		}
+		return this.ingester.ingest(deliveryId, eventType, payload).map((applied) -> applied
+				? ResponseEntity.accepted().<Void>build() : ResponseEntity.noContent().<Void>build());
+	}
+
+}
@@ -0,0 +1,322 @@
+package io.spring.team.scorecard.server;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.spring.team.scorecard.issues.IssueEvent;
+import io.spring.team.scorecard.issues.IssueSync;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.util.Assert;
+
+/**
+ * Ingests GitHub webhook deliveries, applying the {@link IssueEvent issue events} they carry.
+ * GitHub delivers events at least once, so deliveries already applied are skipped by their ID.
+ * Each accepted delivery is appended to a journal, one JSON object per line, which can be replayed
+ * to feed recorded events offline. As a {@link IssueSync.Listener}, the ingester applies the journaled events
+ * of a repository again once its issues are synced or loaded: events that arrived before, or while the server was
+ * stopped, are caught up on then. Deliveries are dropped from the journal once the issues of their repository have
+ * been synced past them.
+ */
+public class WebhookIngester implements IssueSync.Listener, Closeable {
+
+	private static final Log logger = LogFactory.getLog(WebhookIngester.class);
+
+	private final Function<IssueEvent, Mono<Boolean>> handler;
+
+	private final byte[] secret;
+
+	private final Map<String, Boolean> deliveries;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Path journalFile;
+
+	private final Object journalMonitor = new Object();
+
+	private Writer journal;
+
+	/**
+	 * Create a new ingester.
+	 * @param handler applies issue events, returning whether they were applied
+	 * @param secret the secret signing deliveries
+	 * @param maxDeliveries the number of most recent delivery IDs remembered to skip redeliveries
+	 * @param journal the file to append accepted deliveries to, {@code null} to not journal them
+	 */
+	public WebhookIngester(Function<IssueEvent, Mono<Boolean>> handler, String secret, int maxDeliveries, Path journal)
+			throws IOException {
+		Assert.hasText(secret, "A webhook secret is required, anyone could otherwise send issue events");
+		this.handler = handler;
+		this.secret = secret.getBytes(StandardCharsets.UTF_8);
+		this.deliveries = Collections.synchronizedMap(new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+				return size() > maxDeliveries;
+			}
+		});
+		this.journalFile = journal;
+		if (journal != null) {
+			Files.createDirectories(journal.toAbsolutePath().getParent());
+			this.journal = openJournal();
+		}
+	}
+
+	private Writer openJournal() throws IOException {
+		return Files.newBufferedWriter(this.journalFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Check the {@code X-Hub-Signature-256} header of a delivery against the configured secret.
+	 */
+	public boolean verify(byte[] body, String signature) {
+		if (signature == null || !signature.startsWith("sha256=")) {
+			return false;
+		}
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(this.secret, "HmacSHA256"));
+			byte[] expected = mac.doFinal(body);
+			StringBuilder hex = new StringBuilder("sha256=");
+			for (byte b : expected) {
+				hex.append(String.format("%02x", b));
+			}
+			return MessageDigest.isEqual(hex.toString().getBytes(StandardCharsets.US_ASCII),
+					signature.getBytes(StandardCharsets.US_ASCII));
+		}
+		catch (NoSuchAlgorithmException | InvalidKeyException ex) {
+			throw new IllegalStateException("Could not verify webhook signature", ex);
+		}
+	}
+
+	/**
+	 * Ingest a webhook delivery.
+	 * @param deliveryId the unique ID of the delivery, from the {@code X-GitHub-Delivery} header
+	 * @param eventType the type of the event, from the {@code X-GitHub-Event} header
+	 * @param payload the JSON payload of the delivery
+	 * @return whether an issue event was applied, {@code false} for redeliveries, ignored events and events
+	 * the handler did not apply, which are applied once the issues of their repository are synced or loaded
+	 */
+	public Mono<Boolean> ingest(String deliveryId, String eventType, JsonNode payload) {
+		return ingest(deliveryId, eventType, payload, true);
+	}
+
+	private Mono<Boolean> ingest(String deliveryId, String eventType, JsonNode payload, boolean record) {
+		IssueEvent event = IssueEvent.from(deliveryId, eventType, payload);
+		if (event == null) {
+			return Mono.just(false);
+		}
+		if (this.deliveries.putIfAbsent(deliveryId, Boolean.TRUE) != null) {
+			logger.debug("Skipping redelivery " + deliveryId + " of " + event);
+			return Mono.just(false);
+		}
+		if (record) {
+			append(deliveryId, eventType, payload);
+		}
+		return this.handler.apply(event).defaultIfEmpty(false)
+				.doOnNext((applied) -> {
+					if (!applied) {
+						this.deliveries.remove(deliveryId);
+					}
+				})
+				.doOnError((ex) -> this.deliveries.remove(deliveryId));
+	}
+
+	/**
+	 * Replay the deliveries of a journal in order, skipping the ones already seen.
+	 * @return the number of issue events applied
+	 */
+	public Mono<Long> replay(Path file) {
+		return deliveries(file)
+				.concatMap((delivery) -> ingest(delivery.path("delivery").asText(), delivery.path("event").asText(),
+						delivery.path("payload"), false))
+				.filter(Boolean::booleanValue)
+				.count()
+				.doOnNext((count) -> logger.info("Replayed " + count + " issue events from " + file));
+	}
+
+	/**
+	 * Apply the journaled events of the given repository again, in order and whether they were seen or not:
+	 * they could not be applied before the issues of the repository were loaded, and the ones that were applied
+	 * may have been applied to issues that a sync has replaced since. Applying an event again is harmless as
+	 * older versions of an issue never replace newer ones.
+	 * @return the number of issue events applied
+	 */
+	public Mono<Long> reapply(String org, String repo) {
+		if (this.journalFile == null) {
+			return Mono.just(0L);
+		}
+		return deliveries(this.journalFile)
+				.concatMap((delivery) -> {
+					String deliveryId = delivery.path("delivery").asText();
+					IssueEvent event = IssueEvent.from(deliveryId, delivery.path("event").asText(),
+							delivery.path("payload"));
+					if (event == null || !event.getOrg().equalsIgnoreCase(org) || !event.getRepo().equalsIgnoreCase(repo)) {
+						return Mono.just(false);
+					}
+					return this.handler.apply(event).defaultIfEmpty(false)
+							.doOnNext((applied) -> {
+								if (applied) {
+									this.deliveries.put(deliveryId, Boolean.TRUE);
+								}
+							})
+							.onErrorResume((ex) -> {
+								logger.warn("Could not apply journaled " + event, ex);
+								return Mono.just(false);
+							});
+				})
+				.filter(Boolean::booleanValue)
+				.count()
+				.doOnNext((count) -> logger.debug("Applied " + count + " journaled issue events of " + org + "/" + repo));
+	}
+
+	private Flux<JsonNode> deliveries(Path file) {
+		if (!Files.isReadable(file)) {
+			return Flux.empty();
+		}
+		return Flux.using(() -> Files.newBufferedReader(file, StandardCharsets.UTF_8),
+				(reader) -> Flux.fromStream(reader.lines()), BufferedReader::close)
+				.concatMap((line) -> {
+					try {
+						return Mono.justOrEmpty(this.objectMapper.readTree(line));
+					}
+					catch (IOException ex) {
+						// the last line may have been cut short when the server was stopped
+						logger.debug("Skipping unreadable webhook delivery: " + line);
+						return Mono.empty();
+					}
+				});
+	}
+
+	/**
+	 * Drop the deliveries that the synced issues reflect from the journal, and apply the remaining ones
+	 * of the repository again.
+	 */
+	@Override
+	public void synced(String org, String repo, Instant lastUpdatedAt) {
+		compact(org, repo, lastUpdatedAt);
+		reapply(org, repo).subscribe();
+	}
+
+	/**
+	 * Apply the journaled events of the repository, as its issues were loaded from a snapshot.
+	 */
+	@Override
+	public void loaded(String org, String repo) {
+		reapply(org, repo).subscribe();
+	}
+
+	private void append(String deliveryId, String eventType, JsonNode payload) {
+		if (this.journal == null) {
+			return;
+		}
+		try {
+			String line = this.objectMapper.createObjectNode().put("delivery", deliveryId).put("event", eventType)
+					.set("payload", payload).toString();
+			synchronized (this.journalMonitor) {
+				this.journal.write(line);
+				this.journal.write('\n');
+				this.journal.flush();
+			}
+		}
+		catch (IOException ex) {
+			logger.warn("Could not journal webhook delivery " + deliveryId, ex);
+		}
+	}
+
+	/**
+	 * Drop the deliveries of the given repository that the stored issues already reflect from the journal,
+	 * so that it only keeps the deliveries a restart needs to replay.
+	 * @param lastUpdatedAt the high-water mark of the update dates of the stored issues
+	 */
+	public void compact(String org, String repo, Instant lastUpdatedAt) {
+		if (this.journalFile == null) {
+			return;
+		}
+		synchronized (this.journalMonitor) {
+			try {
+				this.journal.close();
+				Path temp = Files.createTempFile(this.journalFile.toAbsolutePath().getParent(),
+						this.journalFile.getFileName().toString(), ".tmp");
+				long dropped = 0;
+				try (BufferedReader reader = Files.newBufferedReader(this.journalFile, StandardCharsets.UTF_8);
+						Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						if (isSynced(line, org, repo, lastUpdatedAt)) {
+							dropped++;
+						}
+						else {
+							writer.write(line);
+							writer.write('\n');
+						}
+					}
+				}
+				Files.move(temp, this.journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				logger.debug("Dropped " + dropped + " deliveries of " + org + "/" + repo + " from the webhook journal");
+			}
+			catch (IOException ex) {
+				logger.warn("Could not compact webhook journal " + this.journalFile, ex);
+			}
+			finally {
+				try {
+					this.journal = openJournal();
+				}
+				catch (IOException ex) {
+					logger.error("Could not reopen webhook journal " + this.journalFile, ex);
+				}
+			}
+		}
+	}
+
+	private boolean isSynced(String line, String org, String repo, Instant lastUpdatedAt) {
+		IssueEvent event;
+		try {
+			JsonNode delivery = this.objectMapper.readTree(line);
+			event = IssueEvent.from(delivery.path("delivery").asText(), delivery.path("event").asText(),
+					delivery.path("payload"));
+		}
+		catch (IOException | RuntimeException ex) {
+			return true;
+		}
+		if (event == null) {
+			return true;
+		}
+		Instant updatedAt = event.getIssue().getUpdatedAt();
+		return event.getOrg().equalsIgnoreCase(org) && event.getRepo().equalsIgnoreCase(repo)
+				&& updatedAt != null && !updatedAt.isAfter(lastUpdatedAt);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.journal != null) {
+			synchronized (this.journalMonitor) {
+				this.journal.close();
+			}
+		}
+	}
+
+}
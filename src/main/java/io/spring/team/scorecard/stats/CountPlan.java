@@ -0,0 +1,85 @@
+package io.spring.team.scorecard.stats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Number of issues computed as a sum of search counts, each added or subtracted.
+ * @see QueryPlanner
+ */
+public class CountPlan {
+
+	private static final CountPlan EMPTY = new CountPlan(Collections.emptyList());
+
+	private final List<Term> terms;
+
+	private CountPlan(List<Term> terms) {
+		this.terms = terms;
+	}
+
+	public static CountPlan empty() {
+		return EMPTY;
+	}
+
+	public static CountPlan of(SearchQueryBuilder query) {
+		return new CountPlan(Collections.singletonList(new Term(1, query)));
+	}
+
+	public CountPlan plus(CountPlan other) {
+		return combine(other, 1);
+	}
+
+	public CountPlan minus(CountPlan other) {
+		return combine(other, -1);
+	}
+
+	private CountPlan combine(CountPlan other, int sign) {
+		List<Term> terms = new ArrayList<>(this.terms);
+		other.terms.forEach((term) -> terms.add(new Term(term.sign * sign, term.query)));
+		return new CountPlan(terms);
+	}
+
+	/**
+	 * Return the search queries needed to compute this count.
+	 */
+	public List<SearchQueryBuilder> getQueries() {
+		return this.terms.stream().map((term) -> term.query).collect(Collectors.toList());
+	}
+
+	/**
+	 * Run all the searches of this plan concurrently and sum their counts.
+	 */
+	public Mono<Integer> count(IssueCounter counter) {
+		return Flux.fromIterable(this.terms)
+				.flatMap((term) -> counter.count(term.query).map((count) -> term.sign * count))
+				.reduce(0, Integer::sum);
+	}
+
+	@Override
+	public String toString() {
+		if (this.terms.isEmpty()) {
+			return "0";
+		}
+		return this.terms.stream().map((term) -> ((term.sign > 0) ? "+ " : "- ") + term.query.build().trim())
+				.collect(Collectors.joining(System.lineSeparator()));
+	}
+
+	private static class Term {
+
+		private final int sign;
+
+		private final SearchQueryBuilder query;
+
+		Term(int sign, SearchQueryBuilder query) {
+			this.sign = sign;
+			this.query = query;
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+package io.spring.team.scorecard.stats;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Fixed-size histogram of durations, recorded in seconds into log-linear buckets.
+ * <p>Each power of two is split in {@value #SUB_BUCKETS} buckets of equal width, so percentiles are
+ * accurate within about 6% whatever the scale, from seconds to years, while the histogram always
+ * takes the same memory. Histograms of different periods or repositories can be {@link #merge merged}
+ * without losing accuracy.
+ */
+public final class DurationHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKETS];
+
+	private long count;
+
+	private long sum;
+
+	private long min = Long.MAX_VALUE;
+
+	private long max;
+
+	/**
+	 * Record the given duration, in seconds.
+	 */
+	public void record(long seconds) {
+		long value = Math.max(0, seconds);
+		this.counts[index(value)]++;
+		this.count++;
+		this.sum += value;
+		this.min = Math.min(this.min, value);
+		this.max = Math.max(this.max, value);
+	}
+
+	/**
+	 * Add all the durations recorded by the given histogram to this one.
+	 */
+	public DurationHistogram merge(DurationHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			this.counts[i] += other.counts[i];
+		}
+		this.count += other.count;
+		this.sum += other.sum;
+		this.min = Math.min(this.min, other.min);
+		this.max = Math.max(this.max, other.max);
+		return this;
+	}
+
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Return the mean of the recorded durations, or {@link Duration#ZERO} if none were recorded.
+	 */
+	public Duration getMean() {
+		return (this.count != 0) ? Duration.ofSeconds(this.sum / this.count) : Duration.ZERO;
+	}
+
+	public Duration getMax() {
+		return Duration.ofSeconds(this.max);
+	}
+
+	/**
+	 * Return the duration under which the given fraction of the recorded durations fall,
+	 * or {@link Duration#ZERO} if none were recorded.
+	 * @param percentile the percentile, between 0 and 1
+	 */
+	public Duration getPercentile(double percentile) {
+		if (this.count == 0) {
+			return Duration.ZERO;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile * this.count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += this.counts[i];
+			if (seen >= rank) {
+				return Duration.ofSeconds(Math.max(this.min, Math.min(this.max, upperBound(i))));
+			}
+		}
+		return Duration.ofSeconds(this.max);
+	}
+
+	/**
+	 * Return the count, mean and percentiles of the recorded durations, in seconds.
+	 * This is the JSON representation of the histogram, for scorecards written to files and served over HTTP alike.
+	 */
+	@JsonValue
+	public Map<String, Long> summary() {
+		Map<String, Long> summary = new LinkedHashMap<>();
+		summary.put("count", this.count);
+		summary.put("meanSeconds", getMean().getSeconds());
+		summary.put("p50Seconds", getPercentile(0.5).getSeconds());
+		summary.put("p90Seconds", getPercentile(0.9).getSeconds());
+		summary.put("p99Seconds", getPercentile(0.99).getSeconds());
+		return summary;
+	}
+
+	/**
+	 * Values below {@code 2 * SUB_BUCKETS} get a bucket each, larger values share a bucket
+	 * with the ones having the same {@code SUB_BUCKET_BITS + 1} most significant bits.
+	 */
+	private static int index(long value) {
+		if (value < 2 * SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return shift * SUB_BUCKETS + (int) (value >>> shift);
+	}
+
+	private static long upperBound(int index) {
+		if (index < 2 * SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + this.count + ", mean=" + getMean() + ", p50=" + getPercentile(0.5)
+				+ ", p90=" + getPercentile(0.9) + ", p99=" + getPercentile(0.99);
+	}
+
+}
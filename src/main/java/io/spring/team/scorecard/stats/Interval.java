@@ -0,0 +1,58 @@
+package io.spring.team.scorecard.stats;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Interval used to split a date range into consecutive {@link ReportingPeriod reporting periods}.
+ */
+public enum Interval {
+
+	WEEK {
+		@Override
+		LocalDate endOfPeriod(LocalDate date) {
+			return date.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+		}
+	},
+
+	MONTH {
+		@Override
+		LocalDate endOfPeriod(LocalDate date) {
+			return date.with(TemporalAdjusters.lastDayOfMonth());
+		}
+	},
+
+	QUARTER {
+		@Override
+		LocalDate endOfPeriod(LocalDate date) {
+			LocalDate lastMonth = date.withMonth(date.get(IsoFields.QUARTER_OF_YEAR) * 3);
+			return lastMonth.with(TemporalAdjusters.lastDayOfMonth());
+		}
+	};
+
+	/**
+	 * Return the last day of the week, month or quarter the given day belongs to.
+	 */
+	abstract LocalDate endOfPeriod(LocalDate date);
+
+	/**
+	 * Split the given date range into periods aligned on this interval.
+	 * The first and last periods are truncated to the given range.
+	 */
+	public List<ReportingPeriod> split(LocalDate start, LocalDate end) {
+		List<ReportingPeriod> periods = new ArrayList<>();
+		LocalDate periodStart = start;
+		while (!periodStart.isAfter(end)) {
+			LocalDate periodEnd = endOfPeriod(periodStart);
+			periodEnd = periodEnd.isAfter(end) ? end : periodEnd;
+			periods.add(new ReportingPeriod(periodStart, periodEnd));
+			periodStart = periodEnd.plusDays(1);
+		}
+		return periods;
+	}
+
+}
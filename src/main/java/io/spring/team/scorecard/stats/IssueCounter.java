@@ -0,0 +1,56 @@
+package io.spring.team.scorecard.stats;
+
+import java.util.Collection;
+import java.util.Map;
+
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import io.spring.team.scorecard.issues.Breakdown;
+import io.spring.team.scorecard.issues.IssueColumns.Timespan;
+import io.spring.team.scorecard.issues.IssueEvent;
+import reactor.core.publisher.Mono;
+
+/**
+ * Engine counting the issues and pull requests matching a search query.
+ */
+public interface IssueCounter {
+
+	Mono<Integer> count(SearchQueryBuilder query);
+
+	/**
+	 * Record the given timespan of the issues matching the search query in a histogram.
+	 * Search results only give counts, so this is only supported by counters having access to issue timestamps.
+	 * @return the histogram, or an empty {@code Mono} if this counter does not support it
+	 */
+	default Mono<DurationHistogram> histogram(SearchQueryBuilder query, Timespan timespan) {
+		return Mono.empty();
+	}
+
+	/**
+	 * Count the issues matching the search query by author, by label group and by milestone.
+	 * Search results only give counts, so this is only supported by counters having access to the issues.
+	 * @param anyAuthor the authors to restrict the issues to, {@code null} to keep all of them
+	 * @param labelGroups the labels of each group, keyed by the name of the group
+	 * @return the breakdown, or an empty {@code Mono} if this counter does not support it
+	 */
+	default Mono<Breakdown> breakdown(SearchQueryBuilder query, Collection<String> anyAuthor,
+			Map<String, ? extends Collection<String>> labelGroups) {
+		return Mono.empty();
+	}
+
+	/**
+	 * Apply a change to an issue, so that the next counts reflect it without fetching anything.
+	 * Search results are computed by GitHub, so this is only supported by counters keeping the issues locally.
+	 * @param event the change to the issue
+	 * @return whether the change was applied
+	 */
+	default Mono<Boolean> update(IssueEvent event) {
+		return Mono.just(false);
+	}
+
+	/**
+	 * Forget any state kept between counts, so that the next counts reflect the latest data.
+	 */
+	default void reset() {
+	}
+
+}
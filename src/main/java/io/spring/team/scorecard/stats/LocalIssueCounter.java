@@ -0,0 +1,132 @@
+package io.spring.team.scorecard.stats;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import io.spring.team.scorecard.issues.Breakdown;
+import io.spring.team.scorecard.issues.DailyCounts;
+import io.spring.team.scorecard.issues.IssueColumns;
+import io.spring.team.scorecard.issues.IssueColumns.Timespan;
+import io.spring.team.scorecard.issues.IssueEvent;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link IssueCounter} loading the {@link IssueColumns} of all the issues of the repository once,
+ * and then evaluating search queries locally.
+ * <p>Queries with a single creation or closing date range are answered from {@link DailyCounts}, built once
+ * for all the queries differing only by that range: counting over many periods, like rolling windows
+ * for every day of a year, then takes two lookups per count.
+ * <p>Changes to issues can be applied as they happen, replacing the columns and discarding the daily counts
+ * built from the previous ones.
+ */
+public class LocalIssueCounter implements IssueCounter {
+
+	private final Supplier<Mono<IssueColumns>> loader;
+
+	private final Function<IssueEvent, Mono<IssueColumns>> updater;
+
+	private volatile Mono<Index> index;
+
+	public LocalIssueCounter(Supplier<Mono<IssueColumns>> loader) {
+		this(loader, null);
+	}
+
+	/**
+	 * Create a new counter.
+	 * @param loader loads the columns of all the issues
+	 * @param updater applies a change to an issue and returns the updated columns, {@code null} if not supported
+	 */
+	public LocalIssueCounter(Supplier<Mono<IssueColumns>> loader, Function<IssueEvent, Mono<IssueColumns>> updater) {
+		this.loader = loader;
+		this.updater = updater;
+		this.index = load();
+	}
+
+	private Mono<Index> load() {
+		return this.loader.get().map(Index::new).cache();
+	}
+
+	@Override
+	public Mono<Integer> count(SearchQueryBuilder query) {
+		return this.index.map((index) -> index.count(query));
+	}
+
+	@Override
+	public Mono<DurationHistogram> histogram(SearchQueryBuilder query, Timespan timespan) {
+		return this.index.map((index) -> {
+			DurationHistogram histogram = new DurationHistogram();
+			index.columns.forEachTimespan(query, timespan, histogram::record);
+			return histogram;
+		});
+	}
+
+	@Override
+	public Mono<Breakdown> breakdown(SearchQueryBuilder query, Collection<String> anyAuthor,
+			Map<String, ? extends Collection<String>> labelGroups) {
+		return this.index.map((index) -> index.columns.breakdown(query, anyAuthor, labelGroups));
+	}
+
+	/**
+	 * Apply a change to an issue, once the issues being loaded are. Changes are dropped if the issues are
+	 * reloaded after a {@link #reset()} in the meantime.
+	 */
+	@Override
+	public Mono<Boolean> update(IssueEvent event) {
+		Mono<Index> current = this.index;
+		if (this.updater == null) {
+			return Mono.just(false);
+		}
+		return current.then(Mono.defer(() -> this.updater.apply(event))).map((columns) -> {
+			synchronized (this) {
+				if (this.index != current) {
+					return false;
+				}
+				Index updated = new Index(columns);
+				this.index = Mono.just(updated);
+				return true;
+			}
+		}).defaultIfEmpty(false);
+	}
+
+	@Override
+	public void reset() {
+		synchronized (this) {
+			this.index = load();
+		}
+	}
+
+	private static class Index {
+
+		private final IssueColumns columns;
+
+		private final Map<String, DailyCounts> dailyCounts = new ConcurrentHashMap<>();
+
+		Index(IssueColumns columns) {
+			this.columns = columns;
+		}
+
+		int count(SearchQueryBuilder query) {
+			if (query.getCreated() != null && query.getClosed() == null) {
+				return dailyCounts(query, DailyCounts.Field.CREATED)
+						.count(query.getCreated().getStart(), query.getCreated().getEnd());
+			}
+			if (query.getClosed() != null && query.getCreated() == null) {
+				return dailyCounts(query, DailyCounts.Field.CLOSED)
+						.count(query.getClosed().getStart(), query.getClosed().getEnd());
+			}
+			return this.columns.count(query);
+		}
+
+		private DailyCounts dailyCounts(SearchQueryBuilder query, DailyCounts.Field field) {
+			SearchQueryBuilder anyDate = query.anyDate();
+			return this.dailyCounts.computeIfAbsent(field + " " + anyDate.build(),
+					(key) -> this.columns.dailyCounts(anyDate, field));
+		}
+
+	}
+
+}
@@ -0,0 +1,109 @@
+package io.spring.team.scorecard.stats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Plans the searches needed to count issues matching any of several labels or authors,
+ * using as few queries as GitHub's search syntax allows.
+ * <p>Labels of a group are combined in a single {@code label:"a","b"} term, so that issues
+ * carrying several labels of the group are only counted once. Authors are excluded with
+ * {@code -author:} terms and subtracted from a broader query, which is usually shared with other metrics.
+ * Queries that would exceed the length accepted by GitHub are split.
+ */
+public class QueryPlanner {
+
+	/**
+	 * Maximum length of a GitHub search query.
+	 */
+	public static final int MAX_QUERY_LENGTH = 256;
+
+	private final int maxQueryLength;
+
+	public QueryPlanner() {
+		this(MAX_QUERY_LENGTH);
+	}
+
+	public QueryPlanner(int maxQueryLength) {
+		this.maxQueryLength = maxQueryLength;
+	}
+
+	/**
+	 * Plan counting issues matching the given query and tagged with any of the given labels.
+	 * Labels are only split across queries if they don't fit in one, in which case
+	 * issues with labels from different queries are counted more than once.
+	 */
+	public CountPlan anyLabel(SearchQueryBuilder query, Collection<String> labels) {
+		CountPlan plan = CountPlan.empty();
+		List<String> chunk = new ArrayList<>();
+		for (String label : distinct(labels)) {
+			chunk.add(label);
+			if (chunk.size() > 1 && !fits(query.withAnyLabel(chunk))) {
+				chunk.remove(chunk.size() - 1);
+				plan = plan.plus(CountPlan.of(query.withAnyLabel(chunk)));
+				chunk = new ArrayList<>();
+				chunk.add(label);
+			}
+		}
+		if (!chunk.isEmpty()) {
+			plan = plan.plus(CountPlan.of(query.withAnyLabel(chunk)));
+		}
+		return plan;
+	}
+
+	/**
+	 * Plan counting issues matching the given query and created by any of the given users.
+	 */
+	public CountPlan anyAuthor(SearchQueryBuilder query, Collection<String> authors) {
+		Set<String> distinct = distinct(authors);
+		if (distinct.isEmpty()) {
+			return CountPlan.empty();
+		}
+		if (distinct.size() > 1 && fits(query.ignoringAuthors(distinct))) {
+			return CountPlan.of(query).minus(CountPlan.of(query.ignoringAuthors(distinct)));
+		}
+		return eachAuthor(query, distinct);
+	}
+
+	/**
+	 * Plan counting issues matching the given query and not created by any of the given users.
+	 */
+	public CountPlan excludingAuthors(SearchQueryBuilder query, Collection<String> authors) {
+		Set<String> distinct = distinct(authors);
+		if (distinct.isEmpty()) {
+			return CountPlan.of(query);
+		}
+		if (fits(query.ignoringAuthors(distinct))) {
+			return CountPlan.of(query.ignoringAuthors(distinct));
+		}
+		return CountPlan.of(query).minus(eachAuthor(query, distinct));
+	}
+
+	private CountPlan eachAuthor(SearchQueryBuilder query, Set<String> authors) {
+		CountPlan plan = CountPlan.empty();
+		for (String author : authors) {
+			plan = plan.plus(CountPlan.of(query.author(author)));
+		}
+		return plan;
+	}
+
+	private boolean fits(SearchQueryBuilder query) {
+		return query.build().trim().length() <= this.maxQueryLength;
+	}
+
+	private static Set<String> distinct(Collection<String> values) {
+		Set<String> distinct = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		if (values != null) {
+			values.stream().filter(StringUtils::hasText).forEach(distinct::add);
+		}
+		return distinct;
+	}
+
+}
@@ -0,0 +1,49 @@
+package io.spring.team.scorecard.stats;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link IssueCounter} recording the search queries it is asked for instead of running them,
+ * used to explain which searches a run would send to GitHub.
+ */
+public class RecordingIssueCounter implements IssueCounter {
+
+	private final List<String> requested = new ArrayList<>();
+
+	private final Set<String> queries = new LinkedHashSet<>();
+
+	@Override
+	public synchronized Mono<Integer> count(SearchQueryBuilder query) {
+		String search = query.build().trim();
+		this.requested.add(search);
+		this.queries.add(search);
+		return Mono.just(0);
+	}
+
+	/**
+	 * Return the number of counts requested, including the ones shared by several metrics.
+	 */
+	public synchronized int getRequestedCount() {
+		return this.requested.size();
+	}
+
+	/**
+	 * Return the distinct search queries requested, in order.
+	 */
+	public synchronized List<String> getQueries() {
+		return new ArrayList<>(this.queries);
+	}
+
+	@Override
+	public synchronized void reset() {
+		this.requested.clear();
+		this.queries.clear();
+	}
+
+}
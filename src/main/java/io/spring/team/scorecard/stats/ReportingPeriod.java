@@ -0,0 +1,44 @@
+package io.spring.team.scorecard.stats;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Period of time for which stats are calculated, both bounds are inclusive.
+ */
+public class ReportingPeriod {
+
+	private final LocalDate start;
+
+	private final LocalDate end;
+
+	public ReportingPeriod(LocalDate start, LocalDate end) {
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Return the rolling windows of the given number of days ending on each day of the given range.
+	 */
+	public static List<ReportingPeriod> rolling(LocalDate start, LocalDate end, int days) {
+		List<ReportingPeriod> periods = new ArrayList<>();
+		for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+			periods.add(new ReportingPeriod(day.minusDays(days - 1), day));
+		}
+		return periods;
+	}
+
+	public LocalDate getStart() {
+		return this.start;
+	}
+
+	public LocalDate getEnd() {
+		return this.end;
+	}
+
+	@Override
+	public String toString() {
+		return this.start + " -> " + this.end;
+	}
+}
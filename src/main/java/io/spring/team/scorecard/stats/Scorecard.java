@@ -0,0 +1,132 @@
+package io.spring.team.scorecard.stats;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.spring.team.scorecard.issues.Breakdown;
+
+/**
+ * Stats of a repository for a reporting period.
+ */
+public class Scorecard {
+
+	private final String repository;
+
+	private final ReportingPeriod period;
+
+	private final Integer teamCreated;
+
+	private final Integer inboundVolume;
+
+	private final Map<String, Integer> closedByType;
+
+	private final Map<String, DurationHistogram> durations;
+
+	private final Map<String, Breakdown> breakdowns;
+
+	public Scorecard(String repository, ReportingPeriod period, Integer teamCreated, Integer inboundVolume,
+			Map<String, Integer> closedByType) {
+		this(repository, period, teamCreated, inboundVolume, closedByType, Collections.emptyMap());
+	}
+
+	public Scorecard(String repository, ReportingPeriod period, Integer teamCreated, Integer inboundVolume,
+			Map<String, Integer> closedByType, Map<String, DurationHistogram> durations) {
+		this(repository, period, teamCreated, inboundVolume, closedByType, durations, Collections.emptyMap());
+	}
+
+	public Scorecard(String repository, ReportingPeriod period, Integer teamCreated, Integer inboundVolume,
+			Map<String, Integer> closedByType, Map<String, DurationHistogram> durations,
+			Map<String, Breakdown> breakdowns) {
+		this.repository = repository;
+		this.period = period;
+		this.teamCreated = teamCreated;
+		this.inboundVolume = inboundVolume;
+		this.closedByType = Collections.unmodifiableMap(new LinkedHashMap<>(closedByType));
+		this.durations = Collections.unmodifiableMap(new LinkedHashMap<>(durations));
+		this.breakdowns = Collections.unmodifiableMap(new LinkedHashMap<>(breakdowns));
+	}
+
+	/**
+	 * Return the repository, as "org/name".
+	 */
+	public String getRepository() {
+		return this.repository;
+	}
+
+	public ReportingPeriod getPeriod() {
+		return this.period;
+	}
+
+	/**
+	 * Return the number of issues created by team members during the period, or {@code null} if it is a gap.
+	 */
+	public Integer getTeamCreated() {
+		return this.teamCreated;
+	}
+
+	/**
+	 * Return the number of issues created by the community during the period, or {@code null} if it is a gap.
+	 */
+	public Integer getInboundVolume() {
+		return this.inboundVolume;
+	}
+
+	/**
+	 * Return the number of issues closed during the period for each type, in the order they were requested.
+	 * Types that could not be counted have a {@code null} count.
+	 */
+	public Map<String, Integer> getClosedByType() {
+		return this.closedByType;
+	}
+
+	/**
+	 * Return the distribution of each duration measured during the period, in a stable order.
+	 * Empty if durations could not be computed, as they need the local issue index.
+	 */
+	public Map<String, DurationHistogram> getDurations() {
+		return this.durations;
+	}
+
+	/**
+	 * Return the breakdown of each count, keyed by the name of the count.
+	 * Empty unless breakdowns were requested, as they need the local issue index.
+	 */
+	public Map<String, Breakdown> getBreakdowns() {
+		return this.breakdowns;
+	}
+
+	/**
+	 * Return a copy of this scorecard with the given breakdowns.
+	 */
+	public Scorecard withBreakdowns(Map<String, Breakdown> breakdowns) {
+		return new Scorecard(this.repository, this.period, this.teamCreated, this.inboundVolume, this.closedByType,
+				this.durations, breakdowns);
+	}
+
+	/**
+	 * Return the names of the stats that could not be calculated, in a stable order.
+	 */
+	public List<String> getGaps() {
+		return getStats().entrySet().stream().filter((stat) -> stat.getValue() == null).map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+	}
+
+	public boolean isPartial() {
+		return !getGaps().isEmpty();
+	}
+
+	/**
+	 * Return all the stats as named columns, in a stable order, with {@code null} values for gaps.
+	 */
+	public Map<String, Integer> getStats() {
+		Map<String, Integer> stats = new LinkedHashMap<>();
+		stats.put("Team created", this.teamCreated);
+		stats.put("Inbound Volume", this.inboundVolume);
+		stats.putAll(this.closedByType);
+		return stats;
+	}
+
+}
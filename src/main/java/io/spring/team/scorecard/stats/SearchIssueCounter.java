@@ -0,0 +1,37 @@
+package io.spring.team.scorecard.stats;
+
+import io.spring.team.scorecard.graphql.IssueSearch;
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import io.spring.team.scorecard.graphql.SingleFlightSearch;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link IssueCounter} sending search queries to GitHub.
+ * Identical searches are shared and memoized, so that metrics relying on the same numbers only send each search once.
+ */
+public class SearchIssueCounter implements IssueCounter {
+
+	private final SingleFlightSearch search;
+
+	public SearchIssueCounter(IssueSearch search) {
+		this.search = new SingleFlightSearch(search);
+	}
+
+	/**
+	 * Create a new counter memoizing at most the given number of counts.
+	 */
+	public SearchIssueCounter(IssueSearch search, int maxEntries) {
+		this.search = new SingleFlightSearch(search, maxEntries);
+	}
+
+	@Override
+	public Mono<Integer> count(SearchQueryBuilder query) {
+		return this.search.searchNumberOfIssuesAndPRs(query.build());
+	}
+
+	@Override
+	public void reset() {
+		this.search.clear();
+	}
+
+}
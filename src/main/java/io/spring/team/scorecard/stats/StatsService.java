@@ -1,53 +1,92 @@
 package io.spring.team.scorecard.stats;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.spring.team.scorecard.graphql.GraphQLClient;
 import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import io.spring.team.scorecard.issues.Breakdown;
+import io.spring.team.scorecard.issues.IssueColumns.Timespan;
+import io.spring.team.scorecard.issues.IssueEvent;
+import io.spring.team.scorecard.jfr.FlightRecording;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 public class StatsService {
 
+	private static final Log logger = LogFactory.getLog(StatsService.class);
+
 	private final String org;
 
 	private final String repo;
 
 	private final GraphQLClient client;
 
+	private final IssueCounter counter;
+
+	private final MeterRegistry meterRegistry;
+
+	private final QueryPlanner planner = new QueryPlanner();
+
 	public StatsService(String org, String repo, GraphQLClient client) {
+		this(org, repo, client, new SearchIssueCounter(client::searchNumberOfIssuesAndPRs));
+	}
+
+	public StatsService(String org, String repo, GraphQLClient client, IssueCounter counter) {
+		this(org, repo, client, counter, Metrics.globalRegistry);
+	}
+
+	public StatsService(String org, String repo, GraphQLClient client, IssueCounter counter, MeterRegistry meterRegistry) {
 		this.org = org;
 		this.repo = repo;
 		this.client = client;
+		this.counter = counter;
+		this.meterRegistry = meterRegistry;
 	}
 
 	/**
 	 * Calculate the "Inbound Volume" for the given period.
 	 * "Inbound Volume" = "all issues created" - "issues created by team members" - "issues created by bots"
-	 * Each number is calculated for the issues created during the given period.
+	 * Each number is calculated for the issues created during the given period, with a single search
+	 * excluding team members and bots when possible.
 	 */
 	public Mono<Integer> calculateInboundVolume(LocalDate start, LocalDate end, List<String> membersLogin, List<String> botsLogin) {
-		Mono<Integer> totalCreated = findNumberOfCreatedIssues(start, end);
-		Mono<Integer> createdByTeam = findNumberOfIssuesCreatedByUsers(start, end, membersLogin);
-		Mono<Integer> createdByBots = findNumberOfIssuesCreatedByUsers(start, end, botsLogin);
-		return Mono.zip(totalCreated, createdByBots, createdByTeam)
-				.map((tuple) -> tuple.getT1() - tuple.getT2() - tuple.getT3());
+		List<String> excluded = new ArrayList<>();
+		if (membersLogin != null) {
+			excluded.addAll(membersLogin);
+		}
+		if (botsLogin != null) {
+			excluded.addAll(botsLogin);
+		}
+		SearchQueryBuilder created = SearchQueryBuilder.create(this.org, this.repo).createdBetween(start, end);
+		return timed("calculateInboundVolume", this.planner.excludingAuthors(created, excluded).count(this.counter));
 	}
 
 	/**
 	 * Calculate the "Team created issues count" for the given period.
 	 */
 	public Mono<Integer> teamCreated(LocalDate start, LocalDate end, List<String> membersLogin) {
-		return findNumberOfIssuesCreatedByUsers(start, end, membersLogin);
+		return timed("teamCreated", findNumberOfIssuesCreatedByUsers(start, end, membersLogin));
 	}
 
 	/**
 	 * Calculate the "Rejections" for the given period.
-	 * Sum the number of issues closed for each label in the given list.
+	 * Count the number of issues closed with any label in the given list.
 	 */
 	public Mono<Integer> calculateRejections(LocalDate start, LocalDate end, List<String> rejectionLabels) {
-		return findNumberOfIssuesClosedWithLabels(start, end, rejectionLabels);
+		return timed("calculateRejections", findNumberOfIssuesClosedWithLabels(start, end, rejectionLabels));
 	}
 
 	/**
@@ -57,8 +96,8 @@ public class StatsService {
 	public Mono<Integer> calculateAdjustedInboundVolume(LocalDate start, LocalDate end) {
 		Mono<Integer> totalCreated = this.findNumberOfCreatedIssues(start, end);
 		Mono<Integer> closedWithoutMilestone = findNumberOfIssuesCreatedAndClosedWithoutMilestone(start, end);
-		return Mono.zip(totalCreated, closedWithoutMilestone)
-				.map((tuple) -> tuple.getT1() - tuple.getT2());
+		return timed("calculateAdjustedInboundVolume", Mono.zip(totalCreated, closedWithoutMilestone)
+				.map((tuple) -> tuple.getT1() - tuple.getT2()));
 	}
 
 	/**
@@ -71,8 +110,8 @@ public class StatsService {
 		Mono<Integer> totalClosed = this.findNumberOfIssuesCreatedAndClosed(start, end);
 		Mono<Integer> closedWithoutMilestone = this.findNumberOfIssuesCreatedAndClosedWithoutMilestone(start, end);
 		Mono<Integer> closedAsPorts = this.findNumberOfIssuesClosedWithLabels(start, end, portsLabels);
-		return Mono.zip(totalClosed, closedWithoutMilestone, closedAsPorts)
-				.map((tuple) -> tuple.getT1() - tuple.getT2() - tuple.getT3());
+		return timed("calculateOutputVolume", Mono.zip(totalClosed, closedWithoutMilestone, closedAsPorts)
+				.map((tuple) -> tuple.getT1() - tuple.getT2() - tuple.getT3()));
 	}
 
 	/**
@@ -80,27 +119,156 @@ public class StatsService {
 	 * "Output Volume for Type 'bugs'" = "Number of issues closed with milestone and tagged with one of the 'bugs'-related tags"
 	 */
 	public Mono<Integer> calculateOutputVolumeByType(LocalDate start, LocalDate end, List<String> typeLabels) {
-		return this.findNumberOfIssuesClosedWithLabels(start, end, typeLabels);
+		return timed("calculateOutputVolumeByType", this.findNumberOfIssuesClosedWithLabels(start, end, typeLabels));
+	}
+
+	/**
+	 * Calculate the "Time to first response" distribution for the given period: how long issues created
+	 * by the community during the period waited for a comment from a team member, other than the author and the bots
+	 * of the project. The comments of anyone count if the indexed issues were not given the team members.
+	 * Issues without any response yet are not part of the distribution, nor issues whose response could be
+	 * past the comments fetched with them.
+	 * @return the distribution, or an empty {@code Mono} if the {@link IssueCounter} can't compute it
+	 */
+	public Mono<DurationHistogram> calculateTimeToFirstResponse(LocalDate start, LocalDate end,
+			List<String> membersLogin, List<String> botsLogin) {
+		List<String> excluded = new ArrayList<>();
+		if (membersLogin != null) {
+			excluded.addAll(membersLogin);
+		}
+		if (botsLogin != null) {
+			excluded.addAll(botsLogin);
+		}
+		SearchQueryBuilder query = SearchQueryBuilder.create(this.org, this.repo).createdBetween(start, end)
+				.ignoringAuthors(excluded);
+		return timed("calculateTimeToFirstResponse", this.counter.histogram(query, Timespan.TIME_TO_FIRST_RESPONSE));
+	}
+
+	/**
+	 * Calculate the "Time to close" distribution for the given period: how long issues closed during the period
+	 * with any of the given labels stayed open.
+	 * @return the distribution, or an empty {@code Mono} if the {@link IssueCounter} can't compute it
+	 */
+	public Mono<DurationHistogram> calculateTimeToClose(LocalDate start, LocalDate end, List<String> labels) {
+		if (labels == null || labels.isEmpty()) {
+			return Mono.empty();
+		}
+		SearchQueryBuilder query = SearchQueryBuilder.create(this.org, this.repo).closedBetween(start, end)
+				.withAnyLabel(labels);
+		return timed("calculateTimeToClose", this.counter.histogram(query, Timespan.TIME_TO_CLOSE));
+	}
+
+	/**
+	 * Calculate all the stats of the {@link Scorecard} for the given period.
+	 * Every metric is requested concurrently, so the scorecard is complete as soon as the slowest one is.
+	 * Durations are only part of the scorecard if the {@link IssueCounter} can compute them.
+	 * @param closedTypes the labels of each type of closed issues to count, keyed by the name of the type
+	 */
+	public Mono<Scorecard> calculateScorecard(ReportingPeriod period, List<String> membersLogin, List<String> botsLogin,
+			Map<String, List<String>> closedTypes) {
+		return calculateScorecard(period, membersLogin, botsLogin, closedTypes, false);
+	}
+
+	/**
+	 * Calculate all the stats of the {@link Scorecard} for the given period.
+	 * Every metric is requested concurrently, so the scorecard is complete as soon as the slowest one is.
+	 * Durations are only part of the scorecard if the {@link IssueCounter} can compute them.
+	 * @param closedTypes the labels of each type of closed issues to count, keyed by the name of the type
+	 * @param partial whether a metric that fails should be reported as a gap in the scorecard,
+	 * instead of failing the whole scorecard
+	 */
+	public Mono<Scorecard> calculateScorecard(ReportingPeriod period, List<String> membersLogin, List<String> botsLogin,
+			Map<String, List<String>> closedTypes, boolean partial) {
+		LocalDate start = period.getStart();
+		LocalDate end = period.getEnd();
+		Mono<Optional<Integer>> teamCreated = orGap("Team created", teamCreated(start, end, membersLogin), partial);
+		Mono<Optional<Integer>> inboundVolume = orGap("Inbound Volume",
+				calculateInboundVolume(start, end, membersLogin, botsLogin), partial);
+		Mono<Map<String, Integer>> closedByType = Flux.fromIterable(closedTypes.entrySet())
+				.flatMapSequential((type) -> orGap(type.getKey(), calculateOutputVolumeByType(start, end, type.getValue()), partial)
+						.map((count) -> Tuples.of(type.getKey(), count)))
+				.collect(LinkedHashMap::new, (counts, count) -> counts.put(count.getT1(), count.getT2().orElse(null)));
+		Mono<Map<String, DurationHistogram>> durations = Flux.concat(
+				calculateTimeToFirstResponse(start, end, membersLogin, botsLogin)
+						.map((histogram) -> Tuples.of("Time to first response", histogram)),
+				Flux.fromIterable(closedTypes.entrySet())
+						.flatMapSequential((type) -> calculateTimeToClose(start, end, type.getValue())
+								.map((histogram) -> Tuples.of("Time to close " + type.getKey(), histogram))))
+				.collectMap(Tuple2::getT1, Tuple2::getT2, LinkedHashMap::new);
+		if (partial) {
+			durations = durations.onErrorResume((ex) -> {
+				logger.warn("Could not calculate durations for " + this.org + "/" + this.repo + " " + period, ex);
+				return Mono.just(Collections.emptyMap());
+			});
+		}
+		return timed("calculateScorecard", Mono.zip(teamCreated, inboundVolume, closedByType, durations)
+				.map((tuple) -> new Scorecard(this.org + "/" + this.repo, period, tuple.getT1().orElse(null),
+						tuple.getT2().orElse(null), tuple.getT3(), tuple.getT4())));
+	}
+
+	/**
+	 * Wrap the result of the given metric so that, in a partial scorecard, a failure is reported as an empty value.
+	 * A metric completing without any value is always reported as an empty value, so that it keeps its column.
+	 */
+	private <T> Mono<Optional<T>> orGap(String metric, Mono<T> value, boolean partial) {
+		Mono<Optional<T>> result = value.map(Optional::of).defaultIfEmpty(Optional.empty());
+		if (!partial) {
+			return result;
+		}
+		return result.onErrorResume((ex) -> {
+			logger.warn("Could not calculate " + metric + " for " + this.org + "/" + this.repo + ", reporting a gap", ex);
+			return Mono.just(Optional.empty());
+		});
+	}
+
+	/**
+	 * Calculate the breakdown of each count of the {@link Scorecard} for the given period, by author, by label group
+	 * and by milestone. Each count is broken down with a single evaluation of its issues, grouping them
+	 * in one pass instead of counting each group separately. The closed types that have labels are used as label groups.
+	 * @return the breakdowns keyed by the name of the count, empty if the {@link IssueCounter} can't compute them
+	 */
+	public Mono<Map<String, Breakdown>> calculateBreakdowns(ReportingPeriod period, List<String> membersLogin,
+			List<String> botsLogin, Map<String, List<String>> closedTypes) {
+		List<String> members = (membersLogin != null) ? membersLogin : new ArrayList<>();
+		List<String> excluded = new ArrayList<>(members);
+		if (botsLogin != null) {
+			excluded.addAll(botsLogin);
+		}
+		Map<String, List<String>> labelGroups = new LinkedHashMap<>();
+		closedTypes.forEach((type, labels) -> {
+			if (labels != null && !labels.isEmpty()) {
+				labelGroups.put(type, labels);
+			}
+		});
+		SearchQueryBuilder created = SearchQueryBuilder.create(this.org, this.repo)
+				.createdBetween(period.getStart(), period.getEnd());
+		SearchQueryBuilder closed = SearchQueryBuilder.create(this.org, this.repo)
+				.closedBetween(period.getStart(), period.getEnd());
+		Mono<Tuple2<String, Breakdown>> teamCreated = this.counter.breakdown(created, members, labelGroups)
+				.map((breakdown) -> Tuples.of("Team created", breakdown));
+		Mono<Tuple2<String, Breakdown>> inboundVolume = this.counter.breakdown(created.ignoringAuthors(excluded), null, labelGroups)
+				.map((breakdown) -> Tuples.of("Inbound Volume", breakdown));
+		Flux<Tuple2<String, Breakdown>> closedByType = Flux.fromIterable(labelGroups.entrySet())
+				.flatMapSequential((type) -> this.counter.breakdown(closed.withAnyLabel(type.getValue()), null, labelGroups)
+						.map((breakdown) -> Tuples.of(type.getKey(), breakdown)));
+		return timed("calculateBreakdowns", Flux.concat(teamCreated, inboundVolume, closedByType)
+				.collectMap(Tuple2::getT1, Tuple2::getT2, LinkedHashMap::new));
 	}
 
 	/**
 	 * Number of issues created during the given period.
 	 */
 	public Mono<Integer> findNumberOfCreatedIssues(LocalDate start, LocalDate end) {
-		String query = SearchQueryBuilder.create(this.org, this.repo).createdBetween(start, end).build();
-		return this.client.searchNumberOfIssuesAndPRs(query);
+		SearchQueryBuilder query = SearchQueryBuilder.create(this.org, this.repo).createdBetween(start, end);
+		return this.counter.count(query);
 	}
 
 	/**
 	 * Number of issues created during the period, authored by any of the given user logins.
 	 */
 	public Mono<Integer> findNumberOfIssuesCreatedByUsers(LocalDate start, LocalDate end, List<String> logins) {
-		return Flux.fromIterable(logins)
-				.flatMap(login -> {
-					String query = SearchQueryBuilder.create(this.org, this.repo)
-							.author(login).createdBetween(start, end).build();
-					return this.client.searchNumberOfIssuesAndPRs(query);
-				}).reduce(Integer::sum);
+		SearchQueryBuilder query = SearchQueryBuilder.create(this.org, this.repo).createdBetween(start, end);
+		return this.planner.anyAuthor(query, logins).count(this.counter);
 	}
 
 	/**
@@ -108,21 +276,17 @@ public class StatsService {
 	 * Note: the issues might have been created before the given period.
 	 */
 	public Mono<Integer> findNumberOfIssuesClosedWithLabels(LocalDate start, LocalDate end, List<String> labels) {
-		return Flux.fromIterable(labels)
-				.flatMap(label -> {
-					String query = SearchQueryBuilder.create(this.org, this.repo)
-							.withLabel(label).closedBetween(start, end).build();
-					return this.client.searchNumberOfIssuesAndPRs(query);
-				}).reduce(Integer::sum);
+		SearchQueryBuilder query = SearchQueryBuilder.create(this.org, this.repo).closedBetween(start, end);
+		return this.planner.anyLabel(query, labels).count(this.counter);
 	}
 
 	/**
 	 * Number of issues created during the given period, and then closed without milestone during the same period.
 	 */
 	public Mono<Integer> findNumberOfIssuesCreatedAndClosedWithoutMilestone(LocalDate start, LocalDate end) {
-		String query = SearchQueryBuilder.create(this.org, this.repo).createdBetween(start, end)
-				.closedBetween(start, end).notMilestoned().build();
-		return this.client.searchNumberOfIssuesAndPRs(query);
+		SearchQueryBuilder query = SearchQueryBuilder.create(this.org, this.repo).createdBetween(start, end)
+				.closedBetween(start, end).notMilestoned();
+		return this.counter.count(query);
 	}
 
 	/**
@@ -130,11 +294,11 @@ public class StatsService {
 	 * For that, we need to find the number of issues that are still open, or that were closed after the given period.
 	 */
 	public Mono<Integer> findNumberOfIssuesCreatedAndOpen(LocalDate start, LocalDate end) {
-		String stillOpened = SearchQueryBuilder.create(this.org, this.repo).createdBetween(start, end)
-				.isOpen().build();
-		String closedLater = SearchQueryBuilder.create(this.org, this.repo).createdBetween(start, end)
-				.closedAfter(end).build();
-		return Mono.zip(this.client.searchNumberOfIssuesAndPRs(stillOpened), this.client.searchNumberOfIssuesAndPRs(closedLater))
+		SearchQueryBuilder stillOpened = SearchQueryBuilder.create(this.org, this.repo).createdBetween(start, end)
+				.isOpen();
+		SearchQueryBuilder closedLater = SearchQueryBuilder.create(this.org, this.repo).createdBetween(start, end)
+				.closedAfter(end);
+		return Mono.zip(this.counter.count(stillOpened), this.counter.count(closedLater))
 				.map(tuple -> tuple.getT1() + tuple.getT2());
 	}
 
@@ -142,9 +306,40 @@ public class StatsService {
 	 * Number of issues created during the given period, and then closed during the same period.
 	 */
 	public Mono<Integer> findNumberOfIssuesCreatedAndClosed(LocalDate start, LocalDate end) {
-		String query = SearchQueryBuilder.create(this.org, this.repo)
-				.createdBetween(start, end).closedBetween(start, end).build();
-		return this.client.searchNumberOfIssuesAndPRs(query);
+		SearchQueryBuilder query = SearchQueryBuilder.create(this.org, this.repo)
+				.createdBetween(start, end).closedBetween(start, end);
+		return this.counter.count(query);
+	}
+
+	/**
+	 * Record the time taken to compute the given metric, also as a Flight Recorder event.
+	 */
+	private <T> Mono<T> timed(String metric, Mono<T> computation) {
+		return FlightRecording.recordMetric(metric, this.org + "/" + this.repo, Mono.defer(() -> {
+			Timer.Sample sample = Timer.start(this.meterRegistry);
+			return computation.doFinally((signal) -> sample.stop(Timer.builder("scorecard.stats")
+					.description("Computation of scorecard metrics")
+					.tag("metric", metric)
+					.tag("repository", this.org + "/" + this.repo)
+					.publishPercentiles(0.5, 0.9, 0.99)
+					.register(this.meterRegistry)));
+		}));
+	}
+
+	/**
+	 * Forget the counts memoized so far by the {@link IssueCounter}.
+	 */
+	public void reset() {
+		this.counter.reset();
+	}
+
+	/**
+	 * Apply a change to an issue of the repository to the counts, without fetching anything from GitHub.
+	 * @param event the change to the issue
+	 * @return whether the change was applied, it isn't if counts are searched on GitHub
+	 */
+	public Mono<Boolean> update(IssueEvent event) {
+		return this.counter.update(event);
 	}
 
 	public Flux<String> findAssignableUsers() {
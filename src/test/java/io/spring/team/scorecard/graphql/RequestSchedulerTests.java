@@ -0,0 +1,117 @@
+package io.spring.team.scorecard.graphql;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RequestScheduler}.
+ */
+class RequestSchedulerTests {
+
+	private static final Instant NOW = Instant.parse("2020-06-01T12:00:00Z");
+
+	private static final Instant RESET_AT = NOW.plusSeconds(600);
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private final RequestScheduler scheduler = new RequestScheduler(4, 30, 0, Duration.ofMillis(1),
+			new SimpleMeterRegistry(), Clock.fixed(NOW, ZoneOffset.UTC));
+
+	private final Map<String, String> headers = new HashMap<>();
+
+	@Test
+	void pacedSearchDoesNotHoldBackOtherRequests() {
+		RequestScheduler scheduler = new RequestScheduler(1, 1, 0, Duration.ofMillis(1), new SimpleMeterRegistry(),
+				Clock.fixed(NOW, ZoneOffset.UTC));
+		assertThat(scheduler.schedule(true, Mono.just("first")).block(TIMEOUT)).isEqualTo("first");
+		// the next search slot is a minute away
+		Disposable paced = scheduler.schedule(true, Mono.just("paced")).subscribe();
+		try {
+			assertThat(scheduler.schedule(false, Mono.just("other")).block(TIMEOUT)).isEqualTo("other");
+		}
+		finally {
+			paced.dispose();
+		}
+	}
+
+	@Test
+	void pausedRequestDoesNotHoldBackOtherRequests() {
+		RequestScheduler scheduler = new RequestScheduler(1, 30, 0, Duration.ofMillis(1), new SimpleMeterRegistry(),
+				Clock.fixed(NOW, ZoneOffset.UTC));
+		Disposable paused = scheduler.schedule(false, () -> Duration.ofHours(1), Mono.just("paused")).subscribe();
+		try {
+			assertThat(scheduler.schedule(false, Mono.just("other")).block(TIMEOUT)).isEqualTo("other");
+		}
+		finally {
+			paused.dispose();
+		}
+	}
+
+	@Test
+	void checkSuccessfulResponse() {
+		this.headers.put("X-RateLimit-Remaining", "4999");
+		this.headers.put("X-RateLimit-Reset", String.valueOf(RESET_AT.getEpochSecond()));
+		assertThat(this.scheduler.checkResponse(200, this.headers::get)).isNull();
+	}
+
+	@Test
+	void checkResponseWithRetryAfterSeconds() {
+		this.headers.put("Retry-After", "30");
+		RateLimitExceededException throttled = this.scheduler.checkResponse(403, this.headers::get);
+		assertThat(throttled).isNotNull();
+		assertThat(throttled.getRetryAt()).isEqualTo(NOW.plusSeconds(30));
+	}
+
+	@Test
+	void checkResponseWithRetryAfterDate() {
+		this.headers.put("Retry-After", "Mon, 01 Jun 2020 12:05:00 GMT");
+		RateLimitExceededException throttled = this.scheduler.checkResponse(403, this.headers::get);
+		assertThat(throttled.getRetryAt()).isEqualTo(NOW.plusSeconds(300));
+	}
+
+	@Test
+	void checkResponseWithUnparseableRetryAfterFallsBackToReset() {
+		this.headers.put("Retry-After", "soon");
+		this.headers.put("X-RateLimit-Reset", String.valueOf(RESET_AT.getEpochSecond()));
+		RateLimitExceededException throttled = this.scheduler.checkResponse(429, this.headers::get);
+		assertThat(throttled.getRetryAt()).isEqualTo(RESET_AT);
+	}
+
+	@Test
+	void checkForbiddenResponseWithRemainingBudget() {
+		this.headers.put("X-RateLimit-Remaining", "5");
+		this.headers.put("X-RateLimit-Reset", String.valueOf(RESET_AT.getEpochSecond()));
+		assertThat(this.scheduler.checkResponse(403, this.headers::get)).isNull();
+	}
+
+	@Test
+	void checkForbiddenResponseWithExhaustedBudget() {
+		this.headers.put("X-RateLimit-Remaining", "0");
+		this.headers.put("X-RateLimit-Reset", String.valueOf(RESET_AT.getEpochSecond()));
+		RateLimitExceededException throttled = this.scheduler.checkResponse(403, this.headers::get);
+		assertThat(throttled.getRetryAt()).isEqualTo(RESET_AT);
+	}
+
+	@Test
+	void retryAtWithoutUsableHeader() {
+		assertThat(this.scheduler.retryAt(null)).isNull();
+		assertThat(this.scheduler.retryAt("garbage")).isNull();
+	}
+
+	@Test
+	void retryAtWithNegativeSeconds() {
+		assertThat(this.scheduler.retryAt("-5")).isEqualTo(NOW);
+	}
+
+}
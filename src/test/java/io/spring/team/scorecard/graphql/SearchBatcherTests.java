@@ -0,0 +1,126 @@
+package io.spring.team.scorecard.graphql;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.apollographql.apollo.exception.ApolloException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link SearchBatcher}.
+ */
+class SearchBatcherTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+
+	private final RequestScheduler scheduler = new RequestScheduler(4, 60_000, 0, Duration.ofMillis(1),
+			new SimpleMeterRegistry());
+
+	private final GraphQLClient client = new GraphQLClient((body) -> Mono.fromCallable(() -> respond(body)),
+			this.scheduler, new SimpleMeterRegistry());
+
+	private SearchBatcher batcher;
+
+	@AfterEach
+	void close() {
+		if (this.batcher != null) {
+			this.batcher.close();
+		}
+	}
+
+	@Test
+	void searchesAreSentInOneBatch() {
+		this.batcher = new SearchBatcher(this.client, 3, Duration.ofMinutes(1), 1);
+		Tuple3<Integer, Integer, Integer> counts = Mono.zip(search("repo:spring-projects/spring-boot is:issue"),
+				search("repo:spring-projects/spring-boot is:pr"), search("repo:spring-projects/spring-boot is:issue"))
+				.block(TIMEOUT);
+		assertThat(counts.getT1()).isEqualTo(41);
+		assertThat(counts.getT2()).isEqualTo(38);
+		assertThat(counts.getT3()).isEqualTo(41);
+		assertThat(this.requests).hasSize(1);
+		assertThat(this.requests.get(0).path("variables").size()).isEqualTo(2);
+	}
+
+	@Test
+	void batchIsFlushedAfterMaxWait() {
+		this.batcher = new SearchBatcher(this.client, 10, Duration.ofMillis(50), 1);
+		assertThat(search("repo:spring-projects/spring-boot is:pr").block(TIMEOUT)).isEqualTo(38);
+		assertThat(this.requests).hasSize(1);
+		assertThat(this.requests.get(0).path("variables").size()).isEqualTo(1);
+	}
+
+	@Test
+	void searchesOfDifferentRepositoriesAreBatchedSeparately() {
+		this.batcher = new SearchBatcher(this.client, 2, Duration.ofMillis(50), 1);
+		Mono.zip(search("repo:spring-projects/spring-boot is:pr"), search("repo:spring-projects/spring-data is:pr"))
+				.block(TIMEOUT);
+		assertThat(this.requests).hasSize(2);
+	}
+
+	@Test
+	void errorIsRoutedToTheFailedQueryOnly() {
+		this.batcher = new SearchBatcher(this.client, 2, Duration.ofMinutes(1), 1);
+		Mono<Integer> valid = search("repo:spring-projects/spring-boot is:pr").cache();
+		Mono<Integer> invalid = search("repo:spring-projects/spring-boot invalid:true").cache();
+		valid.subscribe((count) -> { }, (ex) -> { });
+		assertThatExceptionOfType(ApolloException.class).isThrownBy(() -> invalid.block(TIMEOUT))
+				.withMessageContaining("invalid:true").withMessageContaining("Invalid search query");
+		assertThat(valid.block(TIMEOUT)).isEqualTo(38);
+		assertThat(this.requests).hasSize(1);
+	}
+
+	@Test
+	void cancelledSearchIsDroppedFromItsBatch() {
+		this.batcher = new SearchBatcher(this.client, 2, Duration.ofMinutes(1), 1);
+		Disposable cancelled = search("repo:spring-projects/spring-boot is:issue").subscribe();
+		cancelled.dispose();
+		assertThat(search("repo:spring-projects/spring-boot is:pr").block(TIMEOUT)).isEqualTo(38);
+		assertThat(this.requests).hasSize(1);
+		assertThat(this.requests.get(0).path("variables").size()).isEqualTo(1);
+	}
+
+	private Mono<Integer> search(String query) {
+		return this.batcher.searchNumberOfIssuesAndPRs(query);
+	}
+
+	/**
+	 * Answer a batch with the length of each query as its count, and an error for invalid queries.
+	 */
+	private byte[] respond(byte[] body) throws IOException {
+		JsonNode request = this.objectMapper.readTree(body);
+		this.requests.add(request);
+		ObjectNode response = this.objectMapper.createObjectNode();
+		ObjectNode data = response.putObject("data");
+		request.path("variables").fields().forEachRemaining((variable) -> {
+			String query = variable.getValue().asText();
+			if (query.contains("invalid:")) {
+				data.putNull(variable.getKey());
+				response.withArray("errors").addObject().put("message", "Invalid search query").putArray("path")
+						.add(variable.getKey());
+			}
+			else {
+				data.putObject(variable.getKey()).put("issueCount", query.length());
+			}
+		});
+		data.putObject("rateLimit").put("cost", 1).put("remaining", 4999).put("resetAt", "2020-06-01T13:00:00Z");
+		return this.objectMapper.writeValueAsBytes(response);
+	}
+
+}
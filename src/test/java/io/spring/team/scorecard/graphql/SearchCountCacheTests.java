@@ -0,0 +1,111 @@
+package io.spring.team.scorecard.graphql;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SearchCountCache}.
+ */
+class SearchCountCacheTests {
+
+	private static final Instant NOW = Instant.parse("2020-06-01T12:00:00Z");
+
+	private static final String JANUARY = "repo:spring-projects/spring-boot created:2020-01-01..2020-01-31";
+
+	private static final String LAST_WEEK = "repo:spring-projects/spring-boot closed:2020-05-25..2020-05-31";
+
+	private final AtomicInteger searches = new AtomicInteger();
+
+	private final IssueSearch delegate = (query) -> Mono.fromCallable(this.searches::incrementAndGet);
+
+	@TempDir
+	Path temp;
+
+	@Test
+	void windowEndOfDateRanges() {
+		assertThat(SearchCountCache.windowEnd(JANUARY)).isEqualTo(LocalDate.of(2020, 1, 31));
+		assertThat(SearchCountCache.windowEnd("repo:spring-projects/spring-boot closed:<2020-02-01"))
+				.isEqualTo(LocalDate.of(2020, 1, 31));
+		assertThat(SearchCountCache.windowEnd("repo:spring-projects/spring-boot closed:<=2020-02-01"))
+				.isEqualTo(LocalDate.of(2020, 2, 1));
+		assertThat(SearchCountCache.windowEnd(JANUARY + " closed:2020-02-01..2020-02-29"))
+				.isEqualTo(LocalDate.of(2020, 2, 29));
+	}
+
+	@Test
+	void windowEndOfOpenEndedQueries() {
+		assertThat(SearchCountCache.windowEnd("repo:spring-projects/spring-boot")).isNull();
+		assertThat(SearchCountCache.windowEnd("repo:spring-projects/spring-boot created:>=2020-01-01")).isNull();
+		assertThat(SearchCountCache.windowEnd(JANUARY + " closed:>=2020-02-01")).isNull();
+		assertThat(SearchCountCache.windowEnd(JANUARY + " is:open")).isNull();
+	}
+
+	@Test
+	void normalizeSortsTerms() {
+		String query = "repo:spring-projects/spring-boot  label:\"type: bug\" -author:alice is:closed ";
+		String reordered = "is:closed -author:alice repo:spring-projects/spring-boot label:\"type: bug\"";
+		assertThat(SearchCountCache.normalize(query)).isEqualTo(SearchCountCache.normalize(reordered))
+				.isEqualTo("-author:alice is:closed label:\"type: bug\" repo:spring-projects/spring-boot");
+	}
+
+	@Test
+	void reorderedQueryHitsTheSameEntry() {
+		SearchCountCache cache = cache(NOW);
+		assertThat(cache.searchNumberOfIssuesAndPRs(JANUARY + " is:issue").block()).isEqualTo(1);
+		assertThat(cache.searchNumberOfIssuesAndPRs("is:issue " + JANUARY).block()).isEqualTo(1);
+		assertThat(this.searches).hasValue(1);
+	}
+
+	@Test
+	void settledCountIsStoredWithoutClosingAndKeptPermanently() {
+		cache(NOW).searchNumberOfIssuesAndPRs(JANUARY).block();
+		assertThat(Files.exists(this.temp.resolve("search-cache.json"))).isTrue();
+		SearchCountCache nextYear = cache(NOW.plus(Duration.ofDays(365)));
+		assertThat(nextYear.searchNumberOfIssuesAndPRs(JANUARY).block()).isEqualTo(1);
+		assertThat(this.searches).hasValue(1);
+	}
+
+	@Test
+	void unsettledCountExpires() {
+		cache(NOW).searchNumberOfIssuesAndPRs(LAST_WEEK).block();
+		assertThat(cache(NOW.plus(Duration.ofMinutes(5))).searchNumberOfIssuesAndPRs(LAST_WEEK).block()).isEqualTo(1);
+		assertThat(cache(NOW.plus(Duration.ofMinutes(11))).searchNumberOfIssuesAndPRs(LAST_WEEK).block()).isEqualTo(2);
+		assertThat(this.searches).hasValue(2);
+	}
+
+	@Test
+	void countOfOpenIssuesExpires() {
+		String query = JANUARY + " is:open";
+		cache(NOW).searchNumberOfIssuesAndPRs(query).block();
+		assertThat(cache(NOW.plus(Duration.ofMinutes(11))).searchNumberOfIssuesAndPRs(query).block()).isEqualTo(2);
+	}
+
+	@Test
+	void closeWritesTheCache() throws IOException {
+		Path file = this.temp.resolve("closed-cache.json");
+		SearchCountCache cache = new SearchCountCache(this.delegate, file, 100, Duration.ofDays(7),
+				Duration.ofMinutes(10), Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC));
+		cache.searchNumberOfIssuesAndPRs(JANUARY).block();
+		cache.close();
+		assertThat(new String(Files.readAllBytes(file))).contains("created:2020-01-01..2020-01-31");
+	}
+
+	private SearchCountCache cache(Instant now) {
+		return new SearchCountCache(this.delegate, this.temp.resolve("search-cache.json"), 100, Duration.ofDays(7),
+				Duration.ofMinutes(10), Duration.ZERO, Clock.fixed(now, ZoneOffset.UTC));
+	}
+
+}
@@ -0,0 +1,32 @@
+package io.spring.team.scorecard.graphql;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SearchQueryBuilder}.
+ */
+class SearchQueryBuilderTests {
+
+	@Test
+	void withAnyLabelAddsToPreviousLabels() {
+		SearchQueryBuilder query = SearchQueryBuilder.create("spring-projects", "spring-boot")
+				.withAnyLabel(Arrays.asList("type: bug", "type: regression"))
+				.withAnyLabel(Collections.singleton("Type: Bug"))
+				.withAnyLabel(Collections.singleton("type: enhancement"));
+		assertThat(query.build()).isEqualTo("repo:spring-projects/spring-boot "
+				+ "label:\"type: bug\",\"type: enhancement\",\"type: regression\" ");
+	}
+
+	@Test
+	void withAnyLabelLeavesOriginalQueryUnchanged() {
+		SearchQueryBuilder query = SearchQueryBuilder.create("spring-projects", "spring-boot");
+		query.withAnyLabel(Collections.singleton("type: bug"));
+		assertThat(query.getAnyLabels()).isEmpty();
+	}
+
+}
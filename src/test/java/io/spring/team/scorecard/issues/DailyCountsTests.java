@@ -0,0 +1,81 @@
+package io.spring.team.scorecard.issues;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DailyCounts}.
+ */
+class DailyCountsTests {
+
+	private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+
+	@Test
+	void countBetweenDays() {
+		// 2 issues on day 0, none on day 1, 3 on day 2
+		DailyCounts counts = new DailyCounts(FIRST_DAY.toEpochDay(), new int[] { 0, 2, 2, 5 });
+		assertThat(counts.total()).isEqualTo(5);
+		assertThat(counts.count(FIRST_DAY, FIRST_DAY)).isEqualTo(2);
+		assertThat(counts.count(FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(1))).isZero();
+		assertThat(counts.count(FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(2))).isEqualTo(3);
+	}
+
+	@Test
+	void countWithOpenBounds() {
+		DailyCounts counts = new DailyCounts(FIRST_DAY.toEpochDay(), new int[] { 0, 2, 2, 5 });
+		assertThat(counts.count(null, null)).isEqualTo(5);
+		assertThat(counts.count(null, FIRST_DAY)).isEqualTo(2);
+		assertThat(counts.count(FIRST_DAY.plusDays(1), null)).isEqualTo(3);
+	}
+
+	@Test
+	void countOutsideOfTheCountedDays() {
+		DailyCounts counts = new DailyCounts(FIRST_DAY.toEpochDay(), new int[] { 0, 2, 2, 5 });
+		assertThat(counts.count(FIRST_DAY.minusYears(1), FIRST_DAY.minusDays(1))).isZero();
+		assertThat(counts.count(FIRST_DAY.plusDays(3), FIRST_DAY.plusYears(1))).isZero();
+		assertThat(counts.count(FIRST_DAY.minusYears(1), FIRST_DAY.plusYears(1))).isEqualTo(5);
+		assertThat(counts.count(FIRST_DAY.plusDays(2), FIRST_DAY)).isZero();
+	}
+
+	@Test
+	void dailyCountsMatchColumnCounts() {
+		List<Issue> issues = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			Instant createdAt = FIRST_DAY.plusDays(i % 37).atStartOfDay(ZoneOffset.UTC).toInstant().plusSeconds(i);
+			Instant closedAt = (i % 3 == 0) ? createdAt.plusSeconds(86400L * (i % 11)) : null;
+			issues.add(new Issue(i, i % 2 == 0, "user" + (i % 5), createdAt, closedAt, createdAt,
+					Collections.singleton((i % 4 == 0) ? "type: bug" : "type: enhancement"), null));
+		}
+		IssueColumns columns = IssueColumns.of(issues);
+		SearchQueryBuilder bugs = SearchQueryBuilder.create("spring-projects", "spring-boot").withLabel("type: bug");
+		DailyCounts created = columns.dailyCounts(bugs, DailyCounts.Field.CREATED);
+		DailyCounts closed = columns.dailyCounts(bugs, DailyCounts.Field.CLOSED);
+		for (int start = -2; start < 50; start += 3) {
+			for (int length = 0; length < 20; length += 4) {
+				LocalDate from = FIRST_DAY.plusDays(start);
+				LocalDate to = from.plusDays(length);
+				assertThat(created.count(from, to)).isEqualTo(columns.count(bugs.createdBetween(from, to)));
+				assertThat(closed.count(from, to)).isEqualTo(columns.count(bugs.closedBetween(from, to)));
+			}
+		}
+	}
+
+	@Test
+	void dailyCountsOfNoIssues() {
+		IssueColumns columns = IssueColumns.of(Collections.emptyList());
+		DailyCounts counts = columns.dailyCounts(SearchQueryBuilder.create("spring-projects", "spring-boot"),
+				DailyCounts.Field.CLOSED);
+		assertThat(counts.total()).isZero();
+		assertThat(counts.count(FIRST_DAY, FIRST_DAY.plusYears(1))).isZero();
+	}
+
+}
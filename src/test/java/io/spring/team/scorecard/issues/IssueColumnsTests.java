@@ -0,0 +1,176 @@
+package io.spring.team.scorecard.issues;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link IssueColumns}, checking that counts match what GitHub search returns for the query
+ * sent by {@link SearchQueryBuilder#build()}.
+ */
+class IssueColumnsTests {
+
+	private static final LocalDate JANUARY_1 = LocalDate.of(2020, 1, 1);
+
+	private static final LocalDate JANUARY_31 = LocalDate.of(2020, 1, 31);
+
+	private static final LocalDate FEBRUARY_1 = LocalDate.of(2020, 2, 1);
+
+	private static final Pattern QUALIFIER = Pattern.compile("(-?)([a-z]+):(\"[^\"]*\"(?:,\"[^\"]*\")*|\\S+)");
+
+	private static final List<Issue> ISSUES = Arrays.asList(
+			// closed right at midnight UTC, so on February 1st
+			issue(1, false, "alice", "2020-01-10T10:00:00Z", "2020-02-01T00:00:00Z", null, "Type: Bug"),
+			// created by an account that has been deleted
+			issue(2, false, null, "2020-01-05T08:00:00Z", "2020-01-31T23:59:59Z", null, "type: bug"),
+			issue(3, true, "alice", "2020-01-20T12:00:00Z", null, "2.3.0", "type: enhancement"),
+			issue(4, false, "Bob", "2020-01-12T09:00:00Z", "2020-01-15T09:00:00Z", null, "status: declined", "type: bug"),
+			issue(5, false, "carol", "2019-12-31T23:59:59Z", null, null, "type: enhancement"),
+			issue(6, false, "spring-builds", "2020-02-01T00:00:00Z", null, null),
+			issue(7, true, "alice", "2020-01-02T00:00:00Z", "2020-01-20T00:00:00Z", "2.2.0", "type: bug",
+					"type: regression"));
+
+	private static final IssueColumns COLUMNS = IssueColumns.of(ISSUES);
+
+	static Stream<Arguments> queries() {
+		return Stream.of(
+				query(7, () -> repo()),
+				query(5, () -> repo().createdBetween(JANUARY_1, JANUARY_31)),
+				query(3, () -> repo().closedBetween(JANUARY_1, JANUARY_31)),
+				query(1, () -> repo().closedBetween(FEBRUARY_1, LocalDate.of(2020, 2, 29))),
+				query(1, () -> repo().createdBefore(JANUARY_1)),
+				query(1, () -> repo().createdAfter(FEBRUARY_1)),
+				query(3, () -> repo().closedBefore(FEBRUARY_1)),
+				query(1, () -> repo().closedAfter(FEBRUARY_1)),
+				query(3, () -> repo().createdBetween(JANUARY_1, JANUARY_31).closedBetween(JANUARY_1, JANUARY_31)),
+				query(4, () -> repo().withLabel("type: bug")),
+				query(3, () -> repo().withLabel("TYPE: BUG").ignoringLabel("Status: Declined")),
+				query(3, () -> repo().withAnyLabel(Arrays.asList("type: regression", "TYPE: ENHANCEMENT"))),
+				query(0, () -> repo().withLabel("type: unknown")),
+				query(1, () -> repo().author("bob")),
+				query(1, () -> repo().author("ghost")),
+				query(0, () -> repo().author("dave")),
+				query(2, () -> repo().author("ALICE").isPr()),
+				query(3, () -> repo().ignoringAuthors(Arrays.asList("alice", "spring-builds"))),
+				query(6, () -> repo().ignoringAuthors(Collections.singleton("ghost"))),
+				query(5, () -> repo().notMilestoned()),
+				query(3, () -> repo().isOpen()),
+				query(4, () -> repo().isClosed()),
+				query(5, () -> repo().isIssue()),
+				query(1, () -> repo().closedBetween(JANUARY_1, JANUARY_31).withAnyLabel(Collections.singleton("type: bug"))
+						.notMilestoned().ignoringAuthors(Collections.singleton("bob"))));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("queries")
+	void countMatchesGitHubSearch(String search, Supplier<SearchQueryBuilder> query, int expected) {
+		assertThat(search(search)).isEqualTo(expected);
+		assertThat(COLUMNS.count(query.get())).isEqualTo(expected);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("queries")
+	void dailyCountsMatchGitHubSearch(String search, Supplier<SearchQueryBuilder> query, int expected) {
+		SearchQueryBuilder builder = query.get();
+		if (builder.getCreated() != null && builder.getClosed() == null) {
+			DailyCounts counts = COLUMNS.dailyCounts(builder.anyDate(), DailyCounts.Field.CREATED);
+			assertThat(counts.count(builder.getCreated().getStart(), builder.getCreated().getEnd())).isEqualTo(expected);
+		}
+		if (builder.getClosed() != null && builder.getCreated() == null) {
+			DailyCounts counts = COLUMNS.dailyCounts(builder.anyDate(), DailyCounts.Field.CLOSED);
+			assertThat(counts.count(builder.getClosed().getStart(), builder.getClosed().getEnd())).isEqualTo(expected);
+		}
+	}
+
+	private static Arguments query(int expected, Supplier<SearchQueryBuilder> query) {
+		return Arguments.of(query.get().build().trim(), query, expected);
+	}
+
+	private static SearchQueryBuilder repo() {
+		return SearchQueryBuilder.create("spring-projects", "spring-boot");
+	}
+
+	/**
+	 * Count the fixture issues matching the given search, following GitHub search semantics: dates are UTC days,
+	 * labels and logins are case insensitive, and issues of deleted accounts are authored by "ghost".
+	 */
+	private static int search(String search) {
+		int count = 0;
+		for (Issue issue : ISSUES) {
+			boolean matches = true;
+			Matcher matcher = QUALIFIER.matcher(search);
+			while (matcher.find()) {
+				boolean negated = !matcher.group(1).isEmpty();
+				matches = matches && (negated != matches(issue, matcher.group(2), matcher.group(3)));
+			}
+			count += matches ? 1 : 0;
+		}
+		return count;
+	}
+
+	private static boolean matches(Issue issue, String qualifier, String value) {
+		switch (qualifier) {
+			case "repo":
+				return value.equals("spring-projects/spring-boot");
+			case "created":
+				return inRange(issue.getCreatedAt(), value);
+			case "closed":
+				return issue.getClosedAt() != null && inRange(issue.getClosedAt(), value);
+			case "author":
+				return value.equalsIgnoreCase((issue.getAuthor() != null) ? issue.getAuthor() : "ghost");
+			case "label":
+				return Arrays.stream(value.split(",")).map((label) -> label.substring(1, label.length() - 1))
+						.anyMatch((label) -> issue.getLabels().stream().anyMatch(label::equalsIgnoreCase));
+			case "no":
+				return value.equals("milestone") && issue.getMilestone() == null;
+			case "is":
+				switch (value) {
+					case "open":
+						return !issue.isClosed();
+					case "closed":
+						return issue.isClosed();
+					case "issue":
+						return !issue.isPullRequest();
+					case "pr":
+						return issue.isPullRequest();
+				}
+		}
+		throw new IllegalArgumentException("Unsupported qualifier " + qualifier + ":" + value);
+	}
+
+	private static boolean inRange(Instant instant, String range) {
+		LocalDate day = instant.atOffset(ZoneOffset.UTC).toLocalDate();
+		if (range.startsWith("<")) {
+			return day.isBefore(LocalDate.parse(range.substring(1)));
+		}
+		if (range.startsWith(">=")) {
+			return !day.isBefore(LocalDate.parse(range.substring(2)));
+		}
+		String[] bounds = range.split("\\.\\.");
+		return !day.isBefore(LocalDate.parse(bounds[0])) && !day.isAfter(LocalDate.parse(bounds[1]));
+	}
+
+	private static Issue issue(int number, boolean pullRequest, String author, String createdAt, String closedAt,
+			String milestone, String... labels) {
+		Set<String> labelSet = new HashSet<>(Arrays.asList(labels));
+		return new Issue(number, pullRequest, author, Instant.parse(createdAt),
+				(closedAt != null) ? Instant.parse(closedAt) : null, Instant.parse(createdAt), labelSet, milestone);
+	}
+
+}
@@ -0,0 +1,94 @@
+package io.spring.team.scorecard.issues;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import io.spring.team.scorecard.issues.Issue.Comment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+/**
+ * Tests for {@link IssueSnapshot}.
+ */
+class IssueSnapshotTests {
+
+	private static final Instant CREATED_AT = Instant.parse("2020-03-01T10:00:00Z");
+
+	@TempDir
+	Path temp;
+
+	@Test
+	void writeAndOpen() throws IOException {
+		IssueColumns columns = IssueColumns.of(issues(), Collections.singleton("spring-builds"));
+		Path file = this.temp.resolve("issues.snapshot");
+		Instant syncedAt = Instant.ofEpochMilli(1583056800123L);
+		IssueSnapshot.write(columns, syncedAt, file);
+		IssueSnapshot snapshot = IssueSnapshot.open(file);
+		assertThat(snapshot.getSyncedAt()).isEqualTo(syncedAt);
+		IssueColumns opened = snapshot.getColumns();
+		assertThat(opened.size()).isEqualTo(3);
+		assertThat(opened.count(query().withLabel("type: bug"))).isEqualTo(2);
+		assertThat(opened.count(query().isClosed())).isEqualTo(1);
+		assertThat(opened.count(query().author("alice"))).isEqualTo(2);
+		assertThat(opened.count(query().isPr())).isEqualTo(1);
+		List<Long> timespans = new ArrayList<>();
+		opened.forEachTimespan(query(), IssueColumns.Timespan.TIME_TO_FIRST_RESPONSE, timespans::add);
+		assertThat(timespans).containsExactly(7200L);
+		List<Long> timeToClose = new ArrayList<>();
+		opened.forEachTimespan(query(), IssueColumns.Timespan.TIME_TO_CLOSE, timeToClose::add);
+		assertThat(timeToClose).containsExactly(86400L);
+	}
+
+	@Test
+	void openTruncatedSnapshot() throws IOException {
+		Path file = this.temp.resolve("issues.snapshot");
+		IssueSnapshot.write(IssueColumns.of(issues()), Instant.now(), file);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 8);
+		}
+		assertThatIOException().isThrownBy(() -> IssueSnapshot.open(file));
+	}
+
+	@Test
+	void openFileThatIsNotASnapshot() throws IOException {
+		Path file = this.temp.resolve("issues.snapshot");
+		Files.write(file, "not a snapshot, only some text".getBytes());
+		assertThatIOException().isThrownBy(() -> IssueSnapshot.open(file));
+	}
+
+	private SearchQueryBuilder query() {
+		return SearchQueryBuilder.create("spring-projects", "spring-boot");
+	}
+
+	private List<Issue> issues() {
+		// the bot comments first, so the first response is the second comment
+		Issue answered = new Issue(1, false, "alice", CREATED_AT, null, CREATED_AT, labels("type: bug"), null,
+				Arrays.asList(new Comment("spring-builds", CREATED_AT.plusSeconds(60)),
+						new Comment("bob", CREATED_AT.plusSeconds(7200))));
+		// only the author's comment was fetched, so whether someone responded is unknown
+		Issue closed = new Issue(2, false, "carol", CREATED_AT, CREATED_AT.plusSeconds(86400), CREATED_AT,
+				labels("type: bug", "status: declined"), "2.3.0",
+				Collections.singletonList(new Comment("carol", CREATED_AT.plusSeconds(60))), true);
+		Issue pullRequest = new Issue(3, true, "alice", CREATED_AT, null, CREATED_AT, labels("type: enhancement"),
+				null);
+		return Arrays.asList(answered, closed, pullRequest);
+	}
+
+	private static HashSet<String> labels(String... labels) {
+		return new HashSet<>(Arrays.asList(labels));
+	}
+
+}
@@ -0,0 +1,123 @@
+package io.spring.team.scorecard.issues;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.team.scorecard.graphql.GraphQLClient;
+import io.spring.team.scorecard.graphql.RequestScheduler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link IssueSync}.
+ */
+class IssueSyncTests {
+
+	private static final Instant SYNCED_AT = Instant.parse("2020-06-01T12:00:00Z");
+
+	@TempDir
+	Path temp;
+
+	@Test
+	void syncRemovesDeletedIssueWhenAnotherOneWasCreated() throws IOException {
+		IssueStore store = new IssueStore(this.temp);
+		IssueIndex stored = new IssueIndex();
+		stored.add(issue(1, SYNCED_AT));
+		stored.add(issue(2, SYNCED_AT));
+		store.save("spring-projects", "spring-boot", stored);
+		// issue 2 was deleted and issue 3 created, so the repository still has 2 issues
+		GraphQLClient client = new FakeClient(Flux.just(issue(3, SYNCED_AT.plusSeconds(60))), Flux.just(1, 3));
+		IssueIndex synced = sync(client, store).sync().block();
+		assertThat(synced.getIssues()).extracting(Issue::getNumber).containsExactlyInAnyOrder(1, 3);
+		assertThat(store.load("spring-projects", "spring-boot").getIssues()).extracting(Issue::getNumber)
+				.containsExactlyInAnyOrder(1, 3);
+	}
+
+	@Test
+	void syncKeepsIssuesThatAreStillListed() throws IOException {
+		IssueStore store = new IssueStore(this.temp);
+		IssueIndex stored = new IssueIndex();
+		stored.add(issue(1, SYNCED_AT));
+		stored.add(issue(2, SYNCED_AT));
+		store.save("spring-projects", "spring-boot", stored);
+		GraphQLClient client = new FakeClient(Flux.empty(), Flux.just(2, 1));
+		IssueIndex synced = sync(client, store).sync().block();
+		assertThat(synced.getIssues()).extracting(Issue::getNumber).containsExactlyInAnyOrder(1, 2);
+	}
+
+	@Test
+	void syncDoesNotListNumbersBeforeReconcileInterval() throws IOException {
+		IssueStore store = new IssueStore(this.temp);
+		IssueIndex stored = new IssueIndex();
+		stored.add(issue(1, SYNCED_AT));
+		stored.add(issue(2, SYNCED_AT));
+		Instant reconciledAt = Instant.now().minus(Duration.ofHours(1));
+		stored.setReconciledAt(reconciledAt);
+		store.save("spring-projects", "spring-boot", stored);
+		GraphQLClient client = new FakeClient(Flux.just(issue(3, SYNCED_AT.plusSeconds(60))),
+				Flux.error(new IllegalStateException("Numbers should not be listed")));
+		IssueIndex synced = sync(client, store).sync().block();
+		assertThat(synced.getIssues()).extracting(Issue::getNumber).containsExactlyInAnyOrder(1, 2, 3);
+		assertThat(store.load("spring-projects", "spring-boot").getReconciledAt()).isEqualTo(reconciledAt);
+	}
+
+	@Test
+	void syncRecordsReconciliation() throws IOException {
+		IssueStore store = new IssueStore(this.temp);
+		IssueIndex stored = new IssueIndex();
+		stored.add(issue(1, SYNCED_AT));
+		stored.setReconciledAt(Instant.now().minus(Duration.ofDays(2)));
+		store.save("spring-projects", "spring-boot", stored);
+		Instant startedAt = Instant.now();
+		sync(new FakeClient(Flux.empty(), Flux.just(1)), store).sync().block();
+		assertThat(store.load("spring-projects", "spring-boot").getReconciledAt()).isAfterOrEqualTo(startedAt);
+	}
+
+	private static IssueSync sync(GraphQLClient client, IssueStore store) {
+		IssueSync sync = new IssueSync(client, store, "spring-projects", "spring-boot");
+		sync.setReconcileInterval(Duration.ofDays(1));
+		return sync;
+	}
+
+	private static Issue issue(int number, Instant updatedAt) {
+		return new Issue(number, false, "alice", updatedAt, null, updatedAt, Collections.singleton("type: bug"), null);
+	}
+
+	/**
+	 * {@link GraphQLClient} answering incremental syncs with fixed issues and numbers.
+	 */
+	private static class FakeClient extends GraphQLClient {
+
+		private final Flux<Issue> updated;
+
+		private final Flux<Integer> numbers;
+
+		FakeClient(Flux<Issue> updated, Flux<Integer> numbers) {
+			super((body) -> Mono.error(new IllegalStateException("Unexpected request")),
+					new RequestScheduler(1, 30, 0, Duration.ofMillis(1), new SimpleMeterRegistry()),
+					new SimpleMeterRegistry());
+			this.updated = updated;
+			this.numbers = numbers;
+		}
+
+		@Override
+		public Flux<Issue> findIssuesAndPullRequestsUpdatedSince(String org, String repo, Instant since) {
+			return this.updated;
+		}
+
+		@Override
+		public Flux<Integer> findIssueAndPullRequestNumbers(String org, String repo) {
+			return this.numbers;
+		}
+
+	}
+
+}
@@ -0,0 +1,48 @@
+package io.spring.team.scorecard.issues;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import io.spring.team.scorecard.issues.Issue.Comment;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Issue}.
+ */
+class IssueTests {
+
+	private static final Instant CREATED_AT = Instant.parse("2020-03-01T10:00:00Z");
+
+	private final Issue issue = new Issue(1, false, "alice", CREATED_AT, null, CREATED_AT,
+			Collections.singleton("type: bug"), null,
+			Arrays.asList(new Comment("Alice", CREATED_AT.plusSeconds(60)),
+					new Comment("spring-builds", CREATED_AT.plusSeconds(120)),
+					new Comment("dave", CREATED_AT.plusSeconds(3600)),
+					new Comment("bob", CREATED_AT.plusSeconds(7200))));
+
+	@Test
+	void firstResponseIsNotFromTheAuthor() {
+		assertThat(this.issue.getFirstResponseAt(Collections.emptySet())).isEqualTo(CREATED_AT.plusSeconds(120));
+	}
+
+	@Test
+	void firstResponseIgnoresBots() {
+		assertThat(this.issue.getFirstResponseAt(Collections.singleton("Spring-Builds")))
+				.isEqualTo(CREATED_AT.plusSeconds(3600));
+	}
+
+	@Test
+	void firstResponseIsFromAResponder() {
+		assertThat(this.issue.getFirstResponseAt(Arrays.asList("alice", "Bob"), Collections.emptySet()))
+				.isEqualTo(CREATED_AT.plusSeconds(7200));
+	}
+
+	@Test
+	void firstResponseWithoutResponse() {
+		assertThat(this.issue.getFirstResponseAt(Collections.singleton("carol"), Collections.emptySet())).isNull();
+	}
+
+}
@@ -0,0 +1,58 @@
+package io.spring.team.scorecard.server;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.spring.team.scorecard.ScorecardWriter;
+import io.spring.team.scorecard.stats.DurationHistogram;
+import io.spring.team.scorecard.stats.ReportingPeriod;
+import io.spring.team.scorecard.stats.Scorecard;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link ScorecardController}.
+ */
+class ScorecardControllerTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void durationsHaveTheSameShapeAsWrittenScorecards() throws IOException {
+		DurationHistogram histogram = new DurationHistogram();
+		for (int seconds = 1; seconds <= 10; seconds++) {
+			histogram.record(seconds * 3600);
+		}
+		Map<String, DurationHistogram> durations = new LinkedHashMap<>();
+		durations.put("timeToClose", histogram);
+		Scorecard scorecard = new Scorecard("spring-projects/spring-boot",
+				new ReportingPeriod(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 3, 31)), 12, 34,
+				Collections.singletonMap("bug", 5), durations);
+		ScorecardCache scorecardCache = mock(ScorecardCache.class);
+		given(scorecardCache.get(eq("spring-projects"), eq("spring-boot"), any())).willReturn(Mono.just(scorecard));
+		WebTestClient client = WebTestClient.bindToController(new ScorecardController(scorecardCache)).build();
+		byte[] body = client.get().uri("/scorecards/spring-projects/spring-boot?start=2020-01-01&end=2020-03-31")
+				.exchange().expectStatus().isOk().expectBody().returnResult().getResponseBody();
+		JsonNode served = this.objectMapper.readTree(body).path("durations");
+		StringWriter written = new StringWriter();
+		new ScorecardWriter().write(Collections.singletonList(scorecard), ScorecardWriter.Format.JSON, written);
+		assertThat(served).isEqualTo(this.objectMapper.readTree(written.toString()).path(0).path("durations"));
+		assertThat(served.path("timeToClose").path("p90Seconds").asLong())
+				.isEqualTo(histogram.getPercentile(0.9).getSeconds());
+	}
+
+}
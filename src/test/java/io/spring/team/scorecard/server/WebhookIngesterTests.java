@@ -0,0 +1,213 @@
+package io.spring.team.scorecard.server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.team.scorecard.ScorecardProperties;
+import io.spring.team.scorecard.StatsServiceFactory;
+import io.spring.team.scorecard.graphql.GraphQLClient;
+import io.spring.team.scorecard.graphql.RequestScheduler;
+import io.spring.team.scorecard.issues.Issue;
+import io.spring.team.scorecard.issues.IssueColumns;
+import io.spring.team.scorecard.issues.IssueEvent;
+import io.spring.team.scorecard.issues.IssueIndex;
+import io.spring.team.scorecard.issues.IssueStore;
+import io.spring.team.scorecard.stats.ReportingPeriod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link WebhookIngester}.
+ */
+class WebhookIngesterTests {
+
+	private static final String SECRET = "It's a Secret to Everybody";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final List<IssueEvent> events = new ArrayList<>();
+
+	@TempDir
+	Path temp;
+
+	@Test
+	void verifyValidSignature() throws Exception {
+		WebhookIngester ingester = ingester(null);
+		byte[] body = "Hello, World!".getBytes(StandardCharsets.UTF_8);
+		assertThat(ingester.verify(body, sign(body))).isTrue();
+	}
+
+	@Test
+	void verifyInvalidSignature() throws Exception {
+		WebhookIngester ingester = ingester(null);
+		byte[] body = "Hello, World!".getBytes(StandardCharsets.UTF_8);
+		String signature = sign(body);
+		assertThat(ingester.verify("Hello, World?".getBytes(StandardCharsets.UTF_8), signature)).isFalse();
+		assertThat(ingester.verify(body, null)).isFalse();
+		assertThat(ingester.verify(body, signature.substring("sha256=".length()))).isFalse();
+		assertThat(ingester.verify(body, "sha1=" + signature.substring("sha256=".length()))).isFalse();
+	}
+
+	@Test
+	void secretIsRequired() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new WebhookIngester((event) -> Mono.empty(), null, 100, null));
+		assertThatIllegalArgumentException().isThrownBy(() -> new WebhookIngester((event) -> Mono.empty(), " ", 100, null));
+	}
+
+	@Test
+	void ingestRedelivery() throws IOException {
+		WebhookIngester ingester = ingester(null);
+		JsonNode payload = payload("opened", 42, "2020-06-01T12:00:00Z");
+		assertThat(ingester.ingest("delivery-1", "issues", payload).block()).isTrue();
+		assertThat(ingester.ingest("delivery-1", "issues", payload).block()).isFalse();
+		assertThat(this.events).hasSize(1);
+		assertThat(this.events.get(0).getIssue().getNumber()).isEqualTo(42);
+		assertThat(this.events.get(0).getRepo()).isEqualTo("spring-boot");
+	}
+
+	@Test
+	void ingestEventThatIsNotApplied() throws IOException {
+		List<IssueEvent> handled = new ArrayList<>();
+		WebhookIngester ingester = new WebhookIngester((event) -> Mono.fromCallable(() -> !handled.add(event)), SECRET,
+				100, null);
+		JsonNode payload = payload("opened", 42, "2020-06-01T12:00:00Z");
+		assertThat(ingester.ingest("delivery-1", "issues", payload).block()).isFalse();
+		assertThat(ingester.ingest("delivery-1", "issues", payload).block()).isFalse();
+		assertThat(handled).hasSize(2);
+	}
+
+	@Test
+	void journaledEventIsAppliedToScorecardOnceIssuesAreLoaded() throws IOException {
+		ScorecardProperties properties = properties();
+		IssueStore store = new IssueStore(properties.getIndex().getPath());
+		IssueIndex stored = new IssueIndex();
+		stored.add(new Issue(1, false, "alice", Instant.parse("2020-06-01T12:00:00Z"), null,
+				Instant.parse("2020-06-01T12:00:00Z"), Collections.singleton("type: bug"), null));
+		store.save("spring-projects", "spring-boot", stored);
+		store.saveSnapshot("spring-projects", "spring-boot", IssueColumns.of(stored.getIssues()), Instant.now());
+		GraphQLClient client = new GraphQLClient((body) -> Mono.error(new IllegalStateException("Unexpected request")),
+				new RequestScheduler(1, 30, 0, Duration.ofMillis(1), new SimpleMeterRegistry()),
+				new SimpleMeterRegistry());
+		StatsServiceFactory statsServiceFactory = new StatsServiceFactory(properties, client,
+				(query) -> Mono.error(new IllegalStateException("Unexpected search")), new SimpleMeterRegistry());
+		ScorecardCache scorecardCache = new ScorecardCache(statsServiceFactory, properties, Clock.systemUTC());
+		ReportingPeriod june = new ReportingPeriod(LocalDate.of(2020, 6, 1), LocalDate.of(2020, 6, 30));
+		try (WebhookIngester ingester = new WebhookIngester(scorecardCache::update, SECRET, 100,
+				this.temp.resolve("webhooks.jsonl"))) {
+			statsServiceFactory.setSyncListener(ingester);
+			// no scorecard of the repository yet, the event is only journaled
+			assertThat(ingester.ingest("delivery-1", "issues", payload("opened", 2, "2020-06-02T12:00:00Z")).block())
+					.isFalse();
+			scorecardCache.get("spring-projects", "spring-boot", june).block();
+			assertThat(ingester.reapply("spring-projects", "spring-boot").block()).isEqualTo(1);
+			assertThat(scorecardCache.get("spring-projects", "spring-boot", june).block().getInboundVolume())
+					.isEqualTo(2);
+			assertThat(ingester.ingest("delivery-2", "issues", payload("closed", 2, "2020-06-03T12:00:00Z")).block())
+					.isTrue();
+		}
+		finally {
+			scorecardCache.close();
+		}
+	}
+
+	@Test
+	void ingestIgnoredAction() throws IOException {
+		WebhookIngester ingester = ingester(null);
+		JsonNode payload = payload("edited", 42, "2020-06-01T12:00:00Z");
+		assertThat(ingester.ingest("delivery-1", "issues", payload).block()).isFalse();
+		assertThat(this.events).isEmpty();
+	}
+
+	@Test
+	void replayJournal() throws IOException {
+		Path journal = this.temp.resolve("webhooks.jsonl");
+		try (WebhookIngester ingester = ingester(journal)) {
+			ingester.ingest("delivery-1", "issues", payload("opened", 1, "2020-06-01T12:00:00Z")).block();
+			ingester.ingest("delivery-2", "issues", payload("closed", 1, "2020-06-02T12:00:00Z")).block();
+		}
+		this.events.clear();
+		try (WebhookIngester ingester = ingester(journal)) {
+			assertThat(ingester.replay(journal).block()).isEqualTo(2);
+		}
+		assertThat(this.events).extracting(IssueEvent::getAction).containsExactly("opened", "closed");
+	}
+
+	@Test
+	void compactDropsSyncedDeliveries() throws IOException {
+		Path journal = this.temp.resolve("webhooks.jsonl");
+		try (WebhookIngester ingester = ingester(journal)) {
+			ingester.ingest("delivery-1", "issues", payload("opened", 1, "2020-06-01T12:00:00Z")).block();
+			ingester.ingest("delivery-2", "issues", payload("closed", 1, "2020-06-03T12:00:00Z")).block();
+			ingester.compact("spring-projects", "spring-boot", Instant.parse("2020-06-02T00:00:00Z"));
+			ingester.ingest("delivery-3", "issues", payload("reopened", 1, "2020-06-04T12:00:00Z")).block();
+		}
+		assertThat(Files.readAllLines(journal)).hasSize(2).allMatch((line) -> !line.contains("delivery-1"));
+	}
+
+	private WebhookIngester ingester(Path journal) throws IOException {
+		return new WebhookIngester((event) -> Mono.fromCallable(() -> this.events.add(event)), SECRET, 100, journal);
+	}
+
+	private ScorecardProperties properties() {
+		ScorecardProperties properties = new ScorecardProperties();
+		properties.getProject().setOrg("spring-projects");
+		properties.getProject().setName("spring-boot");
+		properties.getProject().setMembers(Collections.singletonList("bob"));
+		properties.getProject().setBots(Collections.emptyList());
+		properties.getIndex().setEnabled(true);
+		properties.getIndex().setPath(this.temp.resolve("issues"));
+		ScorecardProperties.IssueLabels labels = properties.getLabels();
+		labels.setBugs(Arrays.asList("type: bug", "type: regression"));
+		labels.setEnhancements(Collections.singletonList("type: enhancement"));
+		labels.setTasks(Collections.singletonList("type: task"));
+		labels.setDocs(Collections.singletonList("type: documentation"));
+		labels.setDuplicates(Collections.singletonList("status: duplicate"));
+		labels.setRejected(Collections.singletonList("status: declined"));
+		labels.setPorts(Collections.singletonList("status: back-port"));
+		labels.setQuestions(Collections.singletonList("for: stackoverflow"));
+		return properties;
+	}
+
+	private String sign(byte[] body) throws Exception {
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		StringBuilder signature = new StringBuilder("sha256=");
+		for (byte b : mac.doFinal(body)) {
+			signature.append(String.format("%02x", b));
+		}
+		return signature.toString();
+	}
+
+	private JsonNode payload(String action, int number, String updatedAt) {
+		ObjectNode payload = this.objectMapper.createObjectNode().put("action", action);
+		ObjectNode issue = payload.putObject("issue").put("number", number).put("created_at", "2020-06-01T12:00:00Z")
+				.put("updated_at", updatedAt);
+		issue.putObject("user").put("login", "alice");
+		issue.putArray("labels").addObject().put("name", "type: bug");
+		ObjectNode repository = payload.putObject("repository").put("name", "spring-boot");
+		repository.putObject("owner").put("login", "spring-projects");
+		return payload;
+	}
+
+}
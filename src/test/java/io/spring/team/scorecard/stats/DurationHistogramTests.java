@@ -0,0 +1,79 @@
+package io.spring.team.scorecard.stats;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DurationHistogram}.
+ */
+class DurationHistogramTests {
+
+	@Test
+	void emptyHistogramReportsZero() {
+		DurationHistogram histogram = new DurationHistogram();
+		assertThat(histogram.getCount()).isZero();
+		assertThat(histogram.getMean()).isEqualTo(Duration.ZERO);
+		assertThat(histogram.getPercentile(0.5)).isEqualTo(Duration.ZERO);
+	}
+
+	@Test
+	void smallDurationsAreExact() {
+		DurationHistogram histogram = new DurationHistogram();
+		for (int seconds = 1; seconds <= 10; seconds++) {
+			histogram.record(seconds);
+		}
+		assertThat(histogram.getCount()).isEqualTo(10);
+		assertThat(histogram.getMean()).isEqualTo(Duration.ofSeconds(5));
+		assertThat(histogram.getMax()).isEqualTo(Duration.ofSeconds(10));
+		assertThat(histogram.getPercentile(0.5)).isEqualTo(Duration.ofSeconds(5));
+		assertThat(histogram.getPercentile(0.9)).isEqualTo(Duration.ofSeconds(9));
+		assertThat(histogram.getPercentile(1)).isEqualTo(Duration.ofSeconds(10));
+	}
+
+	@Test
+	void largeDurationsAreAccurateWithinABucket() {
+		DurationHistogram histogram = new DurationHistogram();
+		for (int seconds = 1; seconds <= 100_000; seconds++) {
+			histogram.record(seconds);
+		}
+		assertThat(histogram.getPercentile(0.5).getSeconds()).isBetween(50_000L, 53_125L);
+		assertThat(histogram.getPercentile(0.99).getSeconds()).isBetween(99_000L, 100_000L);
+	}
+
+	@Test
+	void percentilesAreClampedToRecordedDurations() {
+		DurationHistogram histogram = new DurationHistogram();
+		histogram.record(1_000_000);
+		assertThat(histogram.getPercentile(0.5)).isEqualTo(Duration.ofSeconds(1_000_000));
+	}
+
+	@Test
+	void negativeDurationsAreRecordedAsZero() {
+		DurationHistogram histogram = new DurationHistogram();
+		histogram.record(-10);
+		assertThat(histogram.getCount()).isEqualTo(1);
+		assertThat(histogram.getMax()).isEqualTo(Duration.ZERO);
+	}
+
+	@Test
+	void mergeIsTheSameAsRecordingEverything() {
+		DurationHistogram all = new DurationHistogram();
+		DurationHistogram first = new DurationHistogram();
+		DurationHistogram second = new DurationHistogram();
+		for (int seconds = 1; seconds <= 5000; seconds += 7) {
+			all.record(seconds);
+			((seconds % 2 == 0) ? first : second).record(seconds);
+		}
+		DurationHistogram merged = first.merge(second);
+		assertThat(merged.getCount()).isEqualTo(all.getCount());
+		assertThat(merged.getMean()).isEqualTo(all.getMean());
+		assertThat(merged.getMax()).isEqualTo(all.getMax());
+		for (double percentile : new double[] { 0.1, 0.5, 0.9, 0.99 }) {
+			assertThat(merged.getPercentile(percentile)).isEqualTo(all.getPercentile(percentile));
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+package io.spring.team.scorecard.stats;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.spring.team.scorecard.graphql.SearchQueryBuilder;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link QueryPlanner} and {@link CountPlan}.
+ */
+class QueryPlannerTests {
+
+	private static final String REPO = "repo:spring-projects/spring-boot";
+
+	private static final String CREATED = REPO + " created:2020-01-01..2020-01-31";
+
+	private final Map<String, Integer> counts = new HashMap<>();
+
+	private final IssueCounter counter = (query) -> Mono.fromCallable(() -> {
+		Integer count = this.counts.get(query.build().trim());
+		if (count == null) {
+			throw new IllegalStateException("Unexpected search: " + query.build());
+		}
+		return count;
+	});
+
+	@Test
+	void excludingAuthorsIsASingleSearch() {
+		CountPlan plan = new QueryPlanner().excludingAuthors(created(), Arrays.asList("bob", "Alice", "alice"));
+		assertThat(queries(plan)).containsExactly(CREATED + " -author:Alice -author:bob");
+		this.counts.put(CREATED + " -author:Alice -author:bob", 7);
+		assertThat(plan.count(this.counter).block()).isEqualTo(7);
+	}
+
+	@Test
+	void excludingNoAuthorsIsTheQueryItself() {
+		CountPlan plan = new QueryPlanner().excludingAuthors(created(), Collections.emptyList());
+		assertThat(queries(plan)).containsExactly(CREATED);
+	}
+
+	@Test
+	void excludingAuthorsThatDontFitSubtractsEachAuthor() {
+		CountPlan plan = new QueryPlanner(50).excludingAuthors(repo(), Arrays.asList("alice", "bob"));
+		assertThat(queries(plan)).containsExactly(REPO, REPO + " author:alice", REPO + " author:bob");
+		this.counts.put(REPO, 10);
+		this.counts.put(REPO + " author:alice", 2);
+		this.counts.put(REPO + " author:bob", 1);
+		assertThat(plan.count(this.counter).block()).isEqualTo(7);
+	}
+
+	@Test
+	void anyAuthorIsTotalMinusExclusions() {
+		CountPlan plan = new QueryPlanner().anyAuthor(created(), Arrays.asList("alice", "bob"));
+		assertThat(queries(plan)).containsExactly(CREATED, CREATED + " -author:alice -author:bob");
+		this.counts.put(CREATED, 10);
+		this.counts.put(CREATED + " -author:alice -author:bob", 7);
+		assertThat(plan.count(this.counter).block()).isEqualTo(3);
+	}
+
+	@Test
+	void anySingleAuthorIsAnAuthorSearch() {
+		CountPlan plan = new QueryPlanner().anyAuthor(created(), Arrays.asList("alice", "Alice"));
+		assertThat(queries(plan)).containsExactly(CREATED + " author:alice");
+	}
+
+	@Test
+	void anyAuthorThatDontFitAddsEachAuthor() {
+		CountPlan plan = new QueryPlanner(50).anyAuthor(repo(), Arrays.asList("alice", "bob"));
+		assertThat(queries(plan)).containsExactly(REPO + " author:alice", REPO + " author:bob");
+		this.counts.put(REPO + " author:alice", 2);
+		this.counts.put(REPO + " author:bob", 1);
+		assertThat(plan.count(this.counter).block()).isEqualTo(3);
+	}
+
+	@Test
+	void anyOfNoAuthorsIsZero() {
+		CountPlan plan = new QueryPlanner().anyAuthor(created(), null);
+		assertThat(queries(plan)).isEmpty();
+		assertThat(plan.count(this.counter).block()).isZero();
+	}
+
+	@Test
+	void anyLabelIsASingleSearch() {
+		CountPlan plan = new QueryPlanner().anyLabel(created(), Arrays.asList("type: bug", "type: regression"));
+		assertThat(queries(plan)).containsExactly(CREATED + " label:\"type: bug\",\"type: regression\"");
+	}
+
+	@Test
+	void anyLabelIsSplitWhenItDoesntFit() {
+		CountPlan plan = new QueryPlanner(60).anyLabel(repo(), Arrays.asList("label-1", "label-2", "label-3"));
+		assertThat(queries(plan)).containsExactly(REPO + " label:\"label-1\",\"label-2\"", REPO + " label:\"label-3\"");
+		this.counts.put(REPO + " label:\"label-1\",\"label-2\"", 5);
+		this.counts.put(REPO + " label:\"label-3\"", 2);
+		assertThat(plan.count(this.counter).block()).isEqualTo(7);
+	}
+
+	@Test
+	void anyLabelSearchesFitInGitHubMaxQueryLength() {
+		List<String> labels = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			labels.add(String.format("status: label-%02d", i));
+		}
+		CountPlan plan = new QueryPlanner().anyLabel(created(), labels);
+		List<SearchQueryBuilder> queries = plan.getQueries();
+		assertThat(queries).hasSizeGreaterThan(1);
+		assertThat(queries(plan)).allMatch((query) -> query.length() <= QueryPlanner.MAX_QUERY_LENGTH);
+		assertThat(queries.stream().flatMap((query) -> query.getAnyLabels().stream()).collect(Collectors.toList()))
+				.containsExactlyElementsOf(labels);
+		IssueCounter labelCounter = (query) -> Mono.just(query.getAnyLabels().size());
+		assertThat(plan.count(labelCounter).block()).isEqualTo(40);
+	}
+
+	private SearchQueryBuilder repo() {
+		return SearchQueryBuilder.create("spring-projects", "spring-boot");
+	}
+
+	private SearchQueryBuilder created() {
+		return repo().createdBetween(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 31));
+	}
+
+	private List<String> queries(CountPlan plan) {
+		return plan.getQueries().stream().map((query) -> query.build().trim()).collect(Collectors.toList());
+	}
+
+}